@@ -0,0 +1,122 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.service.AuthService;
+import com.example.sistemalogin.service.LoginTimingEqualizer;
+import com.example.sistemalogin.service.PasswordHashingExecutor;
+import com.example.sistemalogin.service.VerifiedCredentialCache;
+import com.example.sistemalogin.store.BloomFilteredUserStore;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.NormalizedUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.example.sistemalogin.store.UsernameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caminos calientes de AuthService con una tabla precargada de tableSize
+ * usuarios. La precarga usa un único hash calculado una vez, así que armar
+ * una tabla de un millón no cuesta un millón de BCrypt.
+ *
+ * El hashing corre en el hilo del benchmark (PasswordHashingExecutor.inline)
+ * para medir el costo del servicio y no la cola del pool, y sin igualar el
+ * tiempo de los usuarios inexistentes, que si no mediría la espera.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    private static final String PASSWORD = "password123";
+
+    @Param({"4", "10"})
+    public int strength;
+
+    @Param({"1000", "1000000"})
+    public int tableSize;
+
+    @Param({"concurrent", "compact"})
+    public String engine;
+
+    @Param({"false", "true"})
+    public boolean usernameFilter;
+
+    @Param({"false", "true"})
+    public boolean normalizedIndex;
+
+    private AuthService authService;
+    private String[] usernames;
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        UserStore users = "compact".equals(engine)
+                ? new CompactUserStore(tableSize)
+                : new ConcurrentUserStore(tableSize);
+        if (usernameFilter) {
+            users = new BloomFilteredUserStore(users, tableSize, 10);
+        }
+        if (normalizedIndex) {
+            users = new NormalizedUserStore(users, new UsernameIndex());
+        }
+        String hash = encoder.encode(PASSWORD);
+        usernames = new String[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            usernames[i] = "user" + i + "@example.com";
+            users.put(new User(usernames[i], hash));
+        }
+        authService = new AuthService(users, PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), encoder, LoginTimingEqualizer.disabled());
+    }
+
+    @Benchmark
+    public boolean registerUser() {
+        return authService.registerUser("new" + registrations.incrementAndGet() + "@example.com", PASSWORD);
+    }
+
+    @Benchmark
+    public boolean authenticateUser() {
+        return authService.authenticateUser(randomUsername(), PASSWORD);
+    }
+
+    @Benchmark
+    public boolean authenticateWrongPassword() {
+        return authService.authenticateUser(randomUsername(), "wrong-password");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean authenticateUnknownUser() {
+        return authService.authenticateUser("missing@example.com", PASSWORD);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean userExists() {
+        return authService.userExists(randomUsername());
+    }
+
+    private String randomUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(usernames.length)];
+    }
+}
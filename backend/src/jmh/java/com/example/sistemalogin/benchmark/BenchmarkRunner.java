@@ -0,0 +1,75 @@
+package com.example.sistemalogin.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Punto de entrada de los benchmarks. Acepta las opciones de línea de comandos
+ * de JMH y agrega dos propias:
+ *
+ *   -threads 1,4,8   corre la selección una vez por cada cantidad de hilos
+ *   -out archivo     resultados combinados en JSON (target/jmh-results.json)
+ *
+ * Todas las corridas quedan en un único JSON, que es el que se compara entre
+ * versiones para detectar regresiones.
+ *
+ * Ejemplo:
+ *   mvn -Pbenchmark test-compile exec:exec \\
+ *       -Djmh.args="-threads 1,4 -p strength=4 AuthServiceBenchmark"
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> threadCounts = new ArrayList<>();
+        Path out = Paths.get("target", "jmh-results.json");
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-threads".equals(args[i]) && i + 1 < args.length) {
+                for (String count : args[++i].split(",")) {
+                    threadCounts.add(Integer.parseInt(count.trim()));
+                }
+            } else if ("-out".equals(args[i]) && i + 1 < args.length) {
+                out = Paths.get(args[++i]);
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+        if (threadCounts.isEmpty()) {
+            threadCounts.add(1);
+            int processors = Runtime.getRuntime().availableProcessors();
+            if (processors > 1) {
+                threadCounts.add(processors);
+            }
+        }
+
+        Options commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(out), true, "UTF-8")) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, stream).writeOut(results);
+        }
+        System.out.println("Resultados: " + out.toAbsolutePath());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.controller.AuthController;
+import com.example.sistemalogin.controller.AuthJsonMessageConverter;
+import com.example.sistemalogin.dto.AuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de AuthRequest y escritura de AuthResponse con Jackson, tal como
+ * lo hace el conversor de Spring MVC en cada request, y lo mismo a través
+ * del conversor de Jackson de Spring y de AuthJsonMessageConverter.
+ *
+ * Los mensajes HTTP de entrada y salida se reutilizan entre invocaciones para
+ * que -prof gc (gc.alloc.rate.norm) muestre solo lo que reserva cada
+ * conversor:
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc JsonBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestBody;
+    private AuthResponse loginResponse;
+    private AuthResponse errorResponse;
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+    private AuthJsonMessageConverter fastConverter;
+    private ReusableInputMessage input;
+    private ReusableOutputMessage output;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        requestReader = mapper.readerFor(AuthController.AuthRequest.class);
+        responseWriter = mapper.writerFor(AuthResponse.class);
+        requestBody = "{\"username\":\"usuario@ejemplo.com\",\"password\":\"contraseña123\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        loginResponse = new AuthResponse(true, "Inicio de sesión exitoso", "usuario@ejemplo.com",
+                "dXN1YXJpb0BlamVtcGxvLmNvbQ.1700000900.c2lnbmF0dXJlc2lnbmF0dXJlc2lnbmF0dXJlc2ln");
+        errorResponse = new AuthResponse(false, "Credenciales incorrectas");
+        jacksonConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        fastConverter = new AuthJsonMessageConverter();
+        input = new ReusableInputMessage(requestBody);
+        output = new ReusableOutputMessage();
+    }
+
+    @Benchmark
+    public AuthController.AuthRequest readAuthRequest() throws IOException {
+        return requestReader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public byte[] writeLoginResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] writeErrorResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public Object readAuthRequestJacksonConverter() throws IOException {
+        return jacksonConverter.read(AuthController.AuthRequest.class, input.reset());
+    }
+
+    @Benchmark
+    public Object readAuthRequestFastPath() throws IOException {
+        return fastConverter.read(AuthController.AuthRequest.class, input.reset());
+    }
+
+    @Benchmark
+    public long writeLoginResponseJacksonConverter() throws IOException {
+        jacksonConverter.write(loginResponse, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.count;
+    }
+
+    @Benchmark
+    public long writeLoginResponseFastPath() throws IOException {
+        fastConverter.write(loginResponse, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.count;
+    }
+
+    @Benchmark
+    public long writeErrorResponseJacksonConverter() throws IOException {
+        jacksonConverter.write(errorResponse, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.count;
+    }
+
+    @Benchmark
+    public long writeErrorResponseFastPath() throws IOException {
+        fastConverter.write(errorResponse, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.count;
+    }
+
+    private static final class ReusableInputMessage implements HttpInputMessage {
+        private final ByteArrayInputStream body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        ReusableInputMessage(byte[] bytes) {
+            this.body = new ByteArrayInputStream(bytes);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+
+        ReusableInputMessage reset() {
+            body.reset();
+            return this;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class ReusableOutputMessage implements HttpOutputMessage {
+        private final CountingOutputStream body = new CountingOutputStream();
+        private final HttpHeaders headers = new HttpHeaders();
+
+        ReusableOutputMessage reset() {
+            body.count = 0;
+            headers.clear();
+            return this;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    // descarta los bytes como lo haría el socket, sin reservar memoria
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.service.AdaptiveBCryptPasswordEncoder;
+import com.example.sistemalogin.service.PasswordHashEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash y verificación de cada motor con los parámetros por defecto de
+ * application.properties (modificables con -p). Throughput en ops/s; la
+ * memoria por verificación sale de gc.alloc.rate.norm corriendo con
+ * -prof gc, que para Argon2id es del orden de memoryKib.
+ *
+ *   -Djmh.args="-prof gc PasswordEncoderBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "password123";
+
+    @Param({PasswordHashEngines.BCRYPT, PasswordHashEngines.ARGON2ID, PasswordHashEngines.PBKDF2})
+    public String engine;
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    @Param({"19456"})
+    public int argon2MemoryKib;
+
+    @Param({"2"})
+    public int argon2Iterations;
+
+    @Param({"600000"})
+    public int pbkdf2Iterations;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = PasswordHashEngines.delegating(engine, new AdaptiveBCryptPasswordEncoder(bcryptStrength),
+                PasswordHashEngines.argon2id(argon2MemoryKib, argon2Iterations, 1),
+                PasswordHashEngines.pbkdf2(pbkdf2Iterations));
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
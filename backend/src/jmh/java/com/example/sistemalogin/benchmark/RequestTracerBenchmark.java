@@ -0,0 +1,68 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.tracing.RequestTrace;
+import com.example.sistemalogin.tracing.RequestTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de trazar un request de login completo (span raíz y seis fases, con
+ * la escritura del archivo en su hilo) según la tasa de muestreo. Para
+ * comparar con lo que cuesta el login: un BCrypt de costo 10 son ~60 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestTracerBenchmark {
+
+    @Param({"0", "0.01", "1"})
+    public double sampleRate;
+
+    private Path file;
+    private RequestTracer tracer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("spans", ".jsonl");
+        tracer = new RequestTracer(file, sampleRate, 0, 4096, Long.MAX_VALUE, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tracer.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public RequestTrace login() {
+        RequestTrace trace = tracer.begin("POST", "/api/login", null);
+        trace.open("json.decode");
+        trace.close("json.decode");
+        for (String phase : new String[] {"rate_limit", "user.lookup", "hash.queue", "password.verify"}) {
+            trace.end(phase, trace.start());
+        }
+        trace.open("json.encode");
+        tracer.finish(trace, 200);
+        return trace;
+    }
+}
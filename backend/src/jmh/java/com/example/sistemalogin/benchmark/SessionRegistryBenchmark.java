@@ -0,0 +1,90 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.session.SessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionRegistry con un millón de sesiones vivas: búsqueda, alta y baja, y
+ * el costo de un tick de expiración cuando no vence nada. Al armar el estado
+ * imprime los bytes de heap por sesión para seguir el consumo de memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SessionRegistryBenchmark {
+
+    @Param({"1000000"})
+    public int sessions;
+
+    @Param({"64"})
+    public int shards;
+
+    private SessionRegistry registry;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        registry = new SessionRegistry(shards, TimeUnit.HOURS.toMillis(1), 1_000, new SimpleMeterRegistry());
+        ids = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = registry.create("user" + (i % 10_000) + "@example.com");
+        }
+        long after = usedHeap();
+        // los ids en String son del benchmark, no del registro: se descuentan
+        long idBytes = (long) sessions * (16 + 24 + 24);
+        System.out.printf("%nsesiones=%d heap por sesión≈%d bytes%n", sessions, (after - before - idBytes) / sessions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    public String lookup() {
+        return registry.lookup(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public boolean createAndRemove() {
+        return registry.remove(registry.create("bench@example.com"));
+    }
+
+    @Benchmark
+    public boolean touch() {
+        return registry.touch(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public int expireTick() {
+        return registry.expire();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
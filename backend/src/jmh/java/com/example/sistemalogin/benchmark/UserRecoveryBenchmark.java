@@ -0,0 +1,94 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.persistence.UserJournal;
+import com.example.sistemalogin.persistence.UserSnapshot;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo de arranque con persistencia: cargar el snapshot mapeado en memoria
+ * contra reaplicar el mismo contenido desde el journal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserRecoveryBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    @Param({"concurrent", "compact"})
+    public String engine;
+
+    private Path directory;
+    private Path snapshot;
+    private Path journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-recovery-bench");
+        snapshot = directory.resolve("snapshot.dat");
+        journal = directory.resolve("journal-0.log");
+        // Todos comparten el hash: lo que se mide es E/S y carga, no BCrypt
+        String hash = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8Q9Vh1PxJ3Zq3Z0n6XkQ9XW";
+        UserStore source = new ConcurrentUserStore(users);
+        try (UserJournal writer = new UserJournal(journal, false, 0, 4096)) {
+            for (int i = 0; i < users; i++) {
+                User user = new User("user" + i + "@example.com", hash);
+                source.put(user);
+                writer.write(user);
+            }
+        }
+        UserSnapshot.write(snapshot, 1, source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int loadSnapshot() throws IOException {
+        UserStore store = newStore();
+        UserSnapshot.load(snapshot, store::put);
+        return store.size();
+    }
+
+    @Benchmark
+    public int replayJournal() throws IOException {
+        UserStore store = newStore();
+        UserJournal.replay(journal, store::put);
+        return store.size();
+    }
+
+    private UserStore newStore() {
+        return "compact".equals(engine) ? new CompactUserStore(users) : new ConcurrentUserStore(users);
+    }
+}
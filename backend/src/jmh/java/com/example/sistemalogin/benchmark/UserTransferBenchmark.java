@@ -0,0 +1,78 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.service.UserTransferService;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportación e importación NDJSON de un millón de usuarios. Al armar el
+ * estado imprime el tamaño del volcado: MB/s = tamaño / tiempo por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserTransferBenchmark {
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"concurrent", "compact"})
+    public String engine;
+
+    private UserTransferService source;
+    private byte[] dump;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UserStore store = newStore();
+        String hash = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8Q9Vh1PxJ3Zq3Z0n6XkQ9XW";
+        for (int i = 0; i < users; i++) {
+            store.put(new User("user" + i + "@example.com", hash));
+        }
+        source = new UserTransferService(store, objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(users * 100);
+        source.exportUsers(out);
+        dump = out.toByteArray();
+        System.out.printf("%nvolcado=%d bytes (%.1f MB)%n", dump.length, dump.length / 1e6);
+    }
+
+    @Benchmark
+    public long exportUsers() throws IOException {
+        return source.exportUsers(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long importUsers() throws IOException {
+        return new UserTransferService(newStore(), objectMapper)
+                .importUsers(new ByteArrayInputStream(dump)).getImported();
+    }
+
+    private UserStore newStore() {
+        return "compact".equals(engine) ? new CompactUserStore(users) : new ConcurrentUserStore(users);
+    }
+}
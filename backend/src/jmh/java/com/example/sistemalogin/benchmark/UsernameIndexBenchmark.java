@@ -0,0 +1,75 @@
+package com.example.sistemalogin.benchmark;
+
+import com.example.sistemalogin.store.UsernameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UsernameIndex con tableSize usernames: búsqueda exacta de una variante en
+ * mayúsculas (lo que hace el login) y una página de 100 por prefijo, desde
+ * el principio del prefijo o desde un cursor en el medio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameIndexBenchmark {
+
+    @Param({"1000000"})
+    public int tableSize;
+
+    private UsernameIndex index;
+    private String[] variants;
+    private String[] prefixes;
+    private String[] cursors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UsernameIndex();
+        variants = new String[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            String username = String.format("user%07d@example.com", i);
+            index.claim(username);
+            index.publish(username);
+            variants[i] = String.format("User%07d@Example.com", i);
+        }
+        prefixes = new String[1000];
+        cursors = new String[1000];
+        for (int i = 0; i < prefixes.length; i++) {
+            int bucket = ThreadLocalRandom.current().nextInt(tableSize / 1000);
+            prefixes[i] = String.format("user%04d", bucket);
+            cursors[i] = String.format("user%04d500@example.com", bucket);
+        }
+    }
+
+    @Benchmark
+    public String resolveVariant() {
+        return index.resolve(variants[ThreadLocalRandom.current().nextInt(variants.length)]);
+    }
+
+    @Benchmark
+    public UsernameIndex.Page scanFirstPage() {
+        return index.scan(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], null, 100);
+    }
+
+    @Benchmark
+    public UsernameIndex.Page scanFromCursor() {
+        int i = ThreadLocalRandom.current().nextInt(prefixes.length);
+        return index.scan(prefixes[i], cursors[i], 100);
+    }
+}
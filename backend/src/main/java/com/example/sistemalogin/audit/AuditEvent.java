@@ -0,0 +1,58 @@
+package com.example.sistemalogin.audit;
+
+/**
+ * Un intento de login o registro: cuándo, qué endpoint (login o register),
+ * con qué resultado, qué username y desde qué IP. outcome es el mismo motivo
+ * acotado de la métrica auth.attempts (ok, invalid_credentials,
+ * username_taken...) más los rechazos rate_limited, account_locked y
+ * overloaded.
+ *
+ * En el ring buffer los eventos son slots reutilizables: el request copia
+ * las referencias en un slot ya reservado y no crea objetos.
+ */
+public final class AuditEvent {
+
+    private long timestamp;
+    private String event;
+    private String outcome;
+    private String username;
+    private String clientIp;
+
+    AuditEvent() {
+    }
+
+    public AuditEvent(long timestamp, String event, String outcome, String username, String clientIp) {
+        set(timestamp, event, outcome, username, clientIp);
+    }
+
+    void set(long timestamp, String event, String outcome, String username, String clientIp) {
+        this.timestamp = timestamp;
+        this.event = event;
+        this.outcome = outcome;
+        this.username = username;
+        this.clientIp = clientIp;
+    }
+
+    /**
+     * Milisegundos desde epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+}
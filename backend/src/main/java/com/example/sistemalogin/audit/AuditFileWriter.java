@@ -0,0 +1,129 @@
+package com.example.sistemalogin.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Escribe los eventos como NDJSON, una línea
+ * {"ts":...,"event":...,"outcome":...,"username":...,"ip":...} por evento,
+ * en archivos audit-00000001.ndjson, audit-00000002.ndjson... dentro del
+ * directorio. Cada arranque empieza un archivo nuevo, y se pasa al
+ * siguiente cuando el actual llega a maxFileBytes (se revisa al final de
+ * cada lote, así que puede pasarse por un lote). Se conservan los maxFiles
+ * más nuevos.
+ *
+ * Lo usa solo el hilo escritor de AuditLog.
+ */
+class AuditFileWriter implements Closeable {
+
+    static final Pattern FILE_NAME = Pattern.compile("audit-(\\d{8})\\.ndjson");
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private int index;
+    private JsonGenerator generator;
+
+    AuditFileWriter(Path directory, long maxFileBytes, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        Files.createDirectories(directory);
+        List<Integer> existing = existingIndexes(directory);
+        this.index = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+        rotate();
+    }
+
+    void write(AuditEvent event) throws IOException {
+        if (generator == null) {
+            rotate(); // falló la apertura del archivo anterior
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("ts", event.getTimestamp());
+        generator.writeStringField("event", event.getEvent());
+        generator.writeStringField("outcome", event.getOutcome());
+        generator.writeStringField("username", event.getUsername());
+        generator.writeStringField("ip", event.getClientIp());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Fin de un lote: lo pasa al sistema operativo y rota si hace falta.
+     */
+    void endBatch() throws IOException {
+        if (generator == null) {
+            throw new IOException("No hay archivo de auditoría abierto");
+        }
+        generator.flush();
+        if (Files.size(fileName(index)) >= maxFileBytes) {
+            rotate();
+        }
+    }
+
+    /**
+     * Cierra el archivo actual, abre el siguiente y borra los que sobran.
+     */
+    void rotate() throws IOException {
+        closeCurrent();
+        index++;
+        OutputStream file = Files.newOutputStream(fileName(index), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        generator = JSON.createGenerator(file);
+        generator.setRootValueSeparator(null);
+        List<Integer> existing = existingIndexes(directory);
+        for (int i = 0; i < existing.size() - maxFiles; i++) {
+            Files.deleteIfExists(fileName(existing.get(i)));
+        }
+    }
+
+    private Path fileName(int index) {
+        return fileName(directory, index);
+    }
+
+    static Path fileName(Path directory, int index) {
+        return directory.resolve(String.format("audit-%08d.ndjson", index));
+    }
+
+    /**
+     * Índices de los archivos de auditoría del directorio, de menor a mayor.
+     */
+    static List<Integer> existingIndexes(Path directory) throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private void closeCurrent() throws IOException {
+        if (generator != null) {
+            generator.close(); // cierra también el archivo
+            generator = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeCurrent();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.sistemalogin.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de auditoría de los intentos de login y registro, fuera del
+ * camino del request: record() copia el evento en un slot de
+ * AuditRingBuffer (un CAS, sin locks ni objetos nuevos) y un único hilo
+ * escritor los pasa a disco por lotes con AuditFileWriter.
+ *
+ * Con el buffer lleno, la política decide: DROP descarta el evento y lo
+ * cuenta en auth.audit.dropped, el request no espera nunca; BLOCK espera a
+ * que el escritor libere un slot, así no se pierde ningún evento pero un
+ * disco lento frena los requests.
+ */
+public class AuditLog implements Closeable {
+
+    public enum Policy {
+        DROP, BLOCK
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditRingBuffer ring;
+    private final AuditFileWriter writer;
+    private final Policy policy;
+    private final LongSupplier clock;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter blocked;
+    private final Thread thread;
+    private volatile boolean running = true;
+    // solo del hilo escritor
+    private int failures;
+    private IOException failure;
+
+    public AuditLog(Path directory, int bufferSize, Policy policy, long maxFileBytes, int maxFiles,
+                    MeterRegistry registry) throws IOException {
+        this(new AuditFileWriter(directory, maxFileBytes, maxFiles), bufferSize, policy, registry,
+                System::currentTimeMillis);
+    }
+
+    AuditLog(AuditFileWriter writer, int bufferSize, Policy policy, MeterRegistry registry, LongSupplier clock) {
+        this.ring = writer == null ? null : new AuditRingBuffer(bufferSize);
+        this.writer = writer;
+        this.policy = policy;
+        this.clock = clock;
+        this.written = Counter.builder("auth.audit.written")
+                .description("Eventos de auditoría escritos")
+                .register(registry);
+        this.dropped = Counter.builder("auth.audit.dropped")
+                .description("Eventos de auditoría perdidos por buffer lleno o error de escritura")
+                .register(registry);
+        this.blocked = Counter.builder("auth.audit.blocked")
+                .description("Requests que esperaron lugar en el buffer de auditoría")
+                .register(registry);
+        if (ring == null) {
+            this.thread = null;
+            return;
+        }
+        Gauge.builder("auth.audit.pending", ring, AuditRingBuffer::pending)
+                .description("Eventos de auditoría esperando al escritor")
+                .register(registry);
+        this.thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static AuditLog disabled() {
+        return new AuditLog(null, 0, Policy.DROP, new SimpleMeterRegistry(), System::currentTimeMillis);
+    }
+
+    public void record(String event, String outcome, String username, String clientIp) {
+        if (ring == null) {
+            return;
+        }
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            if (policy == Policy.DROP || !running) {
+                dropped.increment();
+                return;
+            }
+            blocked.increment();
+            while ((sequence = ring.tryClaim()) < 0) {
+                if (!running) {
+                    dropped.increment(); // cerrando: el escritor no va a liberar más lugar
+                    return;
+                }
+                LockSupport.parkNanos(BLOCKED_NANOS);
+            }
+        }
+        ring.slot(sequence).set(clock.getAsLong(), event, outcome, username, clientIp);
+        ring.publish(sequence);
+    }
+
+    private void run() {
+        while (true) {
+            failures = 0;
+            int count = ring.drain(BATCH_SIZE, this::write);
+            if (count > 0) {
+                try {
+                    writer.endBatch();
+                } catch (IOException e) {
+                    failures = count; // el lote no llegó al archivo
+                    failure = e;
+                }
+                written.increment(count - failures);
+                if (failures > 0) {
+                    onWriteFailure();
+                }
+                continue;
+            }
+            if (!running) {
+                return; // cerrando y ya no queda nada publicado
+            }
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            writer.write(event);
+        } catch (IOException e) {
+            failures++;
+            failure = e;
+        }
+    }
+
+    /**
+     * Los eventos que fallaron se cuentan como perdidos y se sigue en un
+     * archivo nuevo.
+     */
+    private void onWriteFailure() {
+        dropped.increment(failures);
+        log.warn("No se pudieron escribir {} eventos de auditoría: {}", failures, failure.getMessage());
+        try {
+            writer.rotate();
+        } catch (IOException e) {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1)); // disco no disponible: reintentar después
+        }
+    }
+
+    public long pending() {
+        return ring == null ? 0 : ring.pending();
+    }
+
+    /**
+     * Espera a que el escritor vacíe el buffer y cierra el archivo. Lo que
+     * llegue después se descarta.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
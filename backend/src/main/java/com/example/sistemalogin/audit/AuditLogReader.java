@@ -0,0 +1,155 @@
+package com.example.sistemalogin.audit;
+
+import com.example.sistemalogin.store.UsernameNormalizer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lee los archivos de auditoría de un directorio en orden, del más viejo
+ * al más nuevo. Una línea incompleta (el proceso murió a mitad de un lote)
+ * termina la lectura de ese archivo y se sigue con el siguiente.
+ *
+ * También es la herramienta de consulta. Desde el jar de la aplicación:
+ *
+ *   java -cp backend.jar -Dloader.main=com.example.sistemalogin.audit.AuditLogReader \
+ *       org.springframework.boot.loader.launch.PropertiesLauncher <directorio> [filtros] [--summary]
+ *
+ * Filtros: --username (compara normalizado), --event login|register,
+ * --outcome, --ip, --since y --until (instantes ISO-8601, --until
+ * exclusivo). Lista una línea por evento con el instante en ISO-8601, o con
+ * --summary la cantidad por evento y resultado.
+ */
+public final class AuditLogReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private AuditLogReader() {
+    }
+
+    public static void read(Path directory, Consumer<AuditEvent> consumer) throws IOException {
+        for (int index : AuditFileWriter.existingIndexes(directory)) {
+            try (InputStream in = Files.newInputStream(AuditFileWriter.fileName(directory, index))) {
+                readFile(in, consumer);
+            }
+        }
+    }
+
+    static void readFile(InputStream in, Consumer<AuditEvent> consumer) throws IOException {
+        try (JsonParser parser = JSON.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    return;
+                }
+                AuditEvent event = readEvent(parser);
+                if (event == null) {
+                    return;
+                }
+                consumer.accept(event);
+            }
+        } catch (IOException e) {
+            // línea incompleta al final del archivo
+        }
+    }
+
+    private static AuditEvent readEvent(JsonParser parser) throws IOException {
+        long timestamp = -1;
+        String event = null;
+        String outcome = null;
+        String username = null;
+        String ip = null;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "ts" -> timestamp = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                case "event" -> event = text(parser, value);
+                case "outcome" -> outcome = text(parser, value);
+                case "username" -> username = text(parser, value);
+                case "ip" -> ip = text(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT || timestamp < 0 || event == null) {
+            return null;
+        }
+        return new AuditEvent(timestamp, event, outcome, username, ip);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: AuditLogReader <directorio> [--username u] [--event e] [--outcome o] [--ip ip]"
+                    + " [--since instante] [--until instante] [--summary]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Predicate<AuditEvent> filter = event -> true;
+        boolean summary = false;
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if ("--summary".equals(option)) {
+                summary = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + option);
+            }
+            String value = args[++i];
+            filter = filter.and(switch (option) {
+                case "--username" -> {
+                    String normalized = UsernameNormalizer.normalize(value);
+                    yield event -> event.getUsername() != null
+                            && normalized.equals(UsernameNormalizer.normalize(event.getUsername()));
+                }
+                case "--event" -> event -> value.equals(event.getEvent());
+                case "--outcome" -> event -> value.equals(event.getOutcome());
+                case "--ip" -> event -> value.equals(event.getClientIp());
+                case "--since" -> {
+                    long since = Instant.parse(value).toEpochMilli();
+                    yield event -> event.getTimestamp() >= since;
+                }
+                case "--until" -> {
+                    long until = Instant.parse(value).toEpochMilli();
+                    yield event -> event.getTimestamp() < until;
+                }
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option);
+            });
+        }
+
+        Predicate<AuditEvent> selected = filter;
+        PrintStream out = System.out;
+        if (summary) {
+            Map<String, Long> counts = new TreeMap<>();
+            read(directory, event -> {
+                if (selected.test(event)) {
+                    counts.merge(event.getEvent() + "\t" + event.getOutcome(), 1L, Long::sum);
+                }
+            });
+            counts.forEach((key, count) -> out.println(key + "\t" + count));
+        } else {
+            read(directory, event -> {
+                if (selected.test(event)) {
+                    out.println(Instant.ofEpochMilli(event.getTimestamp()) + "\t" + event.getEvent() + "\t"
+                            + event.getOutcome() + "\t" + event.getUsername() + "\t" + event.getClientIp());
+                }
+            });
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.sistemalogin.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Ring buffer de varios productores y un consumidor, al estilo Disruptor:
+ * los slots se crean una vez y se reutilizan, y no hay locks.
+ *
+ * Un productor reserva la siguiente secuencia con un CAS sobre claimed
+ * (solo si el consumidor ya liberó ese slot), escribe el slot y lo publica
+ * guardando la secuencia en published. El consumidor avanza mientras el
+ * slot siguiente tenga publicada su propia secuencia, así que nunca lee un
+ * slot a medio escribir aunque los productores publiquen fuera de orden, y
+ * después de cada lote mueve consumed para liberar los slots.
+ */
+final class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AuditEvent[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AuditEvent();
+            published.set(i, -1);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return la secuencia reservada, o -1 si el buffer está lleno
+     */
+    long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed.get() > slots.length) {
+                return -1;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    AuditEvent slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Entrega al consumidor hasta max eventos publicados en orden. Solo la
+     * llama el hilo consumidor.
+     *
+     * @return cuántos eventos entregó
+     */
+    int drain(int max, Consumer<AuditEvent> consumer) {
+        long first = consumed.get() + 1;
+        long next = first;
+        while (next - first < max && published.get((int) next & mask) == next) {
+            consumer.accept(slots[(int) next & mask]);
+            next++;
+        }
+        if (next != first) {
+            consumed.lazySet(next - 1);
+        }
+        return (int) (next - first);
+    }
+
+    /**
+     * Reservados y todavía no consumidos.
+     */
+    long pending() {
+        return claimed.get() - consumed.get();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.security.AdminKeyFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdminConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdminKeyFilter> adminKeyFilter(@Value("${auth.admin.api-key:}") String apiKey) {
+        FilterRegistrationBean<AdminKeyFilter> registration = new FilterRegistrationBean<>(new AdminKeyFilter(apiKey));
+        registration.addUrlPatterns("/api/admin/*");
+        return registration;
+    }
+}
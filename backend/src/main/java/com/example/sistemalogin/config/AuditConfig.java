@@ -0,0 +1,28 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.audit.AuditLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    public AuditLog auditLog(MeterRegistry meterRegistry,
+                             @Value("${auth.audit.dir:}") String dir,
+                             @Value("${auth.audit.buffer-size:65536}") int bufferSize,
+                             @Value("${auth.audit.policy:drop}") String policy,
+                             @Value("${auth.audit.max-file-bytes:67108864}") long maxFileBytes,
+                             @Value("${auth.audit.max-files:100}") int maxFiles) throws IOException {
+        if (dir.isBlank()) {
+            return AuditLog.disabled();
+        }
+        return new AuditLog(Paths.get(dir), bufferSize, AuditLog.Policy.valueOf(policy.trim().toUpperCase()),
+                maxFileBytes, maxFiles, meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.service.AdaptiveBCryptPasswordEncoder;
+import com.example.sistemalogin.service.BulkRegistrationService;
+import com.example.sistemalogin.service.LoginTimingEqualizer;
+import com.example.sistemalogin.service.PasswordHashEngines;
+import com.example.sistemalogin.service.PasswordHashingExecutor;
+import com.example.sistemalogin.service.UsernameReservations;
+import com.example.sistemalogin.service.VerifiedCredentialCache;
+import com.example.sistemalogin.store.UserStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class HashingConfig {
+
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(MeterRegistry meterRegistry,
+                                                           @Value("${auth.hashing.threads:0}") int threads,
+                                                           @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                                           @Value("${auth.hashing.retry-after-seconds:1}") int retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : PasswordHashingExecutor.defaultThreads();
+        return new PasswordHashingExecutor(poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.hash.engine:bcrypt}") String engine,
+                                           @Value("${auth.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.bcrypt.target-ms:250}") long targetMillis,
+                                           @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.bcrypt.max-strength:16}") int maxStrength,
+                                           @Value("${auth.hash.argon2id.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${auth.hash.argon2id.iterations:2}") int argon2Iterations,
+                                           @Value("${auth.hash.argon2id.parallelism:1}") int argon2Parallelism,
+                                           @Value("${auth.hash.pbkdf2.iterations:600000}") int pbkdf2Iterations) {
+        AdaptiveBCryptPasswordEncoder bcrypt;
+        if (strength > 0) {
+            bcrypt = new AdaptiveBCryptPasswordEncoder(strength);
+        } else if (PasswordHashEngines.BCRYPT.equals(engine)) {
+            bcrypt = AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+        } else {
+            bcrypt = new AdaptiveBCryptPasswordEncoder(minStrength); // solo verifica hashes viejos
+        }
+        Gauge.builder("auth.bcrypt.strength", bcrypt, AdaptiveBCryptPasswordEncoder::getStrength)
+                .description("Costo BCrypt con el que se generan los hashes nuevos")
+                .register(meterRegistry);
+        return PasswordHashEngines.delegating(engine, bcrypt,
+                PasswordHashEngines.argon2id(argon2MemoryKib, argon2Iterations, argon2Parallelism),
+                PasswordHashEngines.pbkdf2(pbkdf2Iterations));
+    }
+
+    @Bean
+    public VerifiedCredentialCache verifiedCredentialCache(MeterRegistry meterRegistry,
+                                                           @Value("${auth.credential-cache.enabled:false}") boolean enabled,
+                                                           @Value("${auth.credential-cache.max-entries:100000}") int maxEntries,
+                                                           @Value("${auth.credential-cache.ttl-ms:300000}") long ttlMillis) {
+        return new VerifiedCredentialCache(enabled, maxEntries, ttlMillis, meterRegistry);
+    }
+
+    @Bean
+    public LoginTimingEqualizer loginTimingEqualizer(MeterRegistry meterRegistry,
+                                                     @Value("${auth.login.equalize-timing:true}") boolean enabled) {
+        return new LoginTimingEqualizer(enabled, meterRegistry);
+    }
+
+    @Bean
+    public UsernameReservations usernameReservations(MeterRegistry meterRegistry,
+                                                     @Value("${auth.registration.reservation-timeout-ms:10000}") long timeoutMillis) {
+        return new UsernameReservations(timeoutMillis, meterRegistry);
+    }
+
+    @Bean
+    public BulkRegistrationService bulkRegistrationService(UserStore userStore, PasswordEncoder passwordEncoder,
+                                                           PasswordHashingExecutor passwordHashingExecutor,
+                                                           MeterRegistry meterRegistry,
+                                                           @Value("${auth.bulk.max-concurrent-jobs:1}") int maxJobs,
+                                                           @Value("${auth.bulk.max-in-flight:0}") int maxInFlight) {
+        // por defecto la mitad de los hilos de hashing: el resto queda para los logins
+        int inFlight = maxInFlight > 0 ? maxInFlight : Math.max(1, passwordHashingExecutor.getThreads() / 2);
+        return new BulkRegistrationService(userStore, passwordEncoder, passwordHashingExecutor, maxJobs, inFlight,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.security.AccountLockout;
+import com.example.sistemalogin.security.LoginRateLimiter;
+import com.example.sistemalogin.security.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(MeterRegistry meterRegistry,
+                                             @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                                             @Value("${auth.rate-limit.window-ms:60000}") long windowMillis,
+                                             @Value("${auth.rate-limit.per-ip:100}") int perIp,
+                                             @Value("${auth.rate-limit.per-user:10}") int perUser,
+                                             @Value("${auth.rate-limit.capacity:65536}") int capacity) {
+        if (!enabled) {
+            return LoginRateLimiter.disabled();
+        }
+        return new LoginRateLimiter(new SlidingWindowRateLimiter(capacity, perIp, windowMillis),
+                new SlidingWindowRateLimiter(capacity, perUser, windowMillis), meterRegistry);
+    }
+
+    @Bean
+    public AccountLockout accountLockout(MeterRegistry meterRegistry,
+                                         @Value("${auth.lockout.enabled:true}") boolean enabled,
+                                         @Value("${auth.lockout.threshold:5}") int threshold,
+                                         @Value("${auth.lockout.base-ms:30000}") long baseMillis,
+                                         @Value("${auth.lockout.max-ms:900000}") long maxMillis,
+                                         @Value("${auth.lockout.reset-ms:3600000}") long resetMillis,
+                                         @Value("${auth.lockout.capacity:65536}") int capacity) {
+        if (!enabled) {
+            return AccountLockout.disabled();
+        }
+        return new AccountLockout(capacity, threshold, baseMillis, maxMillis, resetMillis, meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.session.SessionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "auth.sessions.enabled", havingValue = "true")
+public class SessionConfig {
+
+    @Bean(initMethod = "start")
+    public SessionRegistry sessionRegistry(MeterRegistry meterRegistry,
+                                           @Value("${auth.sessions.shards:64}") int shards,
+                                           @Value("${auth.sessions.ttl-ms:1800000}") long ttlMillis,
+                                           @Value("${auth.sessions.tick-ms:1000}") long tickMillis) {
+        return new SessionRegistry(shards, ttlMillis, tickMillis, meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.security.TokenAuthenticationFilter;
+import com.example.sistemalogin.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Base64;
+
+@Configuration
+public class TokenConfig {
+
+    @Bean
+    public TokenService tokenService(@Value("${auth.token.secret:}") String secret,
+                                     @Value("${auth.token.ttl-seconds:900}") long ttlSeconds,
+                                     @Value("${auth.token.max-lifetime-seconds:86400}") long maxLifetimeSeconds) {
+        byte[] key = secret.isBlank() ? TokenService.randomSecret() : Base64.getDecoder().decode(secret);
+        return new TokenService(key, ttlSeconds, maxLifetimeSeconds);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TokenAuthenticationFilter> tokenAuthenticationFilter(TokenService tokenService) {
+        FilterRegistrationBean<TokenAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new TokenAuthenticationFilter(tokenService));
+        registration.addUrlPatterns("/api/refresh");
+        return registration;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.tracing.RequestTracer;
+import com.example.sistemalogin.tracing.TracingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public RequestTracer requestTracer(MeterRegistry meterRegistry,
+                                       @Value("${auth.tracing.file:}") String file,
+                                       @Value("${auth.tracing.sample-rate:0.01}") double sampleRate,
+                                       @Value("${auth.tracing.max-forced-per-second:10}") int maxForcedPerSecond,
+                                       @Value("${auth.tracing.queue-capacity:4096}") int queueCapacity,
+                                       @Value("${auth.tracing.max-file-bytes:67108864}") long maxFileBytes) throws IOException {
+        if (file.isBlank()) {
+            return RequestTracer.disabled();
+        }
+        return new RequestTracer(Paths.get(file), sampleRate, maxForcedPerSecond, queueCapacity, maxFileBytes,
+                meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(RequestTracer requestTracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(requestTracer));
+        registration.addUrlPatterns("/api/login", "/api/register", "/api/async/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // la traza incluye a los demás filtros
+        return registration;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.persistence.JournaledUserStore;
+import com.example.sistemalogin.persistence.UserCheckpointer;
+import com.example.sistemalogin.replication.HttpReplicationTransport;
+import com.example.sistemalogin.replication.ReplicatedUserStore;
+import com.example.sistemalogin.store.BloomFilteredUserStore;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.NormalizedUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.example.sistemalogin.store.UsernameIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class UserStoreConfig {
+
+    @Bean
+    public UsernameIndex usernameIndex() {
+        return new UsernameIndex();
+    }
+
+    @Bean
+    public UserStore userStore(MeterRegistry meterRegistry, UsernameIndex usernameIndex,
+                               @Value("${auth.store.engine:concurrent}") String engine,
+                               @Value("${auth.store.initial-capacity:1024}") int initialCapacity,
+                               @Value("${auth.store.username-filter.enabled:false}") boolean usernameFilter,
+                               @Value("${auth.store.username-filter.bits-per-user:10}") int bitsPerUser,
+                               @Value("${auth.persistence.dir:}") String persistenceDir,
+                               @Value("${auth.persistence.fsync:true}") boolean fsync,
+                               @Value("${auth.persistence.fsync-interval-ms:2}") long fsyncIntervalMillis,
+                               @Value("${auth.persistence.fsync-batch-size:512}") int fsyncBatchSize,
+                               @Value("${auth.replication.enabled:false}") boolean replication,
+                               @Value("${auth.replication.node-id:0}") int nodeId,
+                               @Value("${auth.replication.peers:}") List<String> peers,
+                               @Value("${auth.replication.queue-capacity:65536}") int replicationQueueCapacity,
+                               @Value("${auth.replication.batch-size:256}") int replicationBatchSize,
+                               @Value("${auth.replication.retry-ms:1000}") long replicationRetryMillis,
+                               @Value("${auth.replication.timeout-ms:5000}") long replicationTimeoutMillis,
+                               @Value("${auth.admin.api-key:}") String adminKey) throws IOException {
+        UserStore store = createEngine(engine, initialCapacity);
+        if (usernameFilter) {
+            // debajo del journal, así la recuperación también llena el filtro
+            BloomFilteredUserStore filtered = new BloomFilteredUserStore(store, initialCapacity, bitsPerUser);
+            FunctionCounter.builder("auth.store.filter.negatives", filtered, BloomFilteredUserStore::getNegativeLookups)
+                    .description("Búsquedas de usernames inexistentes resueltas por el filtro de Bloom")
+                    .register(meterRegistry);
+            FunctionCounter.builder("auth.store.filter.false.positives", filtered, BloomFilteredUserStore::getFalsePositives)
+                    .description("Búsquedas que pasaron el filtro de Bloom sin encontrar usuario")
+                    .register(meterRegistry);
+            store = filtered;
+        }
+        if (!persistenceDir.isBlank()) {
+            JournaledUserStore journaled = new JournaledUserStore(store, Paths.get(persistenceDir),
+                    fsync, fsyncIntervalMillis, fsyncBatchSize);
+            journaled.open();
+            store = journaled;
+        }
+        // encima del journal: la recuperación carga el motor tal cual y el índice se arma después,
+        // así dos usuarios viejos que solo difieren en mayúsculas no se pisan; el journal guarda
+        // siempre el username almacenado y lo recibido de otros nodos también pasa por el índice
+        store = new NormalizedUserStore(store, usernameIndex);
+        if (!replication) {
+            return store;
+        }
+        // encima del journal: lo recibido de otros nodos también queda durable
+        HttpReplicationTransport transport = new HttpReplicationTransport(adminKey,
+                Duration.ofMillis(replicationTimeoutMillis));
+        ReplicatedUserStore replicated = new ReplicatedUserStore(store, nodeId,
+                peers.stream().map(String::trim).filter(peer -> !peer.isEmpty()).toList(),
+                transport, replicationQueueCapacity, replicationBatchSize, replicationRetryMillis, meterRegistry);
+        replicated.start();
+        return replicated;
+    }
+
+    @Bean(initMethod = "start")
+    @ConditionalOnExpression("!'${auth.persistence.dir:}'.isBlank()")
+    public UserCheckpointer userCheckpointer(UserStore userStore, MeterRegistry meterRegistry,
+                                             @Value("${auth.persistence.checkpoint-interval-ms:300000}") long intervalMillis,
+                                             @Value("${auth.persistence.checkpoint-min-journal-bytes:0}") long minJournalBytes) {
+        UserStore durable = userStore instanceof ReplicatedUserStore replicated ? replicated.getDelegate() : userStore;
+        if (durable instanceof NormalizedUserStore normalized) {
+            durable = normalized.getDelegate();
+        }
+        return new UserCheckpointer((JournaledUserStore) durable, intervalMillis, minJournalBytes, meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder userStoreMetrics(UserStore userStore) {
+        return registry -> {
+            Gauge.builder("auth.users", userStore, UserStore::size)
+                    .description("Usuarios registrados")
+                    .register(registry);
+            Gauge.builder("auth.store.memory", userStore, UserStore::memoryBytes)
+                    .description("Memoria estimada de la tabla de usuarios")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    private static UserStore createEngine(String engine, int initialCapacity) {
+        switch (engine) {
+            case "concurrent":
+                return new ConcurrentUserStore(initialCapacity);
+            case "compact":
+                return new CompactUserStore(initialCapacity);
+            default:
+                throw new IllegalArgumentException("Motor de almacenamiento desconocido: " + engine);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.sistemalogin.config;
+
+import com.example.sistemalogin.controller.AuthJsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Value("${auth.json.fast-path:true}")
+    private boolean fastPath;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (fastPath) {
+            // antes del conversor de Jackson, que sigue atendiendo todo lo demás
+            converters.add(0, new AuthJsonMessageConverter());
+        }
+    }
+}
@@ -1,29 +1,128 @@
 package com.example.sistemalogin.controller;
 
+import com.example.sistemalogin.audit.AuditLog;
 import com.example.sistemalogin.dto.AuthResponse;
+import com.example.sistemalogin.persistence.UserJournal;
+import com.example.sistemalogin.security.AccountLockedException;
+import com.example.sistemalogin.security.LoginRateLimiter;
+import com.example.sistemalogin.security.RateLimitedException;
+import com.example.sistemalogin.security.TokenAuthenticationFilter;
+import com.example.sistemalogin.security.TokenService;
 import com.example.sistemalogin.service.AuthService;
+import com.example.sistemalogin.service.HashingOverloadedException;
+import com.example.sistemalogin.store.UsernameIndex;
+import com.example.sistemalogin.tracing.RequestTrace;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class AuthController {
     
+    private static final String ACCOUNT_LOCKED = "account_locked";
+    
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private AuthRequestMetrics metrics;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Autowired
+    private AuditLog auditLog;
+    
+    @Autowired
+    private UsernameIndex usernameIndex;
+    
     public static class AuthRequest {
         public String username;
         public String password;
     }
 
     @PostMapping("/register")
-    public AuthResponse register(@RequestBody AuthRequest request) {
+    public AuthResponse register(@RequestBody AuthRequest request, HttpServletRequest servletRequest) {
+        return timed(AuthRequestMetrics.REGISTER, request, servletRequest.getRemoteAddr(), () -> handleRegister(request));
+    }
+
+    @PostMapping("/login")
+    public AuthResponse login(@RequestBody AuthRequest request, HttpServletRequest servletRequest) {
+        String clientIp = servletRequest.getRemoteAddr();
+        return timed(AuthRequestMetrics.LOGIN, request, clientIp, () -> handleLogin(request, clientIp));
+    }
+
+    /**
+     * Variante asíncrona de /api/register: el hilo de Tomcat se libera
+     * mientras el hash corre en el pool y la respuesta se completa desde ahí.
+     */
+    @PostMapping("/async/register")
+    public CompletableFuture<AuthResponse> registerAsync(@RequestBody AuthRequest request, HttpServletRequest servletRequest) {
+        return timedAsync(AuthRequestMetrics.REGISTER, request, servletRequest.getRemoteAddr(), () -> handleRegisterAsync(request));
+    }
+
+    /**
+     * Variante asíncrona de /api/login, con las mismas validaciones, límite
+     * de intentos y respuestas.
+     */
+    @PostMapping("/async/login")
+    public CompletableFuture<AuthResponse> loginAsync(@RequestBody AuthRequest request, HttpServletRequest servletRequest) {
+        String clientIp = servletRequest.getRemoteAddr();
+        return timedAsync(AuthRequestMetrics.LOGIN, request, clientIp, () -> handleLoginAsync(request, clientIp));
+    }
+
+    private AuthResponse handleRegister(AuthRequest request) {
+        AuthResponse invalid = validateRegistration(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        
+        boolean registered = authService.registerUser(request.username.trim(), request.password);
+        return registrationResponse(request, registered);
+    }
+
+    private CompletableFuture<AuthResponse> handleRegisterAsync(AuthRequest request) {
+        AuthResponse invalid = validateRegistration(request);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(invalid);
+        }
+        
+        return authService.registerUserAsync(request.username.trim(), request.password)
+                .thenApply(registered -> registrationResponse(request, registered));
+    }
+
+    private static AuthResponse registrationResponse(AuthRequest request, boolean registered) {
+        if (registered) {
+            return new AuthResponse(true, "Usuario registrado exitosamente", request.username);
+        } else {
+            return new AuthResponse(false, "El nombre de usuario ya existe");
+        }
+    }
+
+    /**
+     * @return la respuesta de error si el request no es válido, o null
+     */
+    static AuthResponse validateRegistration(AuthRequest request) {
         if (request.username == null || request.username.trim().isEmpty()) {
             return new AuthResponse(false, "El nombre de usuario es obligatorio");
         }
         
+        if (!UserJournal.fitsUsername(request.username.trim())) {
+            return new AuthResponse(false, "El nombre de usuario es demasiado largo");
+        }
+        
         if (request.password == null || request.password.trim().isEmpty()) {
             return new AuthResponse(false, "La contraseña es obligatoria");
         }
@@ -31,32 +130,149 @@ public class AuthController {
         if (request.password.length() < 6) {
             return new AuthResponse(false, "La contraseña debe tener al menos 6 caracteres");
         }
+        return null;
+    }
+
+    private AuthResponse handleLogin(AuthRequest request, String clientIp) {
+        AuthResponse invalid = validateLogin(request);
+        if (invalid != null) {
+            return invalid;
+        }
         
-        boolean registered = authService.registerUser(request.username.trim(), request.password);
+        String username = request.username.trim();
+        checkRateLimit(clientIp, username); // antes de cualquier hash
         
-        if (registered) {
-            return new AuthResponse(true, "Usuario registrado exitosamente", request.username);
-        } else {
-            return new AuthResponse(false, "El nombre de usuario ya existe");
+        boolean authenticated = authService.authenticateUser(username, request.password);
+        return loginResponse(request, username, authenticated);
+    }
+
+    private CompletableFuture<AuthResponse> handleLoginAsync(AuthRequest request, String clientIp) {
+        AuthResponse invalid = validateLogin(request);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(invalid);
         }
+        
+        String username = request.username.trim();
+        checkRateLimit(clientIp, username);
+        
+        return authService.authenticateUserAsync(username, request.password)
+                .thenApply(authenticated -> loginResponse(request, username, authenticated));
     }
 
-    @PostMapping("/login")
-    public AuthResponse login(@RequestBody AuthRequest request) {
+    private void checkRateLimit(String clientIp, String username) {
+        RequestTrace trace = RequestTrace.current();
+        long limiting = trace.start();
+        loginRateLimiter.check(clientIp, username);
+        trace.end("rate_limit", limiting);
+    }
+
+    private static AuthResponse validateLogin(AuthRequest request) {
         if (request.username == null || request.username.trim().isEmpty()) {
             return new AuthResponse(false, "El nombre de usuario es obligatorio");
         }
         
+        if (!UserJournal.fitsUsername(request.username.trim())) {
+            return new AuthResponse(false, "El nombre de usuario es demasiado largo");
+        }
+        
         if (request.password == null || request.password.trim().isEmpty()) {
             return new AuthResponse(false, "La contraseña es obligatoria");
         }
-        
-        boolean authenticated = authService.authenticateUser(request.username.trim(), request.password);
-        
+        return null;
+    }
+
+    private AuthResponse loginResponse(AuthRequest request, String username, boolean authenticated) {
         if (authenticated) {
-            return new AuthResponse(true, "Inicio de sesión exitoso", request.username);
+            // el token lleva el username guardado: "ANA" y "ana" son la misma cuenta
+            String stored = usernameIndex.resolve(username);
+            String token = tokenService.issue(stored != null ? stored : username);
+            return new AuthResponse(true, "Inicio de sesión exitoso", request.username, token);
         } else {
             return new AuthResponse(false, "Credenciales incorrectas");
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Mide el request y lo deja en la auditoría con su resultado, también
+     * cuando se rechaza por sobrecarga, límite de intentos o bloqueo, o
+     * termina en un error inesperado (500).
+     */
+    private AuthResponse timed(String endpoint, AuthRequest request, String clientIp, Supplier<AuthResponse> handler) {
+        long start = System.nanoTime();
+        try {
+            AuthResponse response = metrics.record(endpoint, start, handler.get());
+            auditLog.record(endpoint, metrics.reason(endpoint, response), request.username, clientIp);
+            return response;
+        } catch (HashingOverloadedException e) {
+            metrics.recordRejected(endpoint, start, AuthRequestMetrics.OVERLOADED);
+            auditLog.record(endpoint, AuthRequestMetrics.OVERLOADED, request.username, clientIp);
+            throw e;
+        } catch (RateLimitedException e) {
+            metrics.recordRejected(endpoint, start, AuthRequestMetrics.RATE_LIMITED);
+            auditLog.record(endpoint, rejectionReason(e), request.username, clientIp);
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.recordRejected(endpoint, start, AuthRequestMetrics.ERROR);
+            auditLog.record(endpoint, AuthRequestMetrics.ERROR, request.username, clientIp);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<AuthResponse> timedAsync(String endpoint, AuthRequest request, String clientIp,
+                                                       Supplier<CompletableFuture<AuthResponse>> handler) {
+        long start = System.nanoTime();
+        CompletableFuture<AuthResponse> response;
+        try {
+            response = handler.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e); // p. ej. RateLimitedException antes de encolar
+        }
+        return response.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                metrics.record(endpoint, start, result);
+                auditLog.record(endpoint, metrics.reason(endpoint, result), request.username, clientIp);
+            } else if (cause instanceof HashingOverloadedException) {
+                metrics.recordRejected(endpoint, start, AuthRequestMetrics.OVERLOADED);
+                auditLog.record(endpoint, AuthRequestMetrics.OVERLOADED, request.username, clientIp);
+            } else if (cause instanceof RateLimitedException limited) {
+                metrics.recordRejected(endpoint, start, AuthRequestMetrics.RATE_LIMITED);
+                auditLog.record(endpoint, rejectionReason(limited), request.username, clientIp);
+            } else {
+                metrics.recordRejected(endpoint, start, AuthRequestMetrics.ERROR);
+                auditLog.record(endpoint, AuthRequestMetrics.ERROR, request.username, clientIp);
+            }
+        });
+    }
+
+    private static String rejectionReason(RateLimitedException e) {
+        return e instanceof AccountLockedException ? ACCOUNT_LOCKED : AuthRequestMetrics.RATE_LIMITED;
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(
+            @RequestAttribute(TokenAuthenticationFilter.USERNAME_ATTRIBUTE) String username,
+            @RequestAttribute(TokenAuthenticationFilter.ISSUED_AT_ATTRIBUTE) long issuedAt) {
+        String token = tokenService.refresh(username, issuedAt);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                    .body(new AuthResponse(false, "La sesión venció, inicia sesión nuevamente"));
+        }
+        return ResponseEntity.ok(new AuthResponse(true, "Token renovado", username, token));
+    }
+
+    @ExceptionHandler(HashingOverloadedException.class)
+    public ResponseEntity<AuthResponse> handleHashingOverloaded(HashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, "Servidor ocupado, intenta nuevamente en unos segundos"));
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<AuthResponse> handleRateLimited(RateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, "Demasiados intentos, intenta nuevamente más tarde"));
+    }
+}
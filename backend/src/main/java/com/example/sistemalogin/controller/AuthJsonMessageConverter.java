@@ -0,0 +1,299 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.AuthResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Conversor JSON dedicado para AuthRequest y AuthResponse, que tienen forma
+ * fija. La lectura usa el parser de streaming de Jackson en vez de databind,
+ * sin reflexión ni árbol intermedio.
+ *
+ * La escritura no pasa por Jackson: las partes fijas del objeto son bytes
+ * constantes, los mensajes se codifican a UTF-8 escapado la primera vez que
+ * aparecen (hasta MAX_CACHED_MESSAGES) y username y token se escapan directo
+ * al buffer. El buffer sale de un pool sin locks, así se conoce el
+ * Content-Length y se escribe al socket en una sola llamada.
+ *
+ * El formato es el mismo que produce Jackson para esas clases: los campos en
+ * orden de declaración, username aunque sea null y token solo si no es null.
+ */
+public class AuthJsonMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final byte[] SUCCESS_TRUE = ascii("{\"success\":true");
+    private static final byte[] SUCCESS_FALSE = ascii("{\"success\":false");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] USERNAME = ascii(",\"username\":");
+    private static final byte[] TOKEN = ascii(",\"token\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+    private static final int MAX_CACHED_MESSAGES = 256;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ConcurrentHashMap<String, byte[]> messages = new ConcurrentHashMap<>();
+    private final BufferPool buffers = new BufferPool();
+
+    public AuthJsonMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == AuthController.AuthRequest.class || clazz == AuthResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == AuthController.AuthRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == AuthResponse.class && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            return readRequest(parser);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON inválido: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    AuthController.AuthRequest readRequest(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Se esperaba un objeto JSON");
+        }
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            // los nombres de campo vienen canonicalizados por la tabla de símbolos del parser
+            switch (field) {
+                case "username" -> request.username = scalar(parser, value);
+                case "password" -> request.password = scalar(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        return request;
+    }
+
+    private static String scalar(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new JsonParseException(parser, "Se esperaba un valor simple en " + parser.currentName());
+        }
+        return parser.getText(); // como databind: números y booleanos llegan como texto
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, Object value, MediaType contentType) {
+        // sin negociar charset: siempre UTF-8, y el Content-Length se pone al escribir
+        if (headers.getContentType() == null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        PooledBuffer buffer = buffers.acquire();
+        try {
+            writeResponse((AuthResponse) value, buffer);
+            outputMessage.getHeaders().setContentLength(buffer.size);
+            buffer.writeTo(outputMessage.getBody());
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    void writeResponse(AuthResponse response, PooledBuffer out) {
+        out.write(response.isSuccess() ? SUCCESS_TRUE : SUCCESS_FALSE);
+        out.write(MESSAGE);
+        writeMessage(out, response.getMessage());
+        out.write(USERNAME);
+        writeString(out, response.getUsername());
+        if (response.getToken() != null) {
+            out.write(TOKEN);
+            writeString(out, response.getToken());
+        }
+        out.write('}');
+    }
+
+    private void writeMessage(PooledBuffer out, String message) {
+        if (message == null) {
+            out.write(NULL);
+            return;
+        }
+        byte[] encoded = messages.get(message);
+        if (encoded == null && messages.size() < MAX_CACHED_MESSAGES) {
+            encoded = messages.computeIfAbsent(message, AuthJsonMessageConverter::encode);
+        }
+        if (encoded != null) {
+            out.write(encoded);
+        } else {
+            writeString(out, message);
+        }
+    }
+
+    static byte[] encode(String value) {
+        PooledBuffer out = new PooledBuffer();
+        writeString(out, value);
+        return Arrays.copyOf(out.bytes, out.size);
+    }
+
+    /**
+     * String JSON entre comillas en UTF-8, con los mismos escapes que
+     * Jackson: \" \\ y \b \t \n \f \r cortos; el resto de los controles y
+     * los surrogates como escape unicode de cuatro dígitos hex; todo lo demás
+     * va sin escapar.
+     */
+    static void writeString(PooledBuffer out, String value) {
+        if (value == null) {
+            out.write(NULL);
+            return;
+        }
+        out.ensure(value.length() * 6 + 2); // peor caso: 6 bytes por char escapado
+        byte[] bytes = out.bytes;
+        int pos = out.size;
+        bytes[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    bytes[pos++] = (byte) c;
+                    continue;
+                }
+                bytes[pos++] = '\\';
+                switch (c) {
+                    case '"' -> bytes[pos++] = '"';
+                    case '\\' -> bytes[pos++] = '\\';
+                    case '\b' -> bytes[pos++] = 'b';
+                    case '\t' -> bytes[pos++] = 't';
+                    case '\n' -> bytes[pos++] = 'n';
+                    case '\f' -> bytes[pos++] = 'f';
+                    case '\r' -> bytes[pos++] = 'r';
+                    default -> {
+                        bytes[pos++] = 'u';
+                        bytes[pos++] = '0';
+                        bytes[pos++] = '0';
+                        bytes[pos++] = HEX[c >> 4];
+                        bytes[pos++] = HEX[c & 0xF];
+                    }
+                }
+            } else if (c < 0x800) {
+                bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Jackson 2.15 no combina pares en UTF-8 de 4 bytes: escapa cada mitad
+                bytes[pos++] = '\\';
+                bytes[pos++] = 'u';
+                bytes[pos++] = HEX[c >> 12];
+                bytes[pos++] = HEX[(c >> 8) & 0xF];
+                bytes[pos++] = HEX[(c >> 4) & 0xF];
+                bytes[pos++] = HEX[c & 0xF];
+            } else {
+                bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        bytes[pos++] = '"';
+        out.size = pos;
+    }
+
+    /**
+     * Buffer de salida reutilizable; crece si una respuesta no entra y
+     * conserva el tamaño para la próxima.
+     */
+    static final class PooledBuffer extends OutputStream {
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source) {
+            write(source, 0, source.length);
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+
+        void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Pool de buffers en slots CAS indexados por hilo: tomar y devolver no
+     * toman locks ni reservan memoria, y funciona igual con hilos virtuales
+     * (un ThreadLocal no se reutilizaría entre requests).
+     */
+    static final class BufferPool {
+        private static final int SLOTS = 64;
+        private static final int MAX_RETAINED_BYTES = 16 * 1024;
+
+        private final AtomicReferenceArray<PooledBuffer> slots = new AtomicReferenceArray<>(SLOTS);
+
+        PooledBuffer acquire() {
+            int start = (int) Thread.currentThread().threadId();
+            for (int i = 0; i < 4; i++) {
+                PooledBuffer buffer = slots.getAndSet((start + i) & (SLOTS - 1), null);
+                if (buffer != null) {
+                    buffer.size = 0;
+                    return buffer;
+                }
+            }
+            return new PooledBuffer();
+        }
+
+        void release(PooledBuffer buffer) {
+            if (buffer.bytes.length > MAX_RETAINED_BYTES) {
+                return; // no retener buffers que crecieron por una respuesta atípica
+            }
+            int start = (int) Thread.currentThread().threadId();
+            for (int i = 0; i < 4; i++) {
+                if (slots.compareAndSet((start + i) & (SLOTS - 1), null, buffer)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
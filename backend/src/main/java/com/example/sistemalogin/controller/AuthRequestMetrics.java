@@ -0,0 +1,129 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.AuthResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas por endpoint de autenticación:
+ *
+ *   auth.requests  timer de la duración total, por endpoint y outcome
+ *                  (success, failure, overloaded, rate_limited, error), con histograma de
+ *                  percentiles para calcular p99/p999 en Prometheus
+ *   auth.attempts  contador por endpoint, result y reason
+ *
+ * reason se deriva del mensaje en español de la respuesta con una tabla fija,
+ * así que la cardinalidad queda acotada aunque aparezcan mensajes nuevos
+ * (caen en "other"). Los medidores se registran una sola vez al arrancar.
+ */
+@Component
+public class AuthRequestMetrics {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String OVERLOADED = "overloaded";
+    public static final String RATE_LIMITED = "rate_limited";
+    public static final String ERROR = "error";
+
+    private static final Map<String, String> LOGIN_REASONS = Map.of(
+            "Inicio de sesión exitoso", "ok",
+            "Credenciales incorrectas", "invalid_credentials",
+            "El nombre de usuario es obligatorio", "missing_username",
+            "La contraseña es obligatoria", "missing_password");
+
+    private static final Map<String, String> REGISTER_REASONS = Map.of(
+            "Usuario registrado exitosamente", "ok",
+            "El nombre de usuario ya existe", "username_taken",
+            "El nombre de usuario es obligatorio", "missing_username",
+            "La contraseña es obligatoria", "missing_password",
+            "La contraseña debe tener al menos 6 caracteres", "password_too_short");
+
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    public AuthRequestMetrics(MeterRegistry registry) {
+        endpoints.put(LOGIN, new Endpoint(LOGIN, LOGIN_REASONS, registry));
+        endpoints.put(REGISTER, new Endpoint(REGISTER, REGISTER_REASONS, registry));
+    }
+
+    /**
+     * Registra la duración y el motivo del resultado y devuelve la misma
+     * respuesta para poder encadenarlo en el return del controller.
+     */
+    public AuthResponse record(String endpoint, long startNanos, AuthResponse response) {
+        Endpoint meters = endpoints.get(endpoint);
+        long elapsed = System.nanoTime() - startNanos;
+        (response.isSuccess() ? meters.success : meters.failure).record(elapsed, TimeUnit.NANOSECONDS);
+        meters.attempts.getOrDefault(response.getMessage(), meters.other).increment();
+        return response;
+    }
+
+    /**
+     * El motivo acotado de la respuesta, el mismo del tag reason de
+     * auth.attempts.
+     */
+    public String reason(String endpoint, AuthResponse response) {
+        return endpoints.get(endpoint).reasons.getOrDefault(response.getMessage(), "other");
+    }
+
+    /**
+     * Registra un request rechazado antes de responder normalmente, con
+     * reason OVERLOADED o RATE_LIMITED, o que terminó en un error inesperado
+     * (ERROR).
+     */
+    public void recordRejected(String endpoint, long startNanos, String reason) {
+        Endpoint meters = endpoints.get(endpoint);
+        meters.rejectedTime.get(reason).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meters.rejected.get(reason).increment();
+    }
+
+    private static final class Endpoint {
+        private final Map<String, String> reasons;
+        private final Timer success;
+        private final Timer failure;
+        private final Map<String, Timer> rejectedTime = new HashMap<>();
+        private final Map<String, Counter> attempts = new HashMap<>();
+        private final Counter other;
+        private final Map<String, Counter> rejected = new HashMap<>();
+
+        Endpoint(String endpoint, Map<String, String> reasons, MeterRegistry registry) {
+            this.reasons = reasons;
+            this.success = requestTimer(endpoint, "success", registry);
+            this.failure = requestTimer(endpoint, "failure", registry);
+            Map<String, Counter> byReason = new HashMap<>();
+            reasons.forEach((message, reason) -> attempts.put(message,
+                    byReason.computeIfAbsent(reason, r -> attemptCounter(endpoint, r, registry))));
+            this.other = attemptCounter(endpoint, "other", registry);
+            for (String reason : new String[] {OVERLOADED, RATE_LIMITED, ERROR}) {
+                rejectedTime.put(reason, requestTimer(endpoint, reason, registry));
+                rejected.put(reason, attemptCounter(endpoint, reason, registry));
+            }
+        }
+
+        private static Timer requestTimer(String endpoint, String outcome, MeterRegistry registry) {
+            return Timer.builder("auth.requests")
+                    .description("Duración total de los requests de autenticación")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+        }
+
+        private static Counter attemptCounter(String endpoint, String reason, MeterRegistry registry) {
+            return Counter.builder("auth.attempts")
+                    .description("Resultados de autenticación por motivo")
+                    .tag("endpoint", endpoint)
+                    .tag("result", "ok".equals(reason) ? "success" : "failure")
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+    }
+}
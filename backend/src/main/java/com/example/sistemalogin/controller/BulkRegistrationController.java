@@ -0,0 +1,215 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.AuthResponse;
+import com.example.sistemalogin.service.BulkRegistrationService;
+import com.example.sistemalogin.service.HashingOverloadedException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alta masiva en NDJSON: un AuthRequest por línea de entrada y un
+ * AuthResponse por línea de salida, en el mismo orden. Se procesa de a
+ * batchSize registros, así que la memoria no depende del tamaño del archivo y
+ * los resultados de cada lote salen apenas termina. Una línea de más de
+ * maxLineLength caracteres se descarta sin guardarla. Protegido por
+ * AdminKeyFilter (/api/admin/*).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class BulkRegistrationController {
+
+    static final String NDJSON = "application/x-ndjson";
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${auth.bulk.batch-size:256}")
+    private int batchSize;
+
+    @Value("${auth.bulk.max-line-length:4096}")
+    private int maxLineLength;
+
+    @PostMapping(value = "/register/bulk", consumes = NDJSON, produces = NDJSON)
+    public void registerBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkRegistrationService.beginJob();
+        try {
+            registerLines(request, response);
+        } finally {
+            bulkRegistrationService.endJob();
+        }
+    }
+
+    private void registerLines(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        ObjectReader reader = objectMapper.readerFor(AuthController.AuthRequest.class);
+        ObjectWriter writer = objectMapper.writerFor(AuthResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        OutputStream out = response.getOutputStream();
+
+        Batch batch = new Batch(batchSize);
+        LineReader lines = new LineReader(request.getReader(), maxLineLength);
+        String line;
+        while ((line = lines.next()) != null) {
+            if (lines.isTooLong()) {
+                batch.reject(new AuthResponse(false, "Registro demasiado largo"));
+            } else if (line.isBlank()) {
+                continue;
+            } else {
+                batch.add(parse(reader, line));
+            }
+            if (batch.isFull()) {
+                batch.flush(writer, out);
+            }
+        }
+        batch.flush(writer, out);
+    }
+
+    @ExceptionHandler(HashingOverloadedException.class)
+    public ResponseEntity<AuthResponse> handleHashingOverloaded(HashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, "Ya hay un alta masiva en curso, intenta nuevamente más tarde"));
+    }
+
+    private static AuthController.AuthRequest parse(ObjectReader reader, String line) {
+        try {
+            return reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Registros de un lote en orden de llegada. Los inválidos ya tienen su
+     * respuesta; los válidos esperan a registerBatch.
+     */
+    private final class Batch {
+        private final int capacity;
+        private final List<AuthResponse> responses;
+        private final List<AuthController.AuthRequest> requests;
+        private final List<Integer> validPositions;
+        private final List<String> usernames;
+        private final List<String> passwords;
+
+        Batch(int capacity) {
+            this.capacity = capacity;
+            this.responses = new ArrayList<>(capacity);
+            this.requests = new ArrayList<>(capacity);
+            this.validPositions = new ArrayList<>(capacity);
+            this.usernames = new ArrayList<>(capacity);
+            this.passwords = new ArrayList<>(capacity);
+        }
+
+        void add(AuthController.AuthRequest request) {
+            AuthResponse invalid = request == null
+                    ? new AuthResponse(false, "Formato de registro inválido")
+                    : AuthController.validateRegistration(request);
+            if (invalid == null) {
+                validPositions.add(responses.size());
+                usernames.add(request.username.trim());
+                passwords.add(request.password);
+            }
+            responses.add(invalid);
+            requests.add(request);
+        }
+
+        void reject(AuthResponse response) {
+            responses.add(response);
+            requests.add(null);
+        }
+
+        boolean isFull() {
+            return responses.size() >= capacity;
+        }
+
+        void flush(ObjectWriter writer, OutputStream out) throws IOException {
+            if (responses.isEmpty()) {
+                return;
+            }
+            BulkRegistrationService.Result[] results = bulkRegistrationService.registerBatch(usernames, passwords);
+            for (int j = 0; j < results.length; j++) {
+                int position = validPositions.get(j);
+                String username = requests.get(position).username;
+                responses.set(position, switch (results[j]) {
+                    case REGISTERED -> new AuthResponse(true, "Usuario registrado exitosamente", username);
+                    case EXISTS -> new AuthResponse(false, "El nombre de usuario ya existe", username);
+                    case OVERLOADED -> new AuthResponse(false, "Servidor ocupado, intenta nuevamente en unos segundos", username);
+                });
+            }
+            for (AuthResponse result : responses) {
+                writer.writeValue(out, result);
+                out.write(NEWLINE);
+            }
+            out.flush();
+            responses.clear();
+            requests.clear();
+            validPositions.clear();
+            usernames.clear();
+            passwords.clear();
+        }
+    }
+
+    /**
+     * Lee líneas sin guardar más de maxLength caracteres de cada una: de una
+     * línea más larga descarta el resto y la marca con isTooLong.
+     */
+    private static final class LineReader {
+        private final BufferedReader in;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(BufferedReader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            while (c >= 0 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = in.read();
+            }
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.ImportResult;
+import com.example.sistemalogin.replication.ReplicatedUserStore;
+import com.example.sistemalogin.replication.ReplicationCodec;
+import com.example.sistemalogin.replication.ReplicationEvent;
+import com.example.sistemalogin.store.UserStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Recibe los lotes de eventos de los otros nodos del cluster. Protegido por
+ * AdminKeyFilter (/api/admin/*); solo existe con auth.replication.enabled.
+ */
+@RestController
+@RequestMapping("/api/admin/replication")
+@ConditionalOnProperty(name = "auth.replication.enabled", havingValue = "true")
+public class ReplicationController {
+
+    private final ReplicatedUserStore store;
+
+    @Autowired
+    public ReplicationController(UserStore userStore) {
+        this.store = (ReplicatedUserStore) userStore;
+    }
+
+    @PostMapping(value = "/events", consumes = ReplicationCodec.CONTENT_TYPE)
+    public ImportResult receiveEvents(HttpServletRequest request) throws IOException {
+        List<ReplicationEvent> events = ReplicationCodec.read(request.getInputStream());
+        int applied = store.applyRemote(events);
+        return new ImportResult(true, "Eventos aplicados", applied, events.size() - applied, 0);
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<ImportResult> handleMalformedEvents(JsonProcessingException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ImportResult(false, "Formato de replicación inválido", 0, 0, 0));
+    }
+}
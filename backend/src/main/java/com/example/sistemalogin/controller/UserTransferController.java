@@ -0,0 +1,62 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.ImportResult;
+import com.example.sistemalogin.dto.UserPage;
+import com.example.sistemalogin.service.UserTransferService;
+import com.example.sistemalogin.store.UsernameIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Búsqueda por prefijo, exportación e importación de usuarios con sus
+ * hashes, para administrar y migrar entre nodos. Protegido por
+ * AdminKeyFilter (/api/admin/*).
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserTransferController {
+
+    @Autowired
+    private UserTransferService userTransferService;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
+    /**
+     * Usernames que empiezan con prefix, sin distinguir mayúsculas ni formas
+     * Unicode equivalentes, en orden y paginados: next es el after de la
+     * página siguiente (null en la última).
+     */
+    @GetMapping
+    public UserPage searchUsers(@RequestParam(defaultValue = "") String prefix,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(defaultValue = "100") int limit) {
+        UsernameIndex.Page page = usernameIndex.scan(prefix, after, limit);
+        return new UserPage(page.getUsernames(), page.getNext());
+    }
+
+    @GetMapping(value = "/export", produces = BulkRegistrationController.NDJSON)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(BulkRegistrationController.NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        userTransferService.exportUsers(response.getOutputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = BulkRegistrationController.NDJSON)
+    public ImportResult importUsers(HttpServletRequest request) throws IOException {
+        return userTransferService.importUsers(request.getInputStream());
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<ImportResult> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ImportResult(false, "Formato de importación inválido", 0, 0, 0));
+    }
+}
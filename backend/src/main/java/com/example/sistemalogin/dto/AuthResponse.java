@@ -1,9 +1,13 @@
 package com.example.sistemalogin.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class AuthResponse {
     private boolean success;
     private String message;
     private String username;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
     
     public AuthResponse() {}
     
@@ -18,6 +22,13 @@ public class AuthResponse {
         this.username = username;
     }
     
+    public AuthResponse(boolean success, String message, String username, String token) {
+        this.success = success;
+        this.message = message;
+        this.username = username;
+        this.token = token;
+    }
+    
     public boolean isSuccess() {
         return success;
     }
@@ -41,4 +52,12 @@ public class AuthResponse {
     public void setUsername(String username) {
         this.username = username;
     }
-} 
\ No newline at end of file
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.sistemalogin.dto;
+
+public class ImportResult {
+    private boolean success;
+    private String message;
+    private long imported;
+    private long skipped;
+    private long invalid;
+    
+    public ImportResult() {}
+    
+    public ImportResult(boolean success, String message, long imported, long skipped, long invalid) {
+        this.success = success;
+        this.message = message;
+        this.imported = imported;
+        this.skipped = skipped;
+        this.invalid = invalid;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+    
+    public long getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+}
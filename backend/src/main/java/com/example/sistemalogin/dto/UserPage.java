@@ -0,0 +1,31 @@
+package com.example.sistemalogin.dto;
+
+import java.util.List;
+
+public class UserPage {
+    private List<String> usernames;
+    private String next;
+    
+    public UserPage() {}
+    
+    public UserPage(List<String> usernames, String next) {
+        this.usernames = usernames;
+        this.next = next;
+    }
+    
+    public List<String> getUsernames() {
+        return usernames;
+    }
+    
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+    
+    public String getNext() {
+        return next;
+    }
+    
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.UserStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * UserStore durable: delega en un motor en memoria y registra cada escritura
+ * en un UserJournal antes de aplicarla. Un usuario solo se publica en el motor
+ * cuando su registro ya está en disco; si el journal falla la escritura se
+ * rechaza sin dejar rastro en memoria.
+ *
+ * Al abrir reconstruye el motor a partir de snapshot.dat más los
+ * journal-N.log con generación mayor o igual a la del snapshot.
+ */
+public class JournaledUserStore implements UserStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledUserStore.class);
+    private static final Pattern JOURNAL_NAME = Pattern.compile("journal-(\\d+)\\.log");
+    static final String SNAPSHOT_NAME = "snapshot.dat";
+    private static final int STRIPES = 64;
+
+    private final UserStore delegate;
+    private final Path directory;
+    private final boolean fsync;
+    private final long syncIntervalMillis;
+    private final int syncBatchSize;
+    // Escrituras toman el lock de lectura hasta publicar en el motor; rotar el
+    // journal toma el de escritura, así el snapshot no pierde un registro que
+    // quedó en el journal anterior y todavía no estaba en el motor.
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    // Serializa las escrituras de un mismo username para que el orden del
+    // journal sea el mismo que el del motor.
+    private final ReentrantLock[] writeStripes = new ReentrantLock[STRIPES];
+    private volatile UserJournal journal;
+    private volatile long generation;
+
+    public JournaledUserStore(UserStore delegate, Path directory, boolean fsync, long syncIntervalMillis, int syncBatchSize) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.fsync = fsync;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncBatchSize = syncBatchSize;
+        for (int i = 0; i < STRIPES; i++) {
+            writeStripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reconstruye el estado desde disco. Si se reaplicó algún journal se
+     * compacta todo en un snapshot nuevo para que el próximo arranque sea
+     * solo un mmap del snapshot.
+     */
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve(SNAPSHOT_NAME);
+        long snapshotGeneration = 0;
+        long snapshotUsers = 0;
+        if (Files.exists(snapshot)) {
+            UserSnapshot.Header header = UserSnapshot.load(snapshot, delegate::put);
+            snapshotGeneration = header.getJournalGeneration();
+            snapshotUsers = header.getCount();
+        }
+
+        long replayed = 0;
+        long lastGeneration = snapshotGeneration;
+        for (long journalGeneration : journalGenerations()) {
+            Path path = journalPath(journalGeneration);
+            if (journalGeneration < snapshotGeneration) {
+                Files.delete(path); // ya incluido en el snapshot
+                continue;
+            }
+            replayed += UserJournal.replay(path, delegate::put);
+            lastGeneration = Math.max(lastGeneration, journalGeneration);
+        }
+
+        if (replayed > 0) {
+            generation = lastGeneration + 1;
+            UserSnapshot.write(snapshot, generation, delegate);
+            deleteJournalsBefore(generation);
+        } else {
+            generation = lastGeneration;
+        }
+        journal = new UserJournal(journalPath(generation), fsync, syncIntervalMillis, syncBatchSize);
+        log.info("Usuarios recuperados: {} del snapshot, {} del journal en {} ms",
+                snapshotUsers, replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public User get(String username) {
+        return delegate.get(username);
+    }
+
+    @Override
+    public boolean contains(String username) {
+        return delegate.contains(username);
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        ReentrantLock stripe = stripeFor(user.getUsername());
+        stripe.lock();
+        rotationLock.readLock().lock();
+        try {
+            if (delegate.contains(user.getUsername())) {
+                return false;
+            }
+            UserJournal target = journal;
+            awaitDurable(target, write(target, user));
+            return delegate.putIfAbsent(user);
+        } finally {
+            rotationLock.readLock().unlock();
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Escribe todo el lote en el journal y espera un único fsync al final, en
+     * lugar de uno por usuario. Solo después lo publica en el motor.
+     */
+    @Override
+    public boolean[] putAllIfAbsent(List<User> batch) {
+        boolean[] inserted = new boolean[batch.size()];
+        boolean[] stripes = new boolean[STRIPES];
+        for (User user : batch) {
+            stripes[stripeIndex(user.getUsername())] = true;
+        }
+        // siempre en orden creciente, así dos lotes no se bloquean entre sí
+        for (int i = 0; i < STRIPES; i++) {
+            if (stripes[i]) {
+                writeStripes[i].lock();
+            }
+        }
+        rotationLock.readLock().lock();
+        try {
+            List<User> accepted = new ArrayList<>(batch.size());
+            List<Integer> positions = new ArrayList<>(batch.size());
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < inserted.length; i++) {
+                String username = batch.get(i).getUsername();
+                if (seen.add(username) && !delegate.contains(username)) {
+                    accepted.add(batch.get(i));
+                    positions.add(i);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return inserted;
+            }
+            UserJournal target = journal;
+            long sequence = 0;
+            for (User user : accepted) {
+                sequence = write(target, user);
+            }
+            awaitDurable(target, sequence);
+            boolean[] published = delegate.putAllIfAbsent(accepted);
+            for (int i = 0; i < published.length; i++) {
+                inserted[positions.get(i)] = published[i];
+            }
+            return inserted;
+        } finally {
+            rotationLock.readLock().unlock();
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                if (stripes[i]) {
+                    writeStripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void put(User user) {
+        ReentrantLock stripe = stripeFor(user.getUsername());
+        stripe.lock();
+        rotationLock.readLock().lock();
+        try {
+            UserJournal target = journal;
+            awaitDurable(target, write(target, user));
+            delegate.put(user);
+        } finally {
+            rotationLock.readLock().unlock();
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return delegate.memoryBytes();
+    }
+
+    /**
+     * Rota el journal a una generación nueva y escribe un snapshot que cubre
+     * todas las anteriores; después borra esos journals. El tráfico sigue
+     * escribiendo en el journal nuevo mientras se genera el snapshot.
+     */
+    public synchronized Checkpoint checkpoint() throws IOException {
+        long start = System.nanoTime();
+        long nextGeneration = generation + 1;
+        UserJournal next = new UserJournal(journalPath(nextGeneration), fsync, syncIntervalMillis, syncBatchSize);
+        UserJournal previous;
+        rotationLock.writeLock().lock();
+        try {
+            previous = journal;
+            journal = next;
+            generation = nextGeneration;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        previous.close(); // espera el fsync de lo que quedó pendiente
+
+        long snapshotBytes = UserSnapshot.write(directory.resolve(SNAPSHOT_NAME), nextGeneration, delegate);
+        deleteJournalsBefore(nextGeneration);
+        return new Checkpoint(nextGeneration, snapshotBytes, System.nanoTime() - start);
+    }
+
+    public long journalBytes() {
+        try {
+            return journal.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public static final class Checkpoint {
+        private final long generation;
+        private final long snapshotBytes;
+        private final long durationNanos;
+
+        Checkpoint(long generation, long snapshotBytes, long durationNanos) {
+            this.generation = generation;
+            this.snapshotBytes = snapshotBytes;
+            this.durationNanos = durationNanos;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public long getSnapshotBytes() {
+            return snapshotBytes;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        UserJournal current = journal;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    Path journalPath(long journalGeneration) {
+        return directory.resolve("journal-" + journalGeneration + ".log");
+    }
+
+    private static long write(UserJournal target, User user) {
+        try {
+            return target.write(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el journal de usuarios", e);
+        }
+    }
+
+    private static void awaitDurable(UserJournal target, long sequence) {
+        try {
+            target.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el journal de usuarios", e);
+        }
+    }
+
+    private ReentrantLock stripeFor(String username) {
+        return writeStripes[stripeIndex(username)];
+    }
+
+    private static int stripeIndex(String username) {
+        int h = username.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (Path file : files) {
+                Matcher matcher = JOURNAL_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private void deleteJournalsBefore(long journalGeneration) throws IOException {
+        for (long existing : journalGenerations()) {
+            if (existing < journalGeneration) {
+                Files.deleteIfExists(journalPath(existing));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.sistemalogin.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hace checkpoints periódicos del JournaledUserStore en un hilo propio para
+ * que el journal no crezca sin límite. Solo hace checkpoint cuando el journal
+ * actual supera minJournalBytes.
+ */
+public class UserCheckpointer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCheckpointer.class);
+
+    private final JournaledUserStore store;
+    private final long intervalMillis;
+    private final long minJournalBytes;
+    private final Timer duration;
+    private final Counter failures;
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+    private final AtomicLong lastGeneration = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public UserCheckpointer(JournaledUserStore store, long intervalMillis, long minJournalBytes, MeterRegistry registry) {
+        this.store = store;
+        this.intervalMillis = intervalMillis;
+        this.minJournalBytes = minJournalBytes;
+        this.duration = Timer.builder("auth.checkpoint.duration")
+                .description("Duración de cada checkpoint de usuarios")
+                .register(registry);
+        this.failures = Counter.builder("auth.checkpoint.failures").register(registry);
+        Gauge.builder("auth.checkpoint.size", lastSnapshotBytes, AtomicLong::get)
+                .description("Tamaño del último snapshot de usuarios")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("auth.checkpoint.generation", lastGeneration, AtomicLong::get).register(registry);
+        Gauge.builder("auth.journal.size", store, JournaledUserStore::journalBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpointIfNeeded, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void checkpointIfNeeded() {
+        if (store.journalBytes() <= minJournalBytes) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.error("Falló el checkpoint de usuarios", e);
+        }
+    }
+
+    public JournaledUserStore.Checkpoint checkpoint() throws IOException {
+        JournaledUserStore.Checkpoint checkpoint = store.checkpoint();
+        duration.record(checkpoint.getDurationNanos(), TimeUnit.NANOSECONDS);
+        lastSnapshotBytes.set(checkpoint.getSnapshotBytes());
+        lastGeneration.set(checkpoint.getGeneration());
+        log.info("Checkpoint de usuarios generación {}: {} bytes en {} ms", checkpoint.getGeneration(),
+                checkpoint.getSnapshotBytes(), TimeUnit.NANOSECONDS.toMillis(checkpoint.getDurationNanos()));
+        return checkpoint;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
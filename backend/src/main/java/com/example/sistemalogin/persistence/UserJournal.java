@@ -0,0 +1,337 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal binario de solo escritura al final (write-ahead) para los usuarios.
+ *
+ * Formato de registro: [largo payload:4][payload][crc32 del payload:4]
+ * con payload = [tipo:1][largo username:2][username UTF-8][largo hash:2][hash ASCII].
+ *
+ * Con fsync activo cada append espera a que su registro esté en disco. Un hilo
+ * flusher agrupa los registros pendientes (group commit) y hace un solo force()
+ * por lote: cuando se junta syncBatchSize registros o pasa syncInterval.
+ *
+ * Si una escritura falla a medias se trunca el archivo al comienzo de ese
+ * registro, así los siguientes no quedan detrás de un registro roto (que en
+ * el replay cortaría el log). Si tampoco se puede truncar, el journal deja de
+ * aceptar escrituras.
+ */
+public class UserJournal implements Closeable {
+
+    static final byte RECORD_PUT = 1;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final long syncIntervalNanos;
+    private final int syncBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWrites = lock.newCondition();
+    private final Condition durableWrites = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+    private long length;
+    private long appended;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+    private final Thread flusher;
+
+    public UserJournal(Path path, boolean fsync, long syncIntervalMillis, int syncBatchSize) throws IOException {
+        this(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND),
+                fsync, syncIntervalMillis, syncBatchSize);
+    }
+
+    UserJournal(Path path, FileChannel channel, boolean fsync, long syncIntervalMillis, int syncBatchSize)
+            throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.length = channel.size();
+        this.fsync = fsync;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.syncBatchSize = Math.max(1, syncBatchSize);
+        if (fsync) {
+            this.flusher = new Thread(this::flushLoop, "user-journal-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * true si el username entra en el campo de un registro: se limita su
+     * largo en bytes UTF-8, no en chars. Conviene validarlo antes de hashear,
+     * porque un username que no entra hace fallar a write.
+     */
+    public static boolean fitsUsername(String username) {
+        return username.length() <= MAX_FIELD_LENGTH / MAX_UTF8_BYTES_PER_CHAR
+                || username.getBytes(StandardCharsets.UTF_8).length <= MAX_FIELD_LENGTH;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Escribe el registro y, si fsync está activo, espera hasta que sea durable.
+     */
+    public void append(User user) throws IOException {
+        awaitDurable(write(user));
+    }
+
+    /**
+     * Escribe el registro sin esperar el fsync.
+     *
+     * @return número de secuencia para pasar a awaitDurable
+     */
+    public long write(User user) throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+            encode(user);
+            int recordLength = buffer.remaining();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                discardTornRecord(e);
+                throw e;
+            }
+            length += recordLength;
+            appended++;
+            if (fsync) {
+                pendingWrites.signal();
+            }
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloquea hasta que el registro con esa secuencia esté en disco. Sin fsync
+     * vuelve de inmediato.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < sequence && failure == null) {
+                durableWrites.await();
+            }
+            if (durable < sequence) {
+                throw new IOException("Falló el fsync del journal de usuarios", failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando el fsync del journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingWrites.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (flusher != null) {
+                flusher.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            lock.lock();
+            try {
+                while (!closed && appended == durable) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (appended == durable) {
+                    return; // cerrado y sin pendientes
+                }
+                long remaining = syncIntervalNanos;
+                while (!closed && appended - durable < syncBatchSize && remaining > 0) {
+                    remaining = pendingWrites.awaitNanos(remaining);
+                }
+                target = appended;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = target;
+                }
+                durableWrites.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void discardTornRecord(IOException cause) {
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+            durableWrites.signalAll();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("El journal de usuarios está cerrado");
+        }
+        if (failure != null) {
+            throw new IOException("El journal de usuarios falló previamente", failure);
+        }
+    }
+
+    private void encode(User user) {
+        byte[] username = user.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] hash = user.getHashedPassword().getBytes(StandardCharsets.US_ASCII);
+        if (username.length > MAX_FIELD_LENGTH || hash.length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Username o hash demasiado largo");
+        }
+        int payloadLength = 1 + 2 + username.length + 2 + hash.length;
+        int recordLength = 4 + payloadLength + 4;
+        if (buffer.capacity() < recordLength) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(recordLength) << 1);
+        }
+        buffer.clear();
+        buffer.putInt(payloadLength);
+        int payloadStart = buffer.position();
+        buffer.put(RECORD_PUT);
+        buffer.putShort((short) username.length).put(username);
+        buffer.putShort((short) hash.length).put(hash);
+        crc.reset();
+        crc.update(buffer.duplicate().position(payloadStart).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    /**
+     * Aplica cada registro válido del journal en orden. Si el último registro
+     * quedó a medias (caída durante la escritura) se trunca el archivo.
+     *
+     * @return cantidad de registros aplicados
+     */
+    public static long replay(Path path, Consumer<User> sink) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long records = 0;
+        long validLength = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 20))) {
+            byte[] payload = new byte[256];
+            while (true) {
+                int payloadLength;
+                try {
+                    payloadLength = in.readInt();
+                    if (payloadLength < 5 || payloadLength > 5 + 2 * MAX_FIELD_LENGTH) {
+                        break;
+                    }
+                    if (payload.length < payloadLength) {
+                        payload = new byte[Integer.highestOneBit(payloadLength) << 1];
+                    }
+                    in.readFully(payload, 0, payloadLength);
+                    int checksum = in.readInt();
+                    crc.reset();
+                    crc.update(payload, 0, payloadLength);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException tornRecord) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(payload, 0, payloadLength);
+                if (record.get() == RECORD_PUT) {
+                    String username = readString(record, StandardCharsets.UTF_8);
+                    String hash = readString(record, StandardCharsets.US_ASCII);
+                    sink.accept(new User(username, hash));
+                }
+                records++;
+                validLength += 4 + payloadLength + 4;
+            }
+        }
+        if (validLength < Files.size(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return records;
+    }
+
+    private static String readString(ByteBuffer record, Charset charset) {
+        int length = record.getShort() & 0xFFFF;
+        String value = new String(record.array(), record.position(), length, charset);
+        record.position(record.position() + length);
+        return value;
+    }
+}
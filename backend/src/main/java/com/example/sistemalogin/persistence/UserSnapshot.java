@@ -0,0 +1,138 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.UserStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binario de la tabla de usuarios ordenado por username, pensado
+ * para leerse con mmap.
+ *
+ * Cabecera: [magic:4][versión:4][generación de journal:8][cantidad:8]
+ * Registros: [largo username:2][username UTF-8][largo hash:2][hash ASCII]
+ *
+ * La generación indica que el snapshot ya contiene todos los journals
+ * anteriores a ella; al arrancar solo se reaplican los journals desde ahí.
+ */
+public final class UserSnapshot {
+
+    private static final int MAGIC = 0x55534E50; // "USNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 24;
+    private static final int MAX_RECORD_LENGTH = 2 * (2 + 0xFFFF);
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private UserSnapshot() {}
+
+    public static final class Header {
+        private final long journalGeneration;
+        private final long count;
+
+        Header(long journalGeneration, long count) {
+            this.journalGeneration = journalGeneration;
+            this.count = count;
+        }
+
+        public long getJournalGeneration() {
+            return journalGeneration;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Mapea el snapshot en memoria y entrega cada usuario al consumidor.
+     */
+    public static Header load(Path path, Consumer<User> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, MAP_WINDOW));
+            if (buffer.limit() < HEADER_LENGTH || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Snapshot de usuarios inválido: " + path);
+            }
+            long generation = buffer.getLong();
+            long count = buffer.getLong();
+
+            long windowStart = 0;
+            byte[] scratch = new byte[256];
+            for (long i = 0; i < count; i++) {
+                if (buffer.remaining() < MAX_RECORD_LENGTH && windowStart + buffer.limit() < fileSize) {
+                    windowStart += buffer.position();
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(fileSize - windowStart, MAP_WINDOW));
+                }
+                int usernameLength = buffer.getShort() & 0xFFFF;
+                if (scratch.length < usernameLength) {
+                    scratch = new byte[usernameLength];
+                }
+                buffer.get(scratch, 0, usernameLength);
+                String username = new String(scratch, 0, usernameLength, StandardCharsets.UTF_8);
+                int hashLength = buffer.getShort() & 0xFFFF;
+                if (scratch.length < hashLength) {
+                    scratch = new byte[hashLength];
+                }
+                buffer.get(scratch, 0, hashLength);
+                sink.accept(new User(username, new String(scratch, 0, hashLength, StandardCharsets.ISO_8859_1)));
+            }
+            return new Header(generation, count);
+        }
+    }
+
+    /**
+     * Escribe el snapshot ordenado por username en un archivo temporal y lo
+     * publica con un rename atómico, así que un lector nunca ve un snapshot a
+     * medias. El recorrido del store es débilmente consistente y no bloquea a
+     * los escritores concurrentes.
+     *
+     * @return tamaño en bytes del snapshot escrito
+     */
+    public static long write(Path path, long journalGeneration, UserStore store) throws IOException {
+        List<User> users = new ArrayList<>(store.size());
+        store.forEach(users::add);
+        users.sort(Comparator.comparing(User::getUsername));
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(journalGeneration).putLong(users.size());
+            for (User user : users) {
+                byte[] username = user.getUsername().getBytes(StandardCharsets.UTF_8);
+                byte[] hash = user.getHashedPassword().getBytes(StandardCharsets.US_ASCII);
+                if (buffer.remaining() < 4 + username.length + hash.length) {
+                    drain(channel, buffer);
+                }
+                buffer.putShort((short) username.length).put(username);
+                buffer.putShort((short) hash.length).put(hash);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+            size = channel.size();
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return size;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sistemalogin.replication;
+
+import com.example.sistemalogin.security.AdminKeyFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Entrega los lotes por POST a {peer}/api/admin/replication/events, con la
+ * clave de administración compartida por el cluster. peer es la URL base del
+ * otro nodo, por ejemplo http://10.0.0.2:8080.
+ */
+public class HttpReplicationTransport implements ReplicationTransport {
+
+    static final String PATH = "/api/admin/replication/events";
+
+    private final HttpClient client;
+    private final String adminKey;
+    private final Duration timeout;
+
+    public HttpReplicationTransport(String adminKey, Duration timeout) {
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.adminKey = adminKey;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void send(String peer, List<ReplicationEvent> events) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(events.size() * 128);
+        ReplicationCodec.write(events, body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(peer + PATH))
+                .timeout(timeout)
+                .header("Content-Type", ReplicationCodec.CONTENT_TYPE)
+                .header(AdminKeyFilter.HEADER, adminKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Envío a " + peer + " interrumpido");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("El nodo " + peer + " respondió " + response.statusCode());
+        }
+    }
+}
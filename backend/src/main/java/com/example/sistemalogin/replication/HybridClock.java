@@ -0,0 +1,65 @@
+package com.example.sistemalogin.replication;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Reloj lógico híbrido que genera las versiones last-writer-wins.
+ *
+ * Una versión es un long con los milisegundos desde EPOCH_MILLIS (41 bits),
+ * un contador para escrituras dentro del mismo milisegundo (12 bits) y el id
+ * del nodo (10 bits). Ordenar por el long ordena por tiempo y desempata por
+ * nodo, así que dos nodos nunca generan la misma versión. Al recibir una
+ * versión remota el reloj la adelanta, y una escritura posterior a haberla
+ * visto siempre le gana aunque el reloj de pared del nodo esté atrasado.
+ */
+public class HybridClock {
+
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 12;
+
+    private final int nodeId;
+    private final LongSupplier wallClock;
+    // milisegundos << COUNTER_BITS | contador, sin el id de nodo
+    private final AtomicLong last = new AtomicLong();
+
+    public HybridClock(int nodeId, LongSupplier wallClock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("El id de nodo debe estar entre 0 y " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Versión nueva, mayor que todas las generadas u observadas hasta ahora.
+     */
+    public long tick() {
+        long physical = (wallClock.getAsLong() - EPOCH_MILLIS) << COUNTER_BITS;
+        // si el contador desborda pasa al milisegundo siguiente: el reloj se adelanta un poco
+        long logical = last.updateAndGet(previous -> Math.max(previous + 1, physical));
+        return logical << NODE_BITS | nodeId;
+    }
+
+    public void observe(long version) {
+        last.accumulateAndGet(version >>> NODE_BITS, Math::max);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Reloj de pared del nodo de origen al momento de la escritura.
+     */
+    public static long wallMillis(long version) {
+        return (version >>> (NODE_BITS + COUNTER_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeId(long version) {
+        return (int) (version & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sistemalogin.replication;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transporte entre nodos del mismo proceso, para pruebas: entrega el lote
+ * llamando directo a applyRemote. Permite cortar un nodo para simular una
+ * partición o una caída.
+ */
+public class InProcessReplicationTransport implements ReplicationTransport {
+
+    private final Map<String, ReplicatedUserStore> nodes = new ConcurrentHashMap<>();
+    private final Set<String> disconnected = ConcurrentHashMap.newKeySet();
+
+    public void register(String name, ReplicatedUserStore node) {
+        nodes.put(name, node);
+    }
+
+    public void disconnect(String name) {
+        disconnected.add(name);
+    }
+
+    public void reconnect(String name) {
+        disconnected.remove(name);
+    }
+
+    @Override
+    public void send(String peer, List<ReplicationEvent> events) throws IOException {
+        ReplicatedUserStore node = nodes.get(peer);
+        if (node == null || disconnected.contains(peer)) {
+            throw new IOException("Nodo inaccesible: " + peer);
+        }
+        node.applyRemote(events);
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.sistemalogin.replication;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.UserStore;
+import com.example.sistemalogin.store.UsernameNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * UserStore replicado entre nodos como un mapa que solo crece, con
+ * last-writer-wins por username: cada escritura local lleva una versión de
+ * HybridClock y se manda a todos los peers; un nodo aplica un evento solo si
+ * su versión es mayor que la que tiene. Aplicar es idempotente y no depende
+ * del orden, así que los nodos convergen aunque los eventos lleguen
+ * repetidos o desordenados. Las lecturas son siempre locales.
+ *
+ * Versiones y locks van por el username normalizado (UsernameNormalizer),
+ * igual que las cuentas del store de abajo: "Ana" y "ana" comparten versión
+ * y los eventos salen con el username tal como está guardado, no con la
+ * variante que escribió el usuario.
+ *
+ * Cada peer tiene una cola acotada y un hilo que la manda por lotes. Si la
+ * cola se llena, o si el peer estuvo inaccesible (pudo reiniciar sin
+ * estado), el hilo descarta la cola y le manda el estado completo, que
+ * cubre todo lo descartado.
+ *
+ * Limitación: dos registros del mismo username en nodos distintos dentro
+ * del lag de replicación se resuelven por versión y el perdedor queda con la
+ * contraseña del otro. Evitarlo requiere consenso, no un CRDT.
+ */
+public class ReplicatedUserStore implements UserStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicatedUserStore.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final long ABSENT = -1;
+
+    private final UserStore delegate;
+    private final HybridClock clock;
+    private final ReplicationTransport transport;
+    private final LongSupplier wallClock;
+    private final int batchSize;
+    private final long retryMillis;
+    // Lectura y escritura de un usuario junto con su versión van bajo el lock
+    // de su franja, así un evento remoto no se mete entre las dos.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // por username normalizado
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+    private final List<PeerLink> links = new ArrayList<>();
+    private final Counter applied;
+    private final Counter stale;
+    private volatile boolean running;
+
+    public ReplicatedUserStore(UserStore delegate, int nodeId, List<String> peers, ReplicationTransport transport,
+                               int queueCapacity, int batchSize, long retryMillis, MeterRegistry registry) {
+        this(delegate, nodeId, peers, transport, queueCapacity, batchSize, retryMillis, registry, System::currentTimeMillis);
+    }
+
+    ReplicatedUserStore(UserStore delegate, int nodeId, List<String> peers, ReplicationTransport transport,
+                        int queueCapacity, int batchSize, long retryMillis, MeterRegistry registry,
+                        LongSupplier wallClock) {
+        this.delegate = delegate;
+        this.clock = new HybridClock(nodeId, wallClock);
+        this.transport = transport;
+        this.wallClock = wallClock;
+        this.batchSize = batchSize;
+        this.retryMillis = retryMillis;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (String peer : peers) {
+            links.add(new PeerLink(peer, queueCapacity, registry));
+        }
+        this.applied = Counter.builder("auth.replication.applied")
+                .description("Eventos remotos aplicados")
+                .register(registry);
+        this.stale = Counter.builder("auth.replication.stale")
+                .description("Eventos remotos descartados por tener una versión vieja")
+                .register(registry);
+    }
+
+    public void start() {
+        running = true;
+        for (PeerLink link : links) {
+            link.thread = new Thread(link, "replication-" + link.peer);
+            link.thread.setDaemon(true);
+            link.thread.start();
+        }
+    }
+
+    @Override
+    public User get(String username) {
+        return delegate.get(username);
+    }
+
+    @Override
+    public boolean contains(String username) {
+        return delegate.contains(username);
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        ReplicationEvent event;
+        ReentrantLock lock = lockFor(user.getUsername());
+        lock.lock();
+        try {
+            if (!delegate.putIfAbsent(user)) {
+                return false;
+            }
+            event = versioned(user);
+        } finally {
+            lock.unlock();
+        }
+        publish(event);
+        return true;
+    }
+
+    /**
+     * Inserta el lote con un único putAllIfAbsent del motor (y un único fsync
+     * si hay journal), con los locks de todas las franjas del lote tomados.
+     */
+    @Override
+    public boolean[] putAllIfAbsent(List<User> batch) {
+        List<ReplicationEvent> events = new ArrayList<>();
+        boolean[] inserted;
+        int[] stripes = lockAll(batch.stream().map(User::getUsername).toList());
+        try {
+            inserted = delegate.putAllIfAbsent(batch);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    events.add(versioned(batch.get(i)));
+                }
+            }
+        } finally {
+            unlockAll(stripes);
+        }
+        events.forEach(this::publish);
+        return inserted;
+    }
+
+    @Override
+    public void put(User user) {
+        ReplicationEvent event;
+        ReentrantLock lock = lockFor(user.getUsername());
+        lock.lock();
+        try {
+            delegate.put(user);
+            // con el username guardado: el de user puede ser otra variante
+            User stored = delegate.get(user.getUsername());
+            event = versioned(stored == null ? user : new User(stored.getUsername(), user.getHashedPassword()));
+        } finally {
+            lock.unlock();
+        }
+        publish(event);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    /**
+     * Motor más la tabla de versiones (~64 bytes por usuario: nodo del mapa
+     * y Long en caja).
+     */
+    @Override
+    public long memoryBytes() {
+        return delegate.memoryBytes() + 64L * versions.size();
+    }
+
+    /**
+     * Aplica un lote recibido de otro nodo. Los eventos aplicados no se
+     * reenvían: cada nodo manda sus propias escrituras a todos los demás.
+     *
+     * @return cantidad de eventos aplicados; el resto tenía versión vieja
+     */
+    public int applyRemote(List<ReplicationEvent> events) {
+        Map<String, ReplicationEvent> newest = new LinkedHashMap<>();
+        for (ReplicationEvent event : events) {
+            clock.observe(event.getVersion());
+            newest.merge(key(event.getUsername()), event, (a, b) -> a.getVersion() >= b.getVersion() ? a : b);
+        }
+        List<User> created = new ArrayList<>();
+        List<ReplicationEvent> winners = new ArrayList<>();
+        int[] stripes = lockAll(newest.values().stream().map(ReplicationEvent::getUsername).toList());
+        try {
+            for (ReplicationEvent event : newest.values()) {
+                long current = currentVersion(event.getUsername());
+                if (event.getVersion() <= current) {
+                    continue;
+                }
+                User user = new User(event.getUsername(), event.getHashedPassword());
+                if (current == ABSENT) {
+                    created.add(user); // altas nuevas en un solo putAllIfAbsent
+                } else {
+                    delegate.put(user);
+                }
+                winners.add(event);
+            }
+            if (!created.isEmpty()) {
+                delegate.putAllIfAbsent(created);
+            }
+            for (ReplicationEvent event : winners) {
+                versions.put(key(event.getUsername()), event.getVersion());
+            }
+        } finally {
+            unlockAll(stripes);
+        }
+        applied.increment(winners.size());
+        stale.increment(events.size() - winners.size());
+        return winners.size();
+    }
+
+    public int getNodeId() {
+        return clock.getNodeId();
+    }
+
+    /**
+     * Eventos locales todavía sin confirmar por algún peer.
+     */
+    public long pendingEvents() {
+        long pending = 0;
+        for (PeerLink link : links) {
+            pending += link.queue.size();
+        }
+        return pending;
+    }
+
+    public UserStore getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        for (PeerLink link : links) {
+            if (link.thread != null) {
+                link.thread.interrupt();
+            }
+        }
+        for (PeerLink link : links) {
+            if (link.thread != null) {
+                try {
+                    link.thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Llamar con el lock de la franja tomado.
+     */
+    private ReplicationEvent versioned(User user) {
+        long version = clock.tick();
+        versions.put(key(user.getUsername()), version);
+        return new ReplicationEvent(user.getUsername(), user.getHashedPassword(), version);
+    }
+
+    /**
+     * Llamar con el lock de la franja tomado. Un usuario sin versión es uno
+     * que el nodo tenía antes de replicar.
+     */
+    private long currentVersion(String username) {
+        Long version = versions.get(key(username));
+        if (version != null) {
+            return version;
+        }
+        return delegate.contains(username) ? ReplicationEvent.UNVERSIONED : ABSENT;
+    }
+
+    private void publish(ReplicationEvent event) {
+        for (PeerLink link : links) {
+            link.offer(event);
+        }
+    }
+
+    private static String key(String username) {
+        return UsernameNormalizer.normalize(username);
+    }
+
+    private ReentrantLock lockFor(String username) {
+        return locks[stripe(username)];
+    }
+
+    private static int stripe(String username) {
+        int h = key(username).hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Toma las franjas de todos los usernames en orden creciente, para que
+     * dos lotes concurrentes no se bloqueen mutuamente.
+     */
+    private int[] lockAll(List<String> usernames) {
+        boolean[] needed = new boolean[LOCK_STRIPES];
+        for (String username : usernames) {
+            needed[stripe(username)] = true;
+        }
+        int[] stripes = new int[LOCK_STRIPES];
+        int count = 0;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            if (needed[i]) {
+                locks[i].lock();
+                stripes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(stripes, count);
+    }
+
+    private void unlockAll(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Cola y hilo de envío hacia un peer.
+     */
+    private final class PeerLink implements Runnable {
+        private final String peer;
+        private final BlockingQueue<ReplicationEvent> queue;
+        private final Timer lag;
+        private final Counter failures;
+        private final Counter resyncs;
+        // el primer contacto manda el estado completo: el peer puede ser nuevo
+        private volatile boolean resyncNeeded = true;
+        private volatile long inFlightOldestMillis = Long.MAX_VALUE;
+        private Thread thread;
+
+        PeerLink(String peer, int queueCapacity, MeterRegistry registry) {
+            this.peer = peer;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.lag = Timer.builder("auth.replication.lag")
+                    .description("Desde la escritura local hasta que el peer la aplicó")
+                    .tag("peer", peer)
+                    .register(registry);
+            this.failures = Counter.builder("auth.replication.send.failures")
+                    .tag("peer", peer)
+                    .register(registry);
+            this.resyncs = Counter.builder("auth.replication.resyncs")
+                    .description("Envíos del estado completo a un peer")
+                    .tag("peer", peer)
+                    .register(registry);
+            Gauge.builder("auth.replication.pending", queue, BlockingQueue::size)
+                    .description("Eventos en cola para el peer")
+                    .tag("peer", peer)
+                    .register(registry);
+            Gauge.builder("auth.replication.oldest.pending", this, PeerLink::oldestPendingSeconds)
+                    .description("Antigüedad del evento más viejo sin confirmar por el peer")
+                    .tag("peer", peer)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+
+        void offer(ReplicationEvent event) {
+            if (!queue.offer(event)) {
+                // el estado completo incluye esta escritura y todo lo descartado
+                resyncNeeded = true;
+                queue.clear();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<ReplicationEvent> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    if (resyncNeeded) {
+                        resyncNeeded = false;
+                        if (!fullSync(batch)) {
+                            resyncNeeded = true;
+                        }
+                        continue;
+                    }
+                    ReplicationEvent first = queue.poll(retryMillis, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    if (send(batch, true)) {
+                        long now = wallClock.getAsLong();
+                        for (ReplicationEvent event : batch) {
+                            lag.record(Math.max(0, now - HybridClock.wallMillis(event.getVersion())), TimeUnit.MILLISECONDS);
+                        }
+                    }
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private boolean fullSync(List<ReplicationEvent> batch) {
+            resyncs.increment();
+            boolean[] ok = {true};
+            delegate.forEach(user -> {
+                if (!ok[0]) {
+                    return;
+                }
+                ReentrantLock lock = lockFor(user.getUsername());
+                lock.lock();
+                try {
+                    // releído con la versión bajo el lock: el usuario del recorrido puede ser viejo
+                    User current = delegate.get(user.getUsername());
+                    batch.add(new ReplicationEvent(current.getUsername(), current.getHashedPassword(),
+                            versions.getOrDefault(key(current.getUsername()), ReplicationEvent.UNVERSIONED)));
+                } finally {
+                    lock.unlock();
+                }
+                if (batch.size() == batchSize) {
+                    ok[0] = send(batch, false);
+                    batch.clear();
+                }
+            });
+            if (ok[0] && !batch.isEmpty()) {
+                ok[0] = send(batch, false);
+            }
+            batch.clear();
+            if (ok[0]) {
+                log.info("Estado completo enviado a {}", peer);
+            }
+            return ok[0];
+        }
+
+        /**
+         * Reintenta el lote hasta que el peer lo acepte. Si hubo fallas el peer
+         * pudo haber reiniciado sin estado, así que después se le manda el
+         * estado completo. Los lotes del estado completo (delta false) no
+         * cuentan para la antigüedad de lo pendiente.
+         *
+         * @return false si el store se cerró antes de poder enviarlo
+         */
+        private boolean send(List<ReplicationEvent> batch, boolean delta) {
+            if (delta) {
+                long oldest = Long.MAX_VALUE;
+                for (ReplicationEvent event : batch) {
+                    oldest = Math.min(oldest, HybridClock.wallMillis(event.getVersion()));
+                }
+                inFlightOldestMillis = oldest;
+            }
+            boolean failed = false;
+            try {
+                while (running) {
+                    try {
+                        transport.send(peer, batch);
+                        if (failed) {
+                            log.info("Peer {} accesible de nuevo", peer);
+                            resyncNeeded = true;
+                        }
+                        return true;
+                    } catch (IOException | RuntimeException e) {
+                        failures.increment();
+                        if (!failed) {
+                            log.warn("No se pudo replicar a {}: {}", peer, e.getMessage());
+                            failed = true;
+                        }
+                        Thread.sleep(retryMillis);
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                inFlightOldestMillis = Long.MAX_VALUE;
+            }
+        }
+
+        double oldestPendingSeconds() {
+            long oldest = inFlightOldestMillis;
+            ReplicationEvent head = queue.peek();
+            if (head != null) {
+                oldest = Math.min(oldest, HybridClock.wallMillis(head.getVersion()));
+            }
+            if (oldest == Long.MAX_VALUE) {
+                return 0;
+            }
+            return Math.max(0, wallClock.getAsLong() - oldest) / 1000.0;
+        }
+    }
+}
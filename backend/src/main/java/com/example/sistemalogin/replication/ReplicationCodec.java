@@ -0,0 +1,76 @@
+package com.example.sistemalogin.replication;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato de los lotes por HTTP: NDJSON con una línea
+ * {"username":...,"hashedPassword":...,"version":...} por evento, el mismo
+ * de la exportación de usuarios más la versión.
+ */
+public final class ReplicationCodec {
+
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private ReplicationCodec() {
+    }
+
+    public static void write(List<ReplicationEvent> events, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (ReplicationEvent event : events) {
+                generator.writeStartObject();
+                generator.writeStringField("username", event.getUsername());
+                generator.writeStringField("hashedPassword", event.getHashedPassword());
+                generator.writeNumberField("version", event.getVersion());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    public static List<ReplicationEvent> read(InputStream in) throws IOException {
+        List<ReplicationEvent> events = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Se esperaba un objeto JSON por línea");
+                }
+                events.add(readEvent(parser));
+            }
+        }
+        return events;
+    }
+
+    private static ReplicationEvent readEvent(JsonParser parser) throws IOException {
+        String username = null;
+        String hash = null;
+        long version = -1;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "username" -> username = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "hashedPassword" -> hash = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "version" -> version = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                default -> parser.skipChildren();
+            }
+        }
+        if (username == null || hash == null || version < 0) {
+            throw new JsonParseException(parser, "Evento de replicación incompleto");
+        }
+        return new ReplicationEvent(username, hash, version);
+    }
+}
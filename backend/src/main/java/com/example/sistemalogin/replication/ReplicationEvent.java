@@ -0,0 +1,37 @@
+package com.example.sistemalogin.replication;
+
+/**
+ * Estado de un usuario con su versión de HybridClock. Aplicar un evento es
+ * idempotente: solo reemplaza al usuario si la versión es mayor que la que
+ * ya tiene el nodo.
+ */
+public final class ReplicationEvent {
+
+    /**
+     * Versión de los usuarios que el nodo tenía antes de replicar (por
+     * ejemplo recuperados del journal): cualquier escritura versionada les gana.
+     */
+    public static final long UNVERSIONED = 0;
+
+    private final String username;
+    private final String hashedPassword;
+    private final long version;
+
+    public ReplicationEvent(String username, String hashedPassword, long version) {
+        this.username = username;
+        this.hashedPassword = hashedPassword;
+        this.version = version;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getHashedPassword() {
+        return hashedPassword;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.sistemalogin.replication;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Envía lotes de eventos a otro nodo. Cuando send vuelve sin excepción el
+ * nodo remoto ya aplicó el lote; si falla, el lote se reintenta entero.
+ */
+public interface ReplicationTransport {
+
+    void send(String peer, List<ReplicationEvent> events) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.example.sistemalogin.security;
+
+/**
+ * Se lanza cuando la cuenta está bloqueada por contraseñas incorrectas
+ * seguidas. Se responde igual que un límite de intentos, con Retry-After
+ * hasta que vence el bloqueo.
+ */
+public class AccountLockedException extends RateLimitedException {
+
+    public AccountLockedException(long retryAfterSeconds) {
+        super(retryAfterSeconds);
+    }
+}
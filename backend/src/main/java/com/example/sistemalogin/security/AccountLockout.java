@@ -0,0 +1,253 @@
+package com.example.sistemalogin.security;
+
+import com.example.sistemalogin.store.UsernameNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Fallos de login seguidos por cuenta, con bloqueo temporal y backoff
+ * exponencial: a partir de threshold fallos la cuenta queda bloqueada
+ * baseLockMillis, y cada fallo después de que vence el bloqueo lo duplica,
+ * hasta maxLockMillis. Un login correcto borra la cuenta de la tabla.
+ *
+ * Misma tabla que SlidingWindowRateLimiter: arrays primitivos de tamaño fijo
+ * en stripes con lock, clave por SipHash de 64 bits (clave aleatoria del
+ * proceso) del username normalizado y PROBE slots por clave. Cada slot es un
+ * long con el hash y otro con el instante del último fallo y la cantidad de
+ * fallos empaquetados (16 bytes por slot). Del instante del último fallo sale
+ * todo lo demás: hasta cuándo está bloqueada y cuándo se olvida (resetMillis
+ * sin fallos nuevos), así que las entradas vencen solas sin un proceso de
+ * limpieza.
+ *
+ * Solo bloquea una clave con threshold fallos o más; una clave sin entrada
+ * nunca se rechaza. Si todos los slots de una clave nueva están ocupados se
+ * desaloja el de fallo más viejo entre los que no llegaron al umbral, o el
+ * más viejo de todos si todos lo alcanzaron. Los usernames inexistentes van
+ * a una tabla propia (recordUnknownFailure), así llenarla con usernames
+ * inventados no desaloja los fallos de las cuentas reales.
+ */
+public class AccountLockout {
+
+    private static final int STRIPES = 64;
+    private static final int PROBE = 8;
+    private static final int COUNT_BITS = 8;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final boolean enabled;
+    private final int threshold;
+    private final long baseLockMillis;
+    private final long maxLockMillis;
+    private final long resetMillis;
+    private final LongSupplier clock;
+    private final SipHash hasher = SipHash.random();
+    private final Stripe[] known = new Stripe[STRIPES];
+    private final Stripe[] unknown = new Stripe[STRIPES];
+    private final Counter locks;
+    private final Counter rejections;
+
+    public AccountLockout(int capacity, int threshold, long baseLockMillis, long maxLockMillis, long resetMillis,
+                          MeterRegistry registry) {
+        this(true, capacity, threshold, baseLockMillis, maxLockMillis, resetMillis, registry,
+                System::currentTimeMillis);
+    }
+
+    AccountLockout(boolean enabled, int capacity, int threshold, long baseLockMillis, long maxLockMillis,
+                   long resetMillis, MeterRegistry registry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.threshold = Math.min(threshold, (int) COUNT_MASK);
+        this.baseLockMillis = baseLockMillis;
+        this.maxLockMillis = Math.max(baseLockMillis, maxLockMillis);
+        this.resetMillis = Math.max(resetMillis, this.maxLockMillis); // no olvidar una cuenta todavía bloqueada
+        this.clock = clock;
+        int perStripe = enabled ? Math.max(PROBE, Integer.highestOneBit(Math.max(1, capacity / STRIPES - 1)) << 1) : 0;
+        for (int i = 0; i < STRIPES; i++) {
+            known[i] = new Stripe(perStripe);
+            unknown[i] = new Stripe(perStripe);
+        }
+        this.locks = Counter.builder("auth.lockout.locks")
+                .description("Cuentas bloqueadas por contraseñas incorrectas seguidas")
+                .register(registry);
+        this.rejections = Counter.builder("auth.lockout.rejected")
+                .description("Logins rechazados por cuenta bloqueada, sin verificar la contraseña")
+                .register(registry);
+    }
+
+    public static AccountLockout disabled() {
+        return new AccountLockout(false, 0, 0, 0, 0, 0, new SimpleMeterRegistry(), System::currentTimeMillis);
+    }
+
+    /**
+     * Se consulta antes de buscar al usuario o verificar la contraseña: una
+     * cuenta bloqueada cuesta PROBE comparaciones por tabla, exista o no.
+     *
+     * @throws AccountLockedException si la cuenta está bloqueada
+     */
+    public void check(String username) {
+        if (!enabled) {
+            return;
+        }
+        long keyHash = hasher.hash(UsernameNormalizer.normalize(username));
+        long now = clock.getAsLong();
+        long remaining = Math.max(lockedUntil(known, keyHash), lockedUntil(unknown, keyHash)) - now;
+        if (remaining > 0) {
+            rejections.increment();
+            throw new AccountLockedException(Math.max(1, (remaining + 999) / 1000));
+        }
+    }
+
+    /**
+     * Cuenta una contraseña incorrecta de una cuenta existente.
+     */
+    public void recordFailure(String username) {
+        recordFailure(known, username);
+    }
+
+    /**
+     * Cuenta un login con un username inexistente, en su propia tabla: se
+     * bloquea igual que uno real, así el bloqueo no revela cuáles existen,
+     * pero no le quita lugar a las cuentas reales.
+     */
+    public void recordUnknownFailure(String username) {
+        recordFailure(unknown, username);
+    }
+
+    private void recordFailure(Stripe[] table, String username) {
+        if (!enabled) {
+            return;
+        }
+        long keyHash = hasher.hash(UsernameNormalizer.normalize(username));
+        long now = clock.getAsLong();
+        Stripe stripe = stripe(table, keyHash);
+        int failures;
+        stripe.lock.lock();
+        try {
+            int slot = slotFor(stripe, keyHash, now);
+            long state = stripe.states[slot];
+            failures = state == 0 || now - (state >>> COUNT_BITS) >= resetMillis
+                    ? 1
+                    : (int) Math.min(COUNT_MASK, (state & COUNT_MASK) + 1);
+            stripe.states[slot] = now << COUNT_BITS | failures;
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (failures >= threshold) {
+            locks.increment();
+        }
+    }
+
+    /**
+     * Login correcto: la cuenta vuelve a empezar de cero, también los fallos
+     * de antes de registrarse.
+     */
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        long keyHash = hasher.hash(UsernameNormalizer.normalize(username));
+        clear(known, keyHash);
+        clear(unknown, keyHash);
+    }
+
+    private void clear(Stripe[] table, long keyHash) {
+        Stripe stripe = stripe(table, keyHash);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(keyHash);
+            if (slot >= 0) {
+                stripe.keys[slot] = 0;
+                stripe.states[slot] = 0;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static Stripe stripe(Stripe[] table, long keyHash) {
+        return table[(int) (keyHash >>> 58) & (STRIPES - 1)];
+    }
+
+    /**
+     * Slot de la clave; si no está, se reutiliza uno vacío o uno cuyos
+     * fallos ya se olvidaron (resetMillis sin fallos nuevos). Si no hay, se
+     * desaloja el de fallo más viejo entre los que están bajo el umbral, o
+     * el más viejo de todos.
+     */
+    private int slotFor(Stripe stripe, long keyHash, long now) {
+        int start = (int) keyHash & stripe.mask;
+        int victim = -1;
+        long victimLastFailure = Long.MAX_VALUE;
+        boolean victimLocking = true;
+        for (int i = 0; i < PROBE; i++) {
+            int slot = (start + i) & stripe.mask;
+            long key = stripe.keys[slot];
+            if (key == keyHash) {
+                return slot;
+            }
+            long state = stripe.states[slot];
+            long lastFailure = key == 0 || now - (state >>> COUNT_BITS) >= resetMillis
+                    ? Long.MIN_VALUE
+                    : state >>> COUNT_BITS;
+            boolean locking = lastFailure != Long.MIN_VALUE && (state & COUNT_MASK) >= threshold;
+            if (victimLocking && !locking || victimLocking == locking && lastFailure < victimLastFailure) {
+                victim = slot;
+                victimLastFailure = lastFailure;
+                victimLocking = locking;
+            }
+        }
+        stripe.keys[victim] = keyHash;
+        stripe.states[victim] = 0;
+        return victim;
+    }
+
+    /**
+     * Hasta cuándo está bloqueada la clave en esta tabla, o 0 si no tiene
+     * entrada o no llegó al umbral.
+     */
+    private long lockedUntil(Stripe[] table, long keyHash) {
+        Stripe stripe = stripe(table, keyHash);
+        long state;
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(keyHash);
+            if (slot < 0) {
+                return 0;
+            }
+            state = stripe.states[slot];
+        } finally {
+            stripe.lock.unlock();
+        }
+        int failures = (int) (state & COUNT_MASK);
+        if (failures < threshold) {
+            return 0;
+        }
+        int doublings = Math.min(failures - threshold, 30);
+        return (state >>> COUNT_BITS) + Math.min(maxLockMillis, baseLockMillis << doublings);
+    }
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int mask;
+        private final long[] keys;
+        private final long[] states;
+
+        Stripe(int size) {
+            this.mask = size - 1;
+            this.keys = new long[size];
+            this.states = new long[size];
+        }
+
+        int find(long keyHash) {
+            int start = (int) keyHash & mask;
+            for (int i = 0; i < PROBE; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == keyHash) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+    }
+}
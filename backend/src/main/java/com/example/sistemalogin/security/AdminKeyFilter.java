@@ -0,0 +1,55 @@
+package com.example.sistemalogin.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Protege las rutas de administración con una clave compartida en el header
+ * X-Admin-Key. Sin clave configurada las rutas quedan deshabilitadas.
+ */
+public class AdminKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Admin-Key";
+
+    private static final byte[] DISABLED_BODY =
+            "{\"success\":false,\"message\":\"Administración deshabilitada\",\"username\":null}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"success\":false,\"message\":\"Clave de administración inválida\",\"username\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] apiKey;
+
+    public AdminKeyFilter(String apiKey) {
+        this.apiKey = apiKey == null || apiKey.isBlank() ? null : apiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (apiKey == null) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, DISABLED_BODY);
+            return;
+        }
+        String header = request.getHeader(HEADER);
+        // comparación en tiempo constante para no filtrar la clave por timing
+        if (header == null || !MessageDigest.isEqual(apiKey, header.getBytes(StandardCharsets.UTF_8))) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, UNAUTHORIZED_BODY);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sistemalogin.security;
+
+import com.example.sistemalogin.store.UsernameNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Límite de intentos de login por IP de cliente y por username. Se consulta
+ * antes de buscar al usuario o correr BCrypt, así que un ataque de
+ * credential stuffing rechazado cuesta O(1) por request.
+ */
+public class LoginRateLimiter {
+
+    private final SlidingWindowRateLimiter perIp;
+    private final SlidingWindowRateLimiter perUser;
+    private final Counter ipRejections;
+    private final Counter userRejections;
+
+    public LoginRateLimiter(SlidingWindowRateLimiter perIp, SlidingWindowRateLimiter perUser, MeterRegistry registry) {
+        this.perIp = perIp;
+        this.perUser = perUser;
+        this.ipRejections = Counter.builder("auth.rate.limited")
+                .description("Intentos de login rechazados por límite")
+                .tag("scope", "ip")
+                .register(registry);
+        this.userRejections = Counter.builder("auth.rate.limited")
+                .description("Intentos de login rechazados por límite")
+                .tag("scope", "user")
+                .register(registry);
+    }
+
+    public static LoginRateLimiter disabled() {
+        return new LoginRateLimiter(null, null, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @throws RateLimitedException si la IP o el username superaron su límite
+     */
+    public void check(String clientIp, String username) {
+        if (perIp != null && clientIp != null && !perIp.tryAcquire(clientIp)) {
+            ipRejections.increment();
+            throw new RateLimitedException(perIp.retryAfterSeconds());
+        }
+        // normalizado: variar mayúsculas no da intentos extra contra la misma cuenta
+        if (perUser != null && !perUser.tryAcquire(UsernameNormalizer.normalize(username))) {
+            userRejections.increment();
+            throw new RateLimitedException(perUser.retryAfterSeconds());
+        }
+    }
+}
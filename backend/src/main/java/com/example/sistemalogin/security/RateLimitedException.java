@@ -0,0 +1,18 @@
+package com.example.sistemalogin.security;
+
+/**
+ * Se lanza cuando un intento de login supera el límite por usuario o por IP.
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(long retryAfterSeconds) {
+        super("Demasiados intentos de inicio de sesión");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
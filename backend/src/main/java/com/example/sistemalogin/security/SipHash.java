@@ -0,0 +1,72 @@
+package com.example.sistemalogin.security;
+
+import java.security.SecureRandom;
+
+/**
+ * SipHash-2-4 con clave de 128 bits, sobre los chars de un String (cada char
+ * como dos bytes little-endian) y sin reservar memoria.
+ *
+ * Con una clave aleatoria por proceso nadie puede calcular de antemano
+ * usernames o IPs que caigan en los mismos slots de las tablas de
+ * SlidingWindowRateLimiter y AccountLockout.
+ */
+final class SipHash {
+
+    private final long k0;
+    private final long k1;
+
+    SipHash(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    static SipHash random() {
+        SecureRandom random = new SecureRandom();
+        return new SipHash(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * @return hash de 64 bits, nunca 0 (0 marca un slot vacío en las tablas)
+     */
+    long hash(String key) {
+        // el estado va en locales y las rondas inline, así no se reserva nada por llamada
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        int length = key.length();
+        int full = length & ~3;
+        for (int i = 0; i <= full; i += 4) {
+            long m;
+            if (i < full) {
+                m = key.charAt(i)
+                        | (long) key.charAt(i + 1) << 16
+                        | (long) key.charAt(i + 2) << 32
+                        | (long) key.charAt(i + 3) << 48;
+            } else {
+                // último bloque: los chars que sobran y el largo en bytes en el byte alto
+                m = (long) (length * 2) << 56;
+                for (int j = i, shift = 0; j < length; j++, shift += 16) {
+                    m |= (long) key.charAt(j) << shift;
+                }
+            }
+            v3 ^= m;
+            for (int round = 0; round < 2; round++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        v2 ^= 0xff;
+        for (int round = 0; round < 4; round++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        long h = v0 ^ v1 ^ v2 ^ v3;
+        return h == 0 ? 1 : h;
+    }
+}
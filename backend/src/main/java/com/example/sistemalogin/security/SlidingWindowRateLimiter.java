@@ -0,0 +1,148 @@
+package com.example.sistemalogin.security;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de intentos por clave con ventana deslizante aproximada: se guardan
+ * los conteos de la ventana fija actual y de la anterior, y la anterior pesa
+ * según cuánto de ella sigue dentro de la ventana deslizante.
+ *
+ * Todo vive en arrays primitivos de tamaño fijo repartidos en stripes con su
+ * propio lock, así que la memoria no crece con la cantidad de claves
+ * (24 bytes por slot). Cada clave se identifica por un SipHash de 64 bits con
+ * clave aleatoria del proceso y solo puede ocupar PROBE slots consecutivos;
+ * al insertar se reutiliza un slot vacío o uno cuyos conteos ya no pesan en
+ * la ventana deslizante. Si todos los candidatos siguen contando se desaloja
+ * el de ventana más vieja entre los que no llegaron al límite, o el más
+ * viejo de todos si todos llegaron: una clave nueva nunca se rechaza por
+ * falta de lugar, así un ataque con millones de claves distintas no deja sin
+ * login a los demás. Sin la clave del hash nadie puede fabricar claves que
+ * caigan en los slots de otra, así que un contador agotado solo se pierde si
+ * sus PROBE slots están todos agotados también.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int STRIPES = 64;
+    private static final int PROBE = 8;
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final SipHash hasher = SipHash.random();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public SlidingWindowRateLimiter(int capacity, int limit, long windowMillis) {
+        this(capacity, limit, windowMillis, System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(int capacity, int limit, long windowMillis, LongSupplier clock) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        int perStripe = Math.max(PROBE, Integer.highestOneBit(Math.max(1, capacity / STRIPES - 1)) << 1);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Cuenta un intento para la clave si todavía está dentro del límite.
+     * Los intentos rechazados no se cuentan.
+     *
+     * @return false si la clave superó el límite en la ventana deslizante
+     */
+    public boolean tryAcquire(String key) {
+        long keyHash = hasher.hash(key);
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        // fracción de la ventana anterior que todavía cae dentro de la deslizante
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+        Stripe stripe = stripes[(int) (keyHash >>> 58) & (STRIPES - 1)];
+        stripe.lock.lock();
+        try {
+            int slot = stripe.slotFor(keyHash, window, previousWeight, limit);
+            if (stripe.windows[slot] != window) {
+                stripe.previous[slot] = stripe.previousCount(slot, window);
+                stripe.current[slot] = 0;
+                stripe.windows[slot] = window;
+            }
+            if (stripe.estimate(slot, window, previousWeight) + 1 > limit) {
+                return false;
+            }
+            stripe.current[slot]++;
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Segundos hasta que cierra la ventana fija actual, como valor de
+     * Retry-After.
+     */
+    public long retryAfterSeconds() {
+        long remaining = windowMillis - clock.getAsLong() % windowMillis;
+        return Math.max(1, (remaining + 999) / 1000);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int mask;
+        private final long[] keys;
+        private final long[] windows;
+        private final int[] current;
+        private final int[] previous;
+
+        Stripe(int size) {
+            this.mask = size - 1;
+            this.keys = new long[size];
+            this.windows = new long[size];
+            this.current = new int[size];
+            this.previous = new int[size];
+        }
+
+        /**
+         * Slot de la clave; si no está, el slot reutilizado para ella: uno
+         * vacío o que ya no pesa, si no el de ventana más vieja bajo el
+         * límite, si no el de ventana más vieja.
+         */
+        int slotFor(long keyHash, long window, double previousWeight, int limit) {
+            int start = (int) keyHash & mask;
+            int victim = -1;
+            long victimWindow = Long.MAX_VALUE;
+            boolean victimExhausted = true;
+            for (int i = 0; i < PROBE; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == keyHash) {
+                    return slot;
+                }
+                long slotWindow = keys[slot] == 0 || windows[slot] < window - 1 ? Long.MIN_VALUE : windows[slot];
+                boolean exhausted = slotWindow != Long.MIN_VALUE && estimate(slot, window, previousWeight) + 1 > limit;
+                if (victimExhausted && !exhausted || victimExhausted == exhausted && slotWindow < victimWindow) {
+                    victim = slot;
+                    victimWindow = slotWindow;
+                    victimExhausted = exhausted;
+                }
+            }
+            keys[victim] = keyHash;
+            windows[victim] = Long.MIN_VALUE;
+            current[victim] = 0;
+            previous[victim] = 0;
+            return victim;
+        }
+
+        /**
+         * Conteo que aporta el slot como ventana anterior a window.
+         */
+        int previousCount(int slot, long window) {
+            long slotWindow = windows[slot];
+            return slotWindow == window ? previous[slot] : slotWindow == window - 1 ? current[slot] : 0;
+        }
+
+        double estimate(int slot, long window, double previousWeight) {
+            int currentCount = windows[slot] == window ? current[slot] : 0;
+            return previousCount(slot, window) * previousWeight + currentCount;
+        }
+    }
+}
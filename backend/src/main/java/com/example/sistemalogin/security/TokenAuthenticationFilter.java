@@ -0,0 +1,61 @@
+package com.example.sistemalogin.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exige un token Bearer válido en las rutas protegidas. Si el token es
+ * válido deja el username en el atributo USERNAME_ATTRIBUTE del request y su
+ * emisión en ISSUED_AT_ATTRIBUTE. Los preflight CORS (OPTIONS) pasan sin
+ * token: el navegador nunca manda Authorization en ellos.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String USERNAME_ATTRIBUTE = "auth.token.username";
+    public static final String ISSUED_AT_ATTRIBUTE = "auth.token.issued-at";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"success\":false,\"message\":\"Token inválido o vencido\",\"username\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        TokenService.Claims claims = null;
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            claims = tokenService.parse(header.substring(BEARER_PREFIX.length()));
+        }
+        if (claims == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(UNAUTHORIZED_BODY.length);
+            response.getOutputStream().write(UNAUTHORIZED_BODY);
+            return;
+        }
+        request.setAttribute(USERNAME_ATTRIBUTE, claims.username());
+        request.setAttribute(ISSUED_AT_ATTRIBUTE, claims.issuedAt());
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.sistemalogin.security;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * Tokens de sesión sin estado firmados con HMAC-SHA256.
+ *
+ * Formato: base64url(username) "." emisión "." expiración "." base64url(firma),
+ * con emisión y expiración en segundos epoch. La firma cubre todo lo que está
+ * antes del último punto. Verificar un token no consulta ningún store: solo
+ * recalcula el HMAC en buffers reutilizados por hilo y compara en tiempo
+ * constante.
+ *
+ * La emisión es la del login original y se conserva al renovar, así un token
+ * no se puede renovar más allá de maxLifetime aunque nunca llegue a vencer.
+ */
+public class TokenService {
+
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43; // base64url sin padding de 32 bytes
+    private static final int MAX_TOKEN_LENGTH = 4096;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final long maxLifetimeSeconds;
+    private final LongSupplier epochSeconds;
+    private final ThreadLocal<Scratch> scratch;
+
+    public TokenService(byte[] secret, long ttlSeconds, long maxLifetimeSeconds) {
+        this(secret, ttlSeconds, maxLifetimeSeconds, () -> System.currentTimeMillis() / 1000);
+    }
+
+    TokenService(byte[] secret, long ttlSeconds, long maxLifetimeSeconds, LongSupplier epochSeconds) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("El secreto de tokens debe tener al menos 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret.clone(), "HmacSHA256");
+        this.ttlSeconds = ttlSeconds;
+        this.maxLifetimeSeconds = maxLifetimeSeconds;
+        this.epochSeconds = epochSeconds;
+        this.scratch = ThreadLocal.withInitial(Scratch::new);
+    }
+
+    public static byte[] randomSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issue(String username) {
+        long now = epochSeconds.getAsLong();
+        return issue(username, now, now + ttlSeconds);
+    }
+
+    /**
+     * Emite un token nuevo que conserva la emisión del original.
+     *
+     * @return el token, o null si ya pasó maxLifetime desde el login original
+     */
+    public String refresh(String username, long issuedAt) {
+        long now = epochSeconds.getAsLong();
+        long limit = issuedAt + maxLifetimeSeconds;
+        if (now >= limit) {
+            return null;
+        }
+        return issue(username, issuedAt, Math.min(now + ttlSeconds, limit));
+    }
+
+    private String issue(String username, long issuedAt, long expiresAt) {
+        String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + "." + issuedAt + "." + expiresAt;
+        if (payload.length() + 1 + ENCODED_SIGNATURE_LENGTH > MAX_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Username demasiado largo para un token");
+        }
+        Scratch s = scratch.get();
+        sign(s, ascii(payload, payload.length(), s));
+        return payload + "." + new String(s.encodedSignature, 0, ENCODED_SIGNATURE_LENGTH, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return el username del token, o null si la firma no coincide, está mal
+     *         formado o ya venció
+     */
+    public String verify(String token) {
+        Claims claims = parse(token);
+        return claims == null ? null : claims.username();
+    }
+
+    /**
+     * @return username y emisión del token, o null si la firma no coincide,
+     *         está mal formado o ya venció
+     */
+    public Claims parse(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int signatureDot = token.lastIndexOf('.');
+        if (signatureDot < 0 || token.length() - signatureDot - 1 != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+        int expiryDot = token.lastIndexOf('.', signatureDot - 1);
+        int issuedDot = expiryDot <= 0 ? -1 : token.lastIndexOf('.', expiryDot - 1);
+        if (issuedDot <= 0) {
+            return null;
+        }
+
+        Scratch s = scratch.get();
+        int length = ascii(token, signatureDot, s);
+        if (length < 0) {
+            return null;
+        }
+        sign(s, length);
+        int diff = 0;
+        for (int i = 0; i < ENCODED_SIGNATURE_LENGTH; i++) {
+            diff |= s.encodedSignature[i] ^ token.charAt(signatureDot + 1 + i);
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        long issuedAt = parseSeconds(token, issuedDot + 1, expiryDot);
+        long expiresAt = parseSeconds(token, expiryDot + 1, signatureDot);
+        if (issuedAt < 0 || expiresAt < 0 || epochSeconds.getAsLong() >= expiresAt) {
+            return null;
+        }
+        try {
+            String username = new String(Base64.getUrlDecoder().decode(token.substring(0, issuedDot)), StandardCharsets.UTF_8);
+            return new Claims(username, issuedAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long parseSeconds(String token, int from, int to) {
+        if (from == to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int ascii(String value, int length, Scratch s) {
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c > 0x7F) {
+                return -1;
+            }
+            s.payload[i] = (byte) c;
+        }
+        return length;
+    }
+
+    private void sign(Scratch s, int length) {
+        try {
+            if (s.mac == null) {
+                s.mac = Mac.getInstance("HmacSHA256");
+                s.mac.init(key);
+            }
+            s.mac.update(s.payload, 0, length);
+            s.mac.doFinal(s.signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+        ENCODER.encode(s.signature, s.encodedSignature);
+    }
+
+    public record Claims(String username, long issuedAt) {}
+
+    private static final class Scratch {
+        private Mac mac;
+        private final byte[] payload = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] encodedSignature = new byte[ENCODED_SIGNATURE_LENGTH];
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.sistemalogin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCryptPasswordEncoder con un costo elegido para este host y que pide
+ * re-hashear cualquier hash con un costo distinto (mayor o menor), no solo
+ * los más débiles como hace BCryptPasswordEncoder.upgradeEncoding.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+    private static final String CALIBRATION_PASSWORD = "calibracion-bcrypt";
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Mide BCrypt en este host y devuelve un encoder con el costo más alto
+     * cuyo hash tarda como mucho targetMillis, sin bajar de minStrength ni
+     * pasar de maxStrength. Cada punto de costo duplica el tiempo, así que
+     * se deja de medir en cuanto el siguiente costo ya no entraría.
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        new BCryptPasswordEncoder(minStrength).encode(CALIBRATION_PASSWORD); // calentar el JIT
+        int chosen = minStrength;
+        long chosenNanos = 0;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long nanos = measure(candidate);
+            if (nanos > targetNanos) {
+                if (candidate == minStrength) {
+                    chosenNanos = nanos;
+                }
+                break;
+            }
+            chosen = candidate;
+            chosenNanos = nanos;
+            if (nanos * 2 > targetNanos) {
+                break;
+            }
+        }
+        log.info("Costo BCrypt calibrado: {} ({} ms por hash, objetivo {} ms)",
+                chosen, TimeUnit.NANOSECONDS.toMillis(chosenNanos), targetMillis);
+        return new AdaptiveBCryptPasswordEncoder(chosen);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    /**
+     * @return el costo de un hash $2a$NN$..., o -1 si no tiene ese formato
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
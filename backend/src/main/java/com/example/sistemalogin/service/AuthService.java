@@ -1,39 +1,325 @@
 package com.example.sistemalogin.service;
 
 import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.security.AccountLockedException;
+import com.example.sistemalogin.security.AccountLockout;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.example.sistemalogin.tracing.RequestTrace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
     
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-    private final Map<String, User> users = new HashMap<>();
+    private final PasswordEncoder passwordEncoder;
+    private final UserStore users;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final VerifiedCredentialCache credentialCache;
+    private final LoginTimingEqualizer timingEqualizer;
+    private final UsernameReservations reservations;
+    private final AccountLockout lockout;
+    private volatile String dummyHash;
+
+    public AuthService() {
+        this(new ConcurrentUserStore());
+    }
+
+    public AuthService(UserStore users) {
+        this(users, PasswordHashingExecutor.inline(), VerifiedCredentialCache.disabled());
+    }
+
+    public AuthService(UserStore users, PasswordHashingExecutor hashingExecutor,
+                       VerifiedCredentialCache credentialCache) {
+        this(users, hashingExecutor, credentialCache, new BCryptPasswordEncoder());
+    }
+
+    public AuthService(UserStore users, PasswordHashingExecutor hashingExecutor,
+                       VerifiedCredentialCache credentialCache, PasswordEncoder passwordEncoder) {
+        this(users, hashingExecutor, credentialCache, passwordEncoder,
+                new LoginTimingEqualizer(true, new SimpleMeterRegistry()));
+    }
+
+    public AuthService(UserStore users, PasswordHashingExecutor hashingExecutor,
+                       VerifiedCredentialCache credentialCache, PasswordEncoder passwordEncoder,
+                       LoginTimingEqualizer timingEqualizer) {
+        this(users, hashingExecutor, credentialCache, passwordEncoder, timingEqualizer,
+                UsernameReservations.withDefaults());
+    }
+
+    public AuthService(UserStore users, PasswordHashingExecutor hashingExecutor,
+                       VerifiedCredentialCache credentialCache, PasswordEncoder passwordEncoder,
+                       LoginTimingEqualizer timingEqualizer, UsernameReservations reservations) {
+        this(users, hashingExecutor, credentialCache, passwordEncoder, timingEqualizer, reservations,
+                AccountLockout.disabled());
+    }
+
+    @Autowired
+    public AuthService(UserStore users, PasswordHashingExecutor hashingExecutor,
+                       VerifiedCredentialCache credentialCache, PasswordEncoder passwordEncoder,
+                       LoginTimingEqualizer timingEqualizer, UsernameReservations reservations,
+                       AccountLockout lockout) {
+        this.users = users;
+        this.hashingExecutor = hashingExecutor;
+        this.credentialCache = credentialCache;
+        this.passwordEncoder = passwordEncoder;
+        this.timingEqualizer = timingEqualizer;
+        this.reservations = reservations;
+        this.lockout = lockout;
+    }
     
+    /**
+     * Alta en tres pasos: reserva del username (sin hash todavía), hash en el
+     * pool y confirmación en el store. Un alta duplicada concurrente pierde en
+     * la reserva, antes de gastar un hash; si el hash falla o la reserva vence
+     * mientras espera, la reserva se libera y el usuario no se publica.
+     *
+     * @throws HashingOverloadedException si el pool está lleno o el hash no
+     *         terminó antes de que venciera la reserva
+     */
     public boolean registerUser(String username, String password) {
-        if (users.containsKey(username)) {
+        RequestTrace trace = RequestTrace.current();
+        if (exists(username, trace)) {
             return false; // Usuario ya existe
         }
+        UsernameReservations.Reservation reservation = reservations.reserve(username);
+        if (reservation == null) {
+            return false; // otra alta del mismo username en curso
+        }
         
-        String hashedPassword = passwordEncoder.encode(password);
-        User user = new User(username, hashedPassword);
-        users.put(username, user);
-        return true;
+        String hashedPassword;
+        try {
+            hashedPassword = hashingExecutor.execute(traced(trace, "password.hash", () -> passwordEncoder.encode(password)));
+        } catch (RuntimeException e) {
+            reservations.rollback(reservation);
+            throw e;
+        }
+        return commitRegistration(reservation, hashedPassword, trace);
     }
     
+    /**
+     * @throws AccountLockedException si la cuenta está bloqueada por fallos
+     *         seguidos; se rechaza sin buscar al usuario ni verificar nada
+     */
     public boolean authenticateUser(String username, String password) {
-        User user = users.get(username);
+        RequestTrace trace = RequestTrace.current();
+        User user = lookup(username, trace);
+        if (user == null) {
+            lockout.recordUnknownFailure(username);
+            return rejectUnknownUser(password, trace); // Usuario no existe
+        }
+        
+        String hashedPassword = user.getHashedPassword();
+        if (credentialCache.isVerified(username, password, hashedPassword)) {
+            lockout.recordSuccess(username);
+            return true; // verificado hace poco contra este mismo hash
+        }
+        
+        long start = System.nanoTime();
+        String verifiedHash = hashingExecutor.execute(traced(trace, "password.verify", () -> verify(password, hashedPassword)));
+        return completeVerification(username, password, hashedPassword, verifiedHash, start);
+    }
+    
+    /**
+     * Como registerUser, pero el hash corre en el pool sin bloquear al
+     * llamador; la inserción se hace en el hilo del pool al terminar.
+     */
+    public CompletableFuture<Boolean> registerUserAsync(String username, String password) {
+        RequestTrace trace = RequestTrace.current();
+        if (exists(username, trace)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        UsernameReservations.Reservation reservation = reservations.reserve(username);
+        if (reservation == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return hashingExecutor.submit(traced(trace, "password.hash", () -> passwordEncoder.encode(password)))
+                .whenComplete((hashedPassword, error) -> {
+                    if (error != null) {
+                        reservations.rollback(reservation);
+                    }
+                })
+                .thenApply(hashedPassword -> commitRegistration(reservation, hashedPassword, trace));
+    }
+    
+    /**
+     * Como authenticateUser, pero sin bloquear al llamador ni mientras corre
+     * el hash ni mientras se iguala el tiempo de un usuario inexistente.
+     */
+    public CompletableFuture<Boolean> authenticateUserAsync(String username, String password) {
+        RequestTrace trace = RequestTrace.current();
+        User user;
+        try {
+            user = lookup(username, trace);
+        } catch (AccountLockedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
         if (user == null) {
-            return false; // Usuario no existe
+            lockout.recordUnknownFailure(username);
+            return rejectUnknownUserAsync(password, trace);
+        }
+        
+        String hashedPassword = user.getHashedPassword();
+        if (credentialCache.isVerified(username, password, hashedPassword)) {
+            lockout.recordSuccess(username);
+            return CompletableFuture.completedFuture(true);
         }
         
-        return passwordEncoder.matches(password, user.getHashedPassword());
+        long start = System.nanoTime();
+        return hashingExecutor.submit(traced(trace, "password.verify", () -> verify(password, hashedPassword)))
+                .thenApply(verifiedHash -> completeVerification(username, password, hashedPassword, verifiedHash, start));
     }
     
     public boolean userExists(String username) {
-        return users.containsKey(username);
+        return users.contains(username);
+    }
+
+    /**
+     * Publica el usuario solo si la reserva sigue vigente. El putIfAbsent
+     * sigue haciendo falta: el username puede llegar al store por otra vía
+     * (importación, replicación) sin pasar por las reservas.
+     */
+    private boolean commitRegistration(UsernameReservations.Reservation reservation, String hashedPassword,
+                                       RequestTrace trace) {
+        if (!reservations.isHeld(reservation)) {
+            reservations.rollback(reservation);
+            throw new HashingOverloadedException(hashingExecutor.getRetryAfterSeconds());
+        }
+        long commit = trace.start();
+        boolean added = users.putIfAbsent(new User(reservation.getUsername(), hashedPassword));
+        trace.end("store.commit", commit);
+        if (!added) {
+            reservations.rollback(reservation);
+            return false;
+        }
+        reservations.release(reservation);
+        return true;
+    }
+
+    private boolean completeVerification(String username, String password, String hashedPassword,
+                                         String verifiedHash, long start) {
+        if (verifiedHash == null) {
+            timingEqualizer.recordVerify(System.nanoTime() - start);
+            lockout.recordFailure(username);
+            return false;
+        }
+        lockout.recordSuccess(username);
+        if (verifiedHash != hashedPassword) {
+            users.put(new User(username, verifiedHash)); // costo distinto al configurado: re-hasheado
+        } else {
+            timingEqualizer.recordVerify(System.nanoTime() - start); // el re-hash no entra al promedio
+        }
+        credentialCache.put(username, password, verifiedHash);
+        return true;
+    }
+
+    /**
+     * Un username inexistente tarda lo mismo que una contraseña incorrecta.
+     * Solo mientras no hay ninguna verificación real medida se verifica
+     * contra un hash de relleno; después se espera el promedio medido.
+     */
+    private boolean rejectUnknownUser(String password, RequestTrace trace) {
+        if (!timingEqualizer.isEnabled()) {
+            return false;
+        }
+        if (timingEqualizer.isCalibrated()) {
+            long waiting = trace.start();
+            timingEqualizer.awaitDummyVerify();
+            trace.end("timing.equalize", waiting);
+            return false;
+        }
+        long start = System.nanoTime();
+        hashingExecutor.execute(traced(trace, "password.verify", () -> passwordEncoder.matches(password, dummyHash())));
+        timingEqualizer.recordVerify(System.nanoTime() - start);
+        return false;
+    }
+
+    private CompletableFuture<Boolean> rejectUnknownUserAsync(String password, RequestTrace trace) {
+        if (!timingEqualizer.isEnabled()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (timingEqualizer.isCalibrated()) {
+            long waiting = trace.start();
+            return timingEqualizer.dummyVerifyAsync().thenApply(ignored -> {
+                trace.end("timing.equalize", waiting);
+                return false;
+            });
+        }
+        long start = System.nanoTime();
+        return hashingExecutor.submit(traced(trace, "password.verify", () -> passwordEncoder.matches(password, dummyHash())))
+                .thenApply(ignored -> {
+                    timingEqualizer.recordVerify(System.nanoTime() - start);
+                    return false;
+                });
+    }
+
+    private boolean exists(String username, RequestTrace trace) {
+        long lookup = trace.start();
+        boolean exists = users.contains(username);
+        trace.end("user.lookup", lookup);
+        return exists;
+    }
+
+    /**
+     * @throws AccountLockedException si la cuenta está bloqueada
+     */
+    private User lookup(String username, RequestTrace trace) {
+        long lookup = trace.start();
+        lockout.check(username);
+        User user = users.get(username);
+        trace.end("user.lookup", lookup);
+        return user;
+    }
+
+    /**
+     * Envuelve una tarea del pool de hashing para que la traza del request
+     * separe la espera en la cola (hash.queue) de la ejecución (phase). Sin
+     * muestreo devuelve la misma tarea.
+     */
+    private static <T> Callable<T> traced(RequestTrace trace, String phase, Callable<T> task) {
+        if (!trace.isSampled()) {
+            return task;
+        }
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            trace.span("hash.queue", submitted, started);
+            try {
+                return task.call();
+            } finally {
+                trace.end(phase, started);
+            }
+        };
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            // con el encoder configurado, así el relleno cuesta lo mismo que un hash real
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Corre en el pool de hashing. Si la contraseña es correcta y el encoder
+     * pide actualizar el hash, el re-hash se hace en la misma tarea para no
+     * volver a pasar por la cola.
+     *
+     * @return el hash a conservar, o null si la contraseña no coincide
+     */
+    private String verify(String password, String hashedPassword) {
+        if (!passwordEncoder.matches(password, hashedPassword)) {
+            return null;
+        }
+        return passwordEncoder.upgradeEncoding(hashedPassword) ? passwordEncoder.encode(password) : hashedPassword;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.example.sistemalogin.service;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.UserStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Alta masiva de usuarios por lotes: descarta los que ya existen, hashea el
+ * resto en paralelo y los inserta con una sola llamada a
+ * UserStore.putAllIfAbsent por lote.
+ *
+ * Los hashes van al mismo PasswordHashingExecutor que los logins, con su cola
+ * acotada, y cada alta masiva tiene a lo sumo maxInFlight hashes encolados a
+ * la vez entre todos los trabajos. Así una importación nunca ocupa todos los
+ * hilos de BCrypt; si la cola se llena por el tráfico de logins, el registro
+ * se responde como sobrecarga en lugar de esperar.
+ */
+public class BulkRegistrationService {
+
+    public enum Result {
+        REGISTERED,
+        EXISTS,
+        OVERLOADED
+    }
+
+    private final UserStore users;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Semaphore jobs;
+    private final Semaphore inFlight;
+    private final Counter registered;
+    private final Counter rejected;
+    private final Counter overloaded;
+
+    public BulkRegistrationService(UserStore users, PasswordEncoder passwordEncoder,
+                                   PasswordHashingExecutor hashingExecutor, int maxJobs, int maxInFlight,
+                                   MeterRegistry registry) {
+        this.users = users;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.jobs = new Semaphore(Math.max(1, maxJobs));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.registered = Counter.builder("auth.bulk.records").tag("result", "registered").register(registry);
+        this.rejected = Counter.builder("auth.bulk.records").tag("result", "rejected").register(registry);
+        this.overloaded = Counter.builder("auth.bulk.records").tag("result", "overloaded").register(registry);
+    }
+
+    /**
+     * Reserva el lugar de un alta masiva; hay que liberarlo con endJob.
+     *
+     * @throws HashingOverloadedException si ya corren maxJobs altas masivas
+     */
+    public void beginJob() {
+        if (!jobs.tryAcquire()) {
+            throw new HashingOverloadedException(hashingExecutor.getRetryAfterSeconds());
+        }
+    }
+
+    public void endJob() {
+        jobs.release();
+    }
+
+    /**
+     * Registra un lote ya validado.
+     *
+     * @return por posición, REGISTERED si ese usuario se registró, EXISTS si
+     *         ya existía o aparece repetido antes en el mismo lote, OVERLOADED
+     *         si el pool de hashing no lo aceptó
+     */
+    public Result[] registerBatch(List<String> usernames, List<String> passwords) {
+        int size = usernames.size();
+        Result[] result = new Result[size];
+        List<Integer> pending = new ArrayList<>(size);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            String username = usernames.get(i);
+            result[i] = Result.EXISTS;
+            if (seen.add(username) && !users.contains(username)) {
+                pending.add(i);
+            }
+        }
+
+        List<CompletableFuture<String>> hashes = new ArrayList<>(pending.size());
+        for (int index : pending) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<String> hash = hashingExecutor.submit(() -> passwordEncoder.encode(passwords.get(index)));
+            hash.whenComplete((value, error) -> inFlight.release());
+            hashes.add(hash);
+        }
+
+        List<User> batch = new ArrayList<>(hashes.size());
+        List<Integer> positions = new ArrayList<>(hashes.size());
+        int overloadedCount = 0;
+        for (int j = 0; j < hashes.size(); j++) {
+            int position = pending.get(j);
+            try {
+                batch.add(new User(usernames.get(position), hashes.get(j).join()));
+                positions.add(position);
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof HashingOverloadedException)) {
+                    throw e;
+                }
+                result[position] = Result.OVERLOADED;
+                overloadedCount++;
+            }
+        }
+        boolean[] inserted = users.putAllIfAbsent(batch);
+        int count = 0;
+        for (int j = 0; j < inserted.length; j++) {
+            if (inserted[j]) {
+                result[positions.get(j)] = Result.REGISTERED;
+                count++;
+            }
+        }
+        registered.increment(count);
+        overloaded.increment(overloadedCount);
+        rejected.increment(size - count - overloadedCount);
+        return result;
+    }
+}
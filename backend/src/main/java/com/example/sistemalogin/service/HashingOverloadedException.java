@@ -0,0 +1,18 @@
+package com.example.sistemalogin.service;
+
+/**
+ * El pool de hashing está lleno y la petición fue rechazada sin esperar.
+ */
+public class HashingOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public HashingOverloadedException(int retryAfterSeconds) {
+        super("Cola de hashing llena");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
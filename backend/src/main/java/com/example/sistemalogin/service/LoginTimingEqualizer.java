@@ -0,0 +1,98 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Iguala la latencia de un login con username inexistente a la de uno con
+ * contraseña incorrecta, sin gastar un hash por cada username inventado.
+ *
+ * Lleva un promedio móvil exponencial (EWMA) de lo que tardan las
+ * verificaciones reales, cola del pool incluida, y de su desvío absoluto.
+ * Un login sin usuario estaciona el hilo ese tiempo más un ruido uniforme
+ * dentro del desvío, así que su distribución se parece a la real y sigue a
+ * los cambios de costo o de carga. No ocupa hilos del pool de hashing.
+ */
+public class LoginTimingEqualizer {
+
+    private static final double ALPHA = 0.1;
+
+    private final boolean enabled;
+    private final Counter dummyVerifies;
+    private volatile double meanNanos;
+    private volatile double deviationNanos;
+    private volatile boolean calibrated;
+
+    public LoginTimingEqualizer(boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.dummyVerifies = Counter.builder("auth.verify.dummy")
+                .description("Logins de usuarios inexistentes igualados en tiempo")
+                .register(registry);
+        Gauge.builder("auth.verify.duration.ewma", this, equalizer -> equalizer.meanNanos / 1e9)
+                .description("Promedio móvil de la duración de una verificación real")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public static LoginTimingEqualizer disabled() {
+        return new LoginTimingEqualizer(false, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * false hasta registrar la primera verificación real; mientras tanto el
+     * llamador tiene que verificar contra un hash de relleno.
+     */
+    public boolean isCalibrated() {
+        return calibrated;
+    }
+
+    public synchronized void recordVerify(long nanos) {
+        if (!calibrated) {
+            meanNanos = nanos;
+            deviationNanos = nanos / 10.0;
+            calibrated = true;
+            return;
+        }
+        double error = nanos - meanNanos;
+        meanNanos += ALPHA * error;
+        deviationNanos += ALPHA * (Math.abs(error) - deviationNanos);
+    }
+
+    /**
+     * Estaciona el hilo lo que tardaría una verificación real.
+     */
+    public void awaitDummyVerify() {
+        long deadline = System.nanoTime() + dummyDelayNanos();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining); // puede despertar antes: repetir hasta el plazo
+        }
+    }
+
+    /**
+     * Como awaitDummyVerify pero sin bloquear: el future se completa en el
+     * hilo de temporizadores de CompletableFuture al cumplirse la espera.
+     */
+    public CompletableFuture<Void> dummyVerifyAsync() {
+        Executor delayed = CompletableFuture.delayedExecutor(dummyDelayNanos(), TimeUnit.NANOSECONDS, Runnable::run);
+        return CompletableFuture.runAsync(() -> {}, delayed);
+    }
+
+    private long dummyDelayNanos() {
+        dummyVerifies.increment();
+        double jitter = ThreadLocalRandom.current().nextDouble(-1, 1) * deviationNanos;
+        return (long) Math.max(0, meanNanos + jitter);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.sistemalogin.service;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Motores de hash disponibles. Cada hash se guarda con el prefijo de su
+ * algoritmo ({bcrypt}, {argon2id}, {pbkdf2}) y el encoder delegante elige el
+ * motor al verificar, así que conviven hashes de varios algoritmos en la
+ * misma tabla.
+ *
+ * Los hashes sin prefijo (anteriores a este formato) se verifican como BCrypt.
+ * upgradeEncoding es true para ellos, para los de otro algoritmo y para los
+ * que el motor actual considera desactualizados, así que AuthService los
+ * migra en el próximo login exitoso.
+ */
+public final class PasswordHashEngines {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2ID = "argon2id";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private PasswordHashEngines() {}
+
+    /**
+     * Argon2id con memoria en KiB, iteraciones y paralelismo configurables.
+     */
+    public static PasswordEncoder argon2id(int memoryKib, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    /**
+     * PBKDF2 con HMAC-SHA256, sin secreto global.
+     */
+    public static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Encoder que hashea con engine y verifica con cualquiera de los tres.
+     *
+     * @throws IllegalArgumentException si engine no es bcrypt, argon2id ni pbkdf2
+     */
+    public static DelegatingPasswordEncoder delegating(String engine, PasswordEncoder bcrypt,
+                                                       PasswordEncoder argon2id, PasswordEncoder pbkdf2) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2ID, argon2id);
+        encoders.put(PBKDF2, pbkdf2);
+        if (!encoders.containsKey(engine)) {
+            throw new IllegalArgumentException("Motor de hash desconocido: " + engine);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(engine, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool dedicado para el trabajo de BCrypt, con tantos hilos como cores y una
+ * cola acotada. Si la cola está llena la tarea se rechaza de inmediato con
+ * HashingOverloadedException en lugar de acumular latencia en los hilos de
+ * Tomcat.
+ */
+public class PasswordHashingExecutor implements Closeable {
+
+    private final ThreadPoolExecutor pool;
+    private final int retryAfterSeconds;
+    private final Timer queueWait;
+    private final Timer hashTime;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, int retryAfterSeconds, MeterRegistry registry) {
+        this(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()), retryAfterSeconds, registry);
+        Gauge.builder("auth.hashing.queue.depth", pool, p -> p.getQueue().size()).register(registry);
+        Gauge.builder("auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    private PasswordHashingExecutor(ThreadPoolExecutor pool, int retryAfterSeconds, MeterRegistry registry) {
+        this.pool = pool;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queueWait = Timer.builder("auth.hashing.queue.wait")
+                .description("Tiempo que una tarea de hashing espera en la cola")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        this.hashTime = Timer.builder("auth.hashing.duration")
+                .description("Tiempo de CPU de cada tarea de hashing, sin la espera en cola")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Tareas de hashing rechazadas por cola llena")
+                .register(registry);
+    }
+
+    /**
+     * Pool sin hilos propios: ejecuta en el hilo que llama. Útil para tests y
+     * para crear un AuthService fuera de Spring.
+     */
+    public static PasswordHashingExecutor inline() {
+        return new PasswordHashingExecutor(null, 1, new SimpleMeterRegistry());
+    }
+
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Ejecuta la tarea en el pool y espera su resultado.
+     *
+     * @throws HashingOverloadedException si la cola está llena
+     */
+    public <T> T execute(Callable<T> task) {
+        if (pool == null) {
+            return call(task);
+        }
+        Future<T> future;
+        try {
+            future = pool.submit(instrumented(task, System.nanoTime()));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingOverloadedException(retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el hashing", e);
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Encola la tarea sin esperarla: el future se completa en el hilo del
+     * pool, así que quien llama no queda bloqueado mientras corre el hash.
+     *
+     * @return future que falla con HashingOverloadedException si la cola está llena
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        if (pool == null) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Callable<T> timed = instrumented(task, System.nanoTime());
+        try {
+            pool.execute(() -> {
+                try {
+                    result.complete(timed.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new HashingOverloadedException(retryAfterSeconds));
+        }
+        return result;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int getThreads() {
+        return pool != null ? pool.getMaximumPoolSize() : 1;
+    }
+
+    public int getQueueDepth() {
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> Callable<T> instrumented(Callable<T> task, long submitted) {
+        return () -> {
+            long started = System.nanoTime();
+            queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                return task.call();
+            } finally {
+                hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.sistemalogin.service;
+
+import com.example.sistemalogin.dto.ImportResult;
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.persistence.UserJournal;
+import com.example.sistemalogin.store.UserStore;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportación e importación de usuarios ya hasheados en NDJSON, una línea
+ * {"username":...,"hashedPassword":...} por usuario, para mover usuarios entre
+ * nodos sin re-hashear.
+ *
+ * Ambos sentidos usan el streaming de Jackson (JsonGenerator / JsonParser)
+ * sin armar objetos intermedios, así que la memoria es constante salvo el
+ * lote de importación.
+ */
+@Service
+public class UserTransferService {
+
+    static final String USERNAME_FIELD = "username";
+    static final String HASH_FIELD = "hashedPassword";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+
+    private final UserStore users;
+    private final JsonFactory jsonFactory;
+    private final int batchSize;
+
+    @Autowired
+    public UserTransferService(UserStore users, ObjectMapper objectMapper) {
+        this(users, objectMapper.getFactory(), 1024);
+    }
+
+    UserTransferService(UserStore users, JsonFactory jsonFactory, int batchSize) {
+        this.users = users;
+        this.jsonFactory = jsonFactory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Escribe todos los usuarios en out. El recorrido del store es débilmente
+     * consistente: los usuarios registrados durante la exportación pueden
+     * aparecer o no.
+     *
+     * @return cantidad de usuarios exportados
+     */
+    public long exportUsers(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long[] count = {0};
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffered)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try {
+                users.forEach(user -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeStringField(USERNAME_FIELD, user.getUsername());
+                        generator.writeStringField(HASH_FIELD, user.getHashedPassword());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        buffered.flush();
+        return count[0];
+    }
+
+    /**
+     * Lee usuarios en el formato de exportación y los inserta por lotes con
+     * putAllIfAbsent, sin pisar usuarios existentes. Los registros sin
+     * username, con un username que no entra en el journal (por sus bytes
+     * UTF-8) o con un hash que no tiene formato conocido se cuentan como
+     * inválidos y se saltean, sin afectar al resto del lote.
+     *
+     * @throws IOException si la entrada no es JSON válido; los registros
+     *         anteriores al error quedan importados
+     */
+    public ImportResult importUsers(InputStream in) throws IOException {
+        long imported = 0;
+        long skipped = 0;
+        long invalid = 0;
+        List<User> batch = new ArrayList<>(batchSize);
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Se esperaba un objeto JSON por línea");
+                }
+                User user = readUser(parser);
+                if (user == null) {
+                    invalid++;
+                    continue;
+                }
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    long inserted = insert(batch);
+                    imported += inserted;
+                    skipped += batch.size() - inserted;
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            insert(batch); // lo leído antes del error queda importado
+            throw e;
+        }
+        if (!batch.isEmpty()) {
+            long inserted = insert(batch);
+            imported += inserted;
+            skipped += batch.size() - inserted;
+        }
+        return new ImportResult(true, "Importación completa", imported, skipped, invalid);
+    }
+
+    private long insert(List<User> batch) {
+        long inserted = 0;
+        for (boolean b : users.putAllIfAbsent(batch)) {
+            if (b) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private static User readUser(JsonParser parser) throws IOException {
+        String username = null;
+        String hash = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (USERNAME_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                username = parser.getText();
+            } else if (HASH_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                hash = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (username == null || username.isBlank() || !UserJournal.fitsUsername(username) || !isKnownHash(hash)) {
+            return null;
+        }
+        return new User(username, hash);
+    }
+
+    /**
+     * Acepta hashes con prefijo de motor ({bcrypt}, {argon2id}, {pbkdf2}) y
+     * BCrypt sin prefijo; cualquier otra cosa (por ejemplo una contraseña en
+     * texto plano) se rechaza.
+     */
+    static boolean isKnownHash(String hash) {
+        if (hash == null || hash.isEmpty() || hash.length() > MAX_FIELD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if (c < 0x21 || c > 0x7E) {
+                return false;
+            }
+        }
+        return hash.startsWith("{" + PasswordHashEngines.BCRYPT + "}")
+                || hash.startsWith("{" + PasswordHashEngines.ARGON2ID + "}")
+                || hash.startsWith("{" + PasswordHashEngines.PBKDF2 + "}")
+                || hash.startsWith("$2");
+    }
+}
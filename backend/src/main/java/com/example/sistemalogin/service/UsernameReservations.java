@@ -0,0 +1,117 @@
+package com.example.sistemalogin.service;
+
+import com.example.sistemalogin.store.UsernameNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reservas de usernames con un alta en curso: el primer paso del registro,
+ * antes de gastar un hash. Reservar es un putIfAbsent sobre un mapa, así que
+ * un alta duplicada concurrente se rechaza en microsegundos en lugar de
+ * correr BCrypt para después perder el putIfAbsent del store.
+ *
+ * La reserva es por username normalizado (UsernameNormalizer), así "Ana" y
+ * "ana" compiten por la misma.
+ *
+ * Una reserva vence a los timeoutMillis: después de eso otra alta del mismo
+ * username puede tomarla, y la original ya no puede confirmarse.
+ */
+public class UsernameReservations {
+
+    private final long timeoutNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Reservation> pending = new ConcurrentHashMap<>();
+    private final Counter duplicates;
+    private final Counter rollbacks;
+
+    public UsernameReservations(long timeoutMillis, MeterRegistry registry) {
+        this(timeoutMillis, registry, System::nanoTime);
+    }
+
+    UsernameReservations(long timeoutMillis, MeterRegistry registry, LongSupplier clock) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.clock = clock;
+        this.duplicates = Counter.builder("auth.registration.duplicates")
+                .description("Altas rechazadas porque el username ya tenía un alta en curso")
+                .register(registry);
+        this.rollbacks = Counter.builder("auth.registration.rollbacks")
+                .description("Reservas liberadas sin confirmar el alta (error, vencimiento o duplicado)")
+                .register(registry);
+        Gauge.builder("auth.registration.pending", pending, ConcurrentHashMap::size)
+                .description("Altas reservadas esperando el hash")
+                .register(registry);
+    }
+
+    public static UsernameReservations withDefaults() {
+        return new UsernameReservations(10_000, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @return la reserva, o null si hay otra alta vigente del mismo username
+     */
+    public Reservation reserve(String username) {
+        long now = clock.getAsLong();
+        Reservation reservation = new Reservation(username, UsernameNormalizer.normalize(username), now + timeoutNanos);
+        Reservation current = pending.putIfAbsent(reservation.key, reservation);
+        if (current == null) {
+            return reservation;
+        }
+        if (current.isExpired(now) && pending.replace(reservation.key, current, reservation)) {
+            return reservation; // la anterior venció: ya no va a poder confirmar
+        }
+        duplicates.increment();
+        return null;
+    }
+
+    /**
+     * true si la reserva sigue siendo la vigente para su username y no venció.
+     */
+    public boolean isHeld(Reservation reservation) {
+        return !reservation.isExpired(clock.getAsLong()) && pending.get(reservation.key) == reservation;
+    }
+
+    /**
+     * Libera la reserva después de publicar el usuario en el store.
+     */
+    public void release(Reservation reservation) {
+        pending.remove(reservation.key, reservation);
+    }
+
+    /**
+     * Libera la reserva de un alta que no se confirmó.
+     */
+    public void rollback(Reservation reservation) {
+        rollbacks.increment();
+        pending.remove(reservation.key, reservation);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public static final class Reservation {
+        private final String username;
+        private final String key;
+        private final long deadline;
+
+        private Reservation(String username, String key, long deadline) {
+            this.username = username;
+            this.key = key;
+            this.deadline = deadline;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        boolean isExpired(long now) {
+            return now - deadline > 0;
+        }
+    }
+}
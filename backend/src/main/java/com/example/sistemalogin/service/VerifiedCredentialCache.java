@@ -0,0 +1,167 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache acotado de credenciales verificadas recientemente, para no repetir
+ * BCrypt cuando un cliente reenvía las mismas credenciales.
+ *
+ * La clave es un HMAC-SHA256 de (username, password) con una clave aleatoria
+ * del proceso, así que la contraseña nunca se guarda. Cada entrada recuerda el
+ * hash contra el que se verificó: si el hash del usuario cambia, la entrada
+ * deja de valer. Las entradas vencen a los ttl y, al superar maxEntries, se
+ * descartan las más antiguas. Un solo LinkedHashMap bajo un lock guarda las
+ * entradas y su orden, así una entrada borrada no deja rastro en el orden.
+ */
+public class VerifiedCredentialCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<CacheKey, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Counter evictions;
+
+    public VerifiedCredentialCache(boolean enabled, int maxEntries, long ttlMillis, MeterRegistry registry) {
+        this(enabled, maxEntries, ttlMillis, registry, System::nanoTime);
+    }
+
+    VerifiedCredentialCache(boolean enabled, int maxEntries, long ttlMillis, MeterRegistry registry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                if (size() > VerifiedCredentialCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("auth.credential.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("auth.credential.cache.misses", misses, LongAdder::sum).register(registry);
+        this.evictions = Counter.builder("auth.credential.cache.evictions").register(registry);
+        Gauge.builder("auth.credential.cache.size", this, VerifiedCredentialCache::size).register(registry);
+        Gauge.builder("auth.credential.cache.hit.ratio", this, VerifiedCredentialCache::hitRatio).register(registry);
+    }
+
+    public static VerifiedCredentialCache disabled() {
+        return new VerifiedCredentialCache(false, 0, 0, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * true si estas credenciales se verificaron contra este mismo hash hace
+     * menos de ttl.
+     */
+    public boolean isVerified(String username, String password, String hashedPassword) {
+        if (!enabled) {
+            return false;
+        }
+        CacheKey cacheKey = keyFor(username, password);
+        lock.lock();
+        try {
+            Entry entry = entries.get(cacheKey);
+            if (entry == null) {
+                misses.increment();
+                return false;
+            }
+            if (clock.getAsLong() - entry.expiresAt > 0 || !entry.hashedPassword.equals(hashedPassword)) {
+                entries.remove(cacheKey);
+                misses.increment();
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        hits.increment();
+        return true;
+    }
+
+    public void put(String username, String password, String hashedPassword) {
+        if (!enabled) {
+            return;
+        }
+        CacheKey cacheKey = keyFor(username, password);
+        Entry entry = new Entry(hashedPassword, clock.getAsLong() + ttlNanos);
+        lock.lock();
+        try {
+            // se vuelve a insertar para que cuente como la más reciente
+            entries.remove(cacheKey);
+            entries.put(cacheKey, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private CacheKey keyFor(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        ByteBuffer digest = ByteBuffer.wrap(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        return new CacheKey(digest.getLong(), digest.getLong());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+
+    // 128 bits del HMAC alcanzan como identificador y ocupan dos longs
+    private record CacheKey(long high, long low) {}
+
+    private record Entry(String hashedPassword, long expiresAt) {}
+}
@@ -0,0 +1,27 @@
+package com.example.sistemalogin.session;
+
+/**
+ * Sesión del lado del servidor. El id de 128 bits se guarda como dos long
+ * (no como String) y los enlaces prev/next la cuelgan de un slot de la rueda
+ * de expiración sin nodos extra, así que el costo por sesión es fijo.
+ */
+final class Session {
+
+    final long idHigh;
+    final long idLow;
+    final String username;
+    long expiresAt;
+
+    // Posición en la TimingWheel del shard
+    Session prev;
+    Session next;
+    int level = -1;
+    int slot;
+
+    Session(long idHigh, long idLow, String username, long expiresAt) {
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+}
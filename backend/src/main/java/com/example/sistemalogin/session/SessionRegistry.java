@@ -0,0 +1,340 @@
+package com.example.sistemalogin.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.Closeable;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de sesiones del lado del servidor, particionado por hash del id.
+ *
+ * Cada shard tiene su propio lock, una tabla de direccionamiento abierto de
+ * Session y una TimingWheel, así que crear, buscar y borrar solo compiten
+ * dentro del shard y la expiración no recorre la tabla: cada tick toma solo
+ * las sesiones que vencen en ese tick.
+ *
+ * Los ids son 128 bits aleatorios codificados en 22 caracteres base64url.
+ */
+public class SessionRegistry implements Closeable {
+
+    private static final int ID_LENGTH = 22;
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter created;
+    private final Counter expired;
+    private ScheduledExecutorService scheduler;
+
+    public SessionRegistry(int shards, long ttlMillis, long tickMillis, MeterRegistry registry) {
+        this(shards, ttlMillis, tickMillis, registry, System::currentTimeMillis);
+    }
+
+    SessionRegistry(int shards, long ttlMillis, long tickMillis, MeterRegistry registry, LongSupplier clock) {
+        int shardCount = Integer.highestOneBit(Math.max(1, shards - 1)) << 1;
+        this.shards = new Shard[shardCount];
+        this.shardMask = shardCount - 1;
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(new TimingWheel(tickMillis, now));
+        }
+        this.created = Counter.builder("auth.sessions.created").register(registry);
+        this.expired = Counter.builder("auth.sessions.expired").register(registry);
+        Gauge.builder("auth.sessions.active", this, SessionRegistry::size).register(registry);
+    }
+
+    /**
+     * Crea una sesión para el usuario y devuelve su id.
+     */
+    public String create(String username) {
+        long high = random.nextLong();
+        long low = random.nextLong();
+        Shard shard = shardFor(high, low);
+        shard.lock.lock();
+        try {
+            Session session = new Session(high, low, username, clock.getAsLong() + ttlMillis);
+            shard.insert(session);
+            shard.wheel.schedule(session);
+        } finally {
+            shard.lock.unlock();
+        }
+        created.increment();
+        return encode(high, low);
+    }
+
+    /**
+     * @return el username de la sesión, o null si no existe o ya venció
+     */
+    public String lookup(String sessionId) {
+        long[] id = decode(sessionId);
+        if (id == null) {
+            return null;
+        }
+        Shard shard = shardFor(id[0], id[1]);
+        shard.lock.lock();
+        try {
+            Session session = shard.find(id[0], id[1]);
+            return session != null && session.expiresAt > clock.getAsLong() ? session.username : null;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Extiende la sesión un ttl completo desde ahora.
+     */
+    public boolean touch(String sessionId) {
+        long[] id = decode(sessionId);
+        if (id == null) {
+            return false;
+        }
+        Shard shard = shardFor(id[0], id[1]);
+        shard.lock.lock();
+        try {
+            Session session = shard.find(id[0], id[1]);
+            long now = clock.getAsLong();
+            if (session == null || session.expiresAt <= now) {
+                return false;
+            }
+            shard.wheel.unlink(session);
+            session.expiresAt = now + ttlMillis;
+            shard.wheel.schedule(session);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public boolean remove(String sessionId) {
+        long[] id = decode(sessionId);
+        if (id == null) {
+            return false;
+        }
+        Shard shard = shardFor(id[0], id[1]);
+        shard.lock.lock();
+        try {
+            Session session = shard.find(id[0], id[1]);
+            if (session == null) {
+                return false;
+            }
+            shard.wheel.unlink(session);
+            shard.delete(session);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * Avanza las ruedas de todos los shards hasta ahora y borra las sesiones
+     * vencidas.
+     *
+     * @return cantidad de sesiones borradas
+     */
+    public int expire() {
+        long now = clock.getAsLong();
+        int total = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                total += shard.wheel.advance(now, shard::delete);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        expired.increment(total);
+        return total;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private Shard shardFor(long high, long low) {
+        return shards[(int) (mix(high, low) >>> 40) & shardMask];
+    }
+
+    static long mix(long high, long low) {
+        long h = high ^ Long.rotateLeft(low, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static String encode(long high, long low) {
+        char[] out = new char[ID_LENGTH];
+        // 128 bits en 22 grupos de 6 bits; el último grupo lleva 2 bits útiles
+        for (int i = 0; i < ID_LENGTH; i++) {
+            int bit = i * 6;
+            int value;
+            if (bit + 6 <= 64) {
+                value = (int) (high >>> (58 - bit)) & 0x3F;
+            } else if (bit < 64) {
+                int fromHigh = 64 - bit;
+                value = (int) ((high << (6 - fromHigh)) | (low >>> (58 + fromHigh))) & 0x3F;
+            } else if (bit + 6 <= 128) {
+                value = (int) (low >>> (122 - bit)) & 0x3F;
+            } else {
+                value = (int) (low << (bit + 6 - 128)) & 0x3F;
+            }
+            out[i] = ALPHABET[value];
+        }
+        return new String(out);
+    }
+
+    static long[] decode(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return null;
+            }
+            int bit = i * 6;
+            if (bit + 6 <= 64) {
+                high |= (long) value << (58 - bit);
+            } else if (bit < 64) {
+                int fromHigh = 64 - bit;
+                high |= (long) value >>> (6 - fromHigh);
+                low |= (long) value << (58 + fromHigh);
+            } else if (bit + 6 <= 128) {
+                low |= (long) value << (122 - bit);
+            } else {
+                if ((value & ((1 << (bit + 6 - 128)) - 1)) != 0) {
+                    return null; // bits de relleno distintos de cero
+                }
+                low |= (long) value >>> (bit + 6 - 128);
+            }
+        }
+        return new long[] {high, low};
+    }
+
+    /**
+     * Tabla de direccionamiento abierto con borrado por desplazamiento hacia
+     * atrás (sin tombstones), protegida por el lock del shard.
+     */
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TimingWheel wheel;
+        private Session[] table = new Session[64];
+        private volatile int size;
+
+        Shard(TimingWheel wheel) {
+            this.wheel = wheel;
+        }
+
+        Session find(long high, long low) {
+            int mask = table.length - 1;
+            int index = (int) mix(high, low) & mask;
+            Session session;
+            while ((session = table[index]) != null) {
+                if (session.idHigh == high && session.idLow == low) {
+                    return session;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void insert(Session session) {
+            if ((size + 1) * 4 > table.length * 3) {
+                resize();
+            }
+            place(table, session);
+            size++;
+        }
+
+        void delete(Session session) {
+            int mask = table.length - 1;
+            int index = (int) mix(session.idHigh, session.idLow) & mask;
+            while (table[index] != session) {
+                if (table[index] == null) {
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            table[index] = null;
+            size--;
+            int next = (index + 1) & mask;
+            while (table[next] != null) {
+                Session moved = table[next];
+                int home = (int) mix(moved.idHigh, moved.idLow) & mask;
+                // mover hacia atrás si el hueco está entre su posición ideal y la actual
+                if (((next - home) & mask) >= ((next - index) & mask)) {
+                    table[index] = moved;
+                    table[next] = null;
+                    index = next;
+                }
+                next = (next + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            Session[] bigger = new Session[table.length << 1];
+            for (Session session : table) {
+                if (session != null) {
+                    place(bigger, session);
+                }
+            }
+            table = bigger;
+        }
+
+        private static void place(Session[] table, Session session) {
+            int mask = table.length - 1;
+            int index = (int) mix(session.idHigh, session.idLow) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = session;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.sistemalogin.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica de 4 niveles x 64 slots. Con tick de 1 s cubre
+ * 64 s en el nivel 0, ~68 min en el 1, ~3 días en el 2 y ~194 días en el 3.
+ * Agendar y quitar son O(1); cada sesión baja de nivel como mucho 3 veces
+ * antes de vencer, así que el costo de expirar también es O(1) por sesión.
+ *
+ * No es thread-safe: cada shard del SessionRegistry la usa bajo su lock.
+ */
+final class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Session[][] heads = new Session[LEVELS][SLOTS];
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    void schedule(Session session) {
+        long deadlineTick = (session.expiresAt + tickMillis - 1) / tickMillis;
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            deadlineTick = currentTick + 1;
+            delta = 1;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        if (level == LEVELS - 1 && delta >= 1L << (SLOT_BITS * LEVELS)) {
+            // Más lejos que la rueda completa: se reagenda al bajar de nivel
+            deadlineTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        int slot = (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        session.level = level;
+        session.slot = slot;
+        session.prev = null;
+        session.next = heads[level][slot];
+        if (session.next != null) {
+            session.next.prev = session;
+        }
+        heads[level][slot] = session;
+    }
+
+    void unlink(Session session) {
+        if (session.level < 0) {
+            return;
+        }
+        if (session.prev != null) {
+            session.prev.next = session.next;
+        } else {
+            heads[session.level][session.slot] = session.next;
+        }
+        if (session.next != null) {
+            session.next.prev = session.prev;
+        }
+        session.prev = null;
+        session.next = null;
+        session.level = -1;
+    }
+
+    /**
+     * Avanza la rueda hasta nowMillis y entrega cada sesión vencida.
+     *
+     * @return cantidad de sesiones vencidas
+     */
+    int advance(long nowMillis, Consumer<Session> onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        int expired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            }
+            int slot = (int) (currentTick & SLOT_MASK);
+            Session session = heads[0][slot];
+            heads[0][slot] = null;
+            while (session != null) {
+                Session next = session.next;
+                session.prev = null;
+                session.next = null;
+                session.level = -1;
+                if (session.expiresAt <= nowMillis) {
+                    onExpired.accept(session);
+                    expired++;
+                } else {
+                    schedule(session);
+                }
+                session = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        Session session = heads[level][slot];
+        heads[level][slot] = null;
+        while (session != null) {
+            Session next = session.next;
+            session.level = -1;
+            schedule(session);
+            session = next;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Decorador que antepone un UsernameBloomFilter al motor: get y contains de
+ * usernames que nunca se registraron se responden desde el filtro sin tocar
+ * la tabla.
+ *
+ * Cada escritura marca el filtro antes de delegar, así que no hay ventana en
+ * la que el motor tenga un usuario que el filtro no conoce. Cuando la
+ * cantidad de usuarios supera la prevista, el filtro se reconstruye con el
+ * doble de capacidad; las escrituras toman el lock de lectura y la
+ * reconstrucción el de escritura para no perder inserciones concurrentes.
+ */
+public class BloomFilteredUserStore implements UserStore {
+
+    private final UserStore delegate;
+    private final int bitsPerKey;
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile UsernameBloomFilter filter;
+
+    public BloomFilteredUserStore(UserStore delegate, int expectedUsers, int bitsPerKey) {
+        this.delegate = delegate;
+        this.bitsPerKey = bitsPerKey;
+        UsernameBloomFilter initial = new UsernameBloomFilter(Math.max(expectedUsers, delegate.size()), bitsPerKey);
+        delegate.forEach(user -> initial.add(user.getUsername()));
+        this.filter = initial;
+    }
+
+    @Override
+    public User get(String username) {
+        if (!filter.mightContain(username)) {
+            negatives.increment();
+            return null;
+        }
+        User user = delegate.get(username);
+        if (user == null) {
+            falsePositives.increment();
+        }
+        return user;
+    }
+
+    @Override
+    public boolean contains(String username) {
+        if (!filter.mightContain(username)) {
+            negatives.increment();
+            return false;
+        }
+        boolean contains = delegate.contains(username);
+        if (!contains) {
+            falsePositives.increment();
+        }
+        return contains;
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        boolean inserted;
+        resizeLock.readLock().lock();
+        try {
+            filter.add(user.getUsername());
+            inserted = delegate.putIfAbsent(user);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        growIfNeeded();
+        return inserted;
+    }
+
+    @Override
+    public boolean[] putAllIfAbsent(List<User> batch) {
+        boolean[] inserted;
+        resizeLock.readLock().lock();
+        try {
+            UsernameBloomFilter current = filter;
+            for (User user : batch) {
+                current.add(user.getUsername());
+            }
+            inserted = delegate.putAllIfAbsent(batch);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        growIfNeeded();
+        return inserted;
+    }
+
+    @Override
+    public void put(User user) {
+        resizeLock.readLock().lock();
+        try {
+            filter.add(user.getUsername());
+            delegate.put(user);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        growIfNeeded();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return delegate.memoryBytes() + filter.memoryBytes();
+    }
+
+    /**
+     * Consultas de usernames inexistentes resueltas sin tocar el motor.
+     */
+    public long getNegativeLookups() {
+        return negatives.sum();
+    }
+
+    /**
+     * Consultas que el filtro dejó pasar y el motor no encontró.
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    private void growIfNeeded() {
+        if (delegate.size() <= filter.getExpectedKeys()) {
+            return;
+        }
+        resizeLock.writeLock().lock();
+        try {
+            int size = delegate.size();
+            if (size <= filter.getExpectedKeys()) {
+                return; // otro hilo ya lo reconstruyó
+            }
+            UsernameBloomFilter bigger = new UsernameBloomFilter(
+                    (int) Math.min(Integer.MAX_VALUE / bitsPerKey, 2L * size), bitsPerKey);
+            delegate.forEach(user -> bigger.add(user.getUsername()));
+            filter = bigger;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+}
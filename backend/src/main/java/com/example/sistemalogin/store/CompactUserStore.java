@@ -0,0 +1,410 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Motor compacto para millones de cuentas. En lugar de un User y dos String por
+ * cuenta guarda username y hash en un arena de byte[] (solo se agregan datos) y
+ * los indexa con una tabla de direccionamiento abierto de int[].
+ *
+ * Formato de cada registro (alineado a 4 bytes):
+ * [flags:1][largo username en chars:2][username][largo hash:2][hash]
+ * El username va en Latin-1 si todos sus chars caben en un byte, si no en UTF-16.
+ * El hash siempre es ASCII (BCrypt usa 60 bytes, 68 con el prefijo {bcrypt}).
+ *
+ * Las búsquedas leen con StampedLock optimista y no crean objetos salvo el User
+ * devuelto por get; contains no asigna memoria.
+ */
+public class CompactUserStore implements UserStore {
+
+    private static final int CHUNK_SHIFT = 22; // 4 MiB por chunk
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FLAG_UTF16 = 1;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+    private static final int NOT_FOUND = 0;
+
+    private final StampedLock lock = new StampedLock();
+
+    // ref = (dirección >>> 2) + 1; 0 marca un slot vacío
+    private int[] refs;
+    private int[] hashes;
+    private byte[][] chunks = new byte[0][];
+    private long writeAddress;
+    private int size;
+    private long garbageBytes;
+
+    public CompactUserStore() {
+        this(1024);
+    }
+
+    public CompactUserStore(int expectedUsers) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.min(1 << 30, expectedUsers * 4L / 3)) - 1) << 1;
+        this.refs = new int[capacity];
+        this.hashes = new int[capacity];
+    }
+
+    @Override
+    public User get(String username) {
+        int hash = spread(username.hashCode());
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            String hashedPassword;
+            try {
+                hashedPassword = readHash(find(username, hash));
+            } catch (RuntimeException tornRead) {
+                hashedPassword = null;
+            }
+            if (lock.validate(stamp)) {
+                return hashedPassword != null ? new User(username, hashedPassword) : null;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            String hashedPassword = readHash(find(username, hash));
+            return hashedPassword != null ? new User(username, hashedPassword) : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(String username) {
+        int hash = spread(username.hashCode());
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int ref;
+            try {
+                ref = find(username, hash);
+            } catch (RuntimeException tornRead) {
+                ref = NOT_FOUND;
+            }
+            if (lock.validate(stamp)) {
+                return ref != NOT_FOUND;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(username, hash) != NOT_FOUND;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        String username = user.getUsername();
+        int hash = spread(username.hashCode());
+        long stamp = lock.writeLock();
+        try {
+            if (find(username, hash) != NOT_FOUND) {
+                return false;
+            }
+            insert(hash, append(username, user.getHashedPassword()));
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Toma el lock de escritura una sola vez para todo el lote.
+     */
+    @Override
+    public boolean[] putAllIfAbsent(List<User> batch) {
+        boolean[] inserted = new boolean[batch.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < inserted.length; i++) {
+                User user = batch.get(i);
+                String username = user.getUsername();
+                int hash = spread(username.hashCode());
+                if (find(username, hash) == NOT_FOUND) {
+                    insert(hash, append(username, user.getHashedPassword()));
+                    inserted[i] = true;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return inserted;
+    }
+
+    @Override
+    public void put(User user) {
+        String username = user.getUsername();
+        int hash = spread(username.hashCode());
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(username, hash);
+            int ref = append(username, user.getHashedPassword());
+            if (slot >= 0) {
+                garbageBytes += recordLength(refs[slot]);
+                refs[slot] = ref;
+            } else {
+                insert(hash, ref);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Recorre una copia de la tabla tomada bajo el lock de lectura; el recorrido
+     * en sí no bloquea escritores porque el arena nunca se sobrescribe.
+     */
+    @Override
+    public void forEach(Consumer<User> action) {
+        int[] snapshot;
+        byte[][] chunksSnapshot;
+        long stamp = lock.readLock();
+        try {
+            snapshot = refs.clone();
+            chunksSnapshot = chunks.clone();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int ref : snapshot) {
+            if (ref != NOT_FOUND) {
+                action.accept(readUser(chunksSnapshot, ref));
+            }
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return 2L * 4 * refs.length + (long) chunks.length * CHUNK_SIZE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes del arena ocupados por registros reemplazados con put.
+     */
+    public long garbageBytes() {
+        long stamp = lock.readLock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int find(String username, int hash) {
+        int slot = findSlot(username, hash);
+        return slot >= 0 ? refs[slot] : NOT_FOUND;
+    }
+
+    private int findSlot(String username, int hash) {
+        int[] refs = this.refs;
+        int[] hashes = this.hashes;
+        int mask = refs.length - 1;
+        int slot = hash & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            int ref = refs[slot];
+            if (ref == NOT_FOUND) {
+                return -1;
+            }
+            if (hashes[slot] == hash && keyEquals(ref, username)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int ref, String username) {
+        long address = addressOf(ref);
+        byte[] chunk = chunks[(int) (address >>> CHUNK_SHIFT)];
+        int offset = (int) (address & CHUNK_MASK);
+        int flags = chunk[offset];
+        int length = readShort(chunk, offset + 1);
+        if (length != username.length()) {
+            return false;
+        }
+        int p = offset + 3;
+        if ((flags & FLAG_UTF16) == 0) {
+            for (int i = 0; i < length; i++) {
+                if ((chunk[p + i] & 0xFF) != username.charAt(i)) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                if ((char) readShort(chunk, p + 2 * i) != username.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private String readHash(int ref) {
+        if (ref == NOT_FOUND) {
+            return null;
+        }
+        long address = addressOf(ref);
+        byte[] chunk = chunks[(int) (address >>> CHUNK_SHIFT)];
+        int offset = (int) (address & CHUNK_MASK);
+        int p = hashOffset(chunk, offset);
+        return new String(chunk, p + 2, readShort(chunk, p), StandardCharsets.ISO_8859_1);
+    }
+
+    private static User readUser(byte[][] chunks, int ref) {
+        long address = addressOf(ref);
+        byte[] chunk = chunks[(int) (address >>> CHUNK_SHIFT)];
+        int offset = (int) (address & CHUNK_MASK);
+        int length = readShort(chunk, offset + 1);
+        String username;
+        if ((chunk[offset] & FLAG_UTF16) == 0) {
+            username = new String(chunk, offset + 3, length, StandardCharsets.ISO_8859_1);
+        } else {
+            username = new String(chunk, offset + 3, 2 * length, StandardCharsets.UTF_16BE);
+        }
+        int p = hashOffset(chunk, offset);
+        return new User(username, new String(chunk, p + 2, readShort(chunk, p), StandardCharsets.ISO_8859_1));
+    }
+
+    private static int hashOffset(byte[] chunk, int offset) {
+        int length = readShort(chunk, offset + 1);
+        return offset + 3 + ((chunk[offset] & FLAG_UTF16) == 0 ? length : 2 * length);
+    }
+
+    private int recordLength(int ref) {
+        long address = addressOf(ref);
+        byte[] chunk = chunks[(int) (address >>> CHUNK_SHIFT)];
+        int offset = (int) (address & CHUNK_MASK);
+        int p = hashOffset(chunk, offset);
+        return align(p + 2 + readShort(chunk, p) - offset);
+    }
+
+    private int append(String username, String hashedPassword) {
+        if (username.length() > MAX_FIELD_LENGTH || hashedPassword.length() > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Username o hash demasiado largo");
+        }
+        boolean latin1 = isLatin1(username);
+        int keyBytes = latin1 ? username.length() : 2 * username.length();
+        int length = align(3 + keyBytes + 2 + hashedPassword.length());
+
+        int chunkIndex = (int) (writeAddress >>> CHUNK_SHIFT);
+        int offset = (int) (writeAddress & CHUNK_MASK);
+        if (chunkIndex == chunks.length || offset + length > CHUNK_SIZE) {
+            if (chunkIndex < chunks.length) {
+                chunkIndex++;
+            }
+            offset = 0;
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            chunks[chunkIndex] = new byte[CHUNK_SIZE];
+        }
+        long address = ((long) chunkIndex << CHUNK_SHIFT) | offset;
+        if ((address >>> 2) + 1 > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Arena de usuarios lleno");
+        }
+
+        byte[] chunk = chunks[chunkIndex];
+        chunk[offset] = (byte) (latin1 ? 0 : FLAG_UTF16);
+        writeShort(chunk, offset + 1, username.length());
+        int p = offset + 3;
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (latin1) {
+                chunk[p++] = (byte) c;
+            } else {
+                writeShort(chunk, p, c);
+                p += 2;
+            }
+        }
+        writeShort(chunk, p, hashedPassword.length());
+        p += 2;
+        for (int i = 0; i < hashedPassword.length(); i++) {
+            char c = hashedPassword.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("El hash debe ser ASCII");
+            }
+            chunk[p++] = (byte) c;
+        }
+        writeAddress = address + length;
+        return (int) (address >>> 2) + 1;
+    }
+
+    private void insert(int hash, int ref) {
+        if ((size + 1) * 4L > refs.length * 3L) {
+            resize();
+        }
+        int mask = refs.length - 1;
+        int slot = hash & mask;
+        while (refs[slot] != NOT_FOUND) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        refs[slot] = ref;
+        size++;
+    }
+
+    private void resize() {
+        int[] newRefs = new int[refs.length << 1];
+        int[] newHashes = new int[newRefs.length];
+        int mask = newRefs.length - 1;
+        for (int i = 0; i < refs.length; i++) {
+            if (refs[i] != NOT_FOUND) {
+                int slot = hashes[i] & mask;
+                while (newRefs[slot] != NOT_FOUND) {
+                    slot = (slot + 1) & mask;
+                }
+                newRefs[slot] = refs[i];
+                newHashes[slot] = hashes[i];
+            }
+        }
+        refs = newRefs;
+        hashes = newHashes;
+    }
+
+    private static long addressOf(int ref) {
+        return ((long) ref - 1) << 2;
+    }
+
+    private static boolean isLatin1(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int align(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static int readShort(byte[] chunk, int p) {
+        return ((chunk[p] & 0xFF) << 8) | (chunk[p + 1] & 0xFF);
+    }
+
+    private static void writeShort(byte[] chunk, int p, int value) {
+        chunk[p] = (byte) (value >>> 8);
+        chunk[p + 1] = (byte) value;
+    }
+
+    private static int spread(int h) {
+        return (h ^ (h >>> 16)) * 0x9E3779B9;
+    }
+}
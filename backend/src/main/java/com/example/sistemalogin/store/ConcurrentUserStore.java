@@ -0,0 +1,77 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Motor en memoria por defecto. Las lecturas no toman locks y las escrituras
+ * se sincronizan por bin de ConcurrentHashMap, así que no se pierden registros
+ * cuando varios hilos de Tomcat escriben a la vez.
+ */
+public class ConcurrentUserStore implements UserStore {
+
+    // Node de ConcurrentHashMap + User + dos String con su byte[] + referencia en la tabla
+    private static final int ENTRY_OVERHEAD = 32 + 24 + 2 * (24 + 16) + 8;
+
+    private final ConcurrentHashMap<String, User> users;
+    private final LongAdder memoryBytes = new LongAdder();
+
+    public ConcurrentUserStore() {
+        this(16);
+    }
+
+    public ConcurrentUserStore(int initialCapacity) {
+        this.users = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    @Override
+    public User get(String username) {
+        return users.get(username);
+    }
+
+    @Override
+    public boolean contains(String username) {
+        return users.containsKey(username);
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        if (users.putIfAbsent(user.getUsername(), user) != null) {
+            return false;
+        }
+        memoryBytes.add(footprint(user));
+        return true;
+    }
+
+    @Override
+    public void put(User user) {
+        User previous = users.put(user.getUsername(), user);
+        memoryBytes.add(footprint(user) - (previous != null ? footprint(previous) : 0));
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        users.values().forEach(action);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return memoryBytes.sum();
+    }
+
+    private static long footprint(User user) {
+        return ENTRY_OVERHEAD + align(user.getUsername().length()) + align(user.getHashedPassword().length());
+    }
+
+    private static long align(int length) {
+        return (length + 7) & ~7L;
+    }
+}
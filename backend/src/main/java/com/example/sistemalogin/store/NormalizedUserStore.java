@@ -0,0 +1,163 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * UserStore que no distingue usernames equivalentes según UsernameNormalizer:
+ * "Ana" y "ana" son la misma cuenta. Cada usuario se guarda en el motor con
+ * el username con el que se registró y un UsernameIndex resuelve cualquier
+ * variante a ese username, en O(1). El índice se publica recién cuando el
+ * motor aceptó al usuario, así get y contains nunca ven un registro a medias.
+ *
+ * Al construirse carga en el índice lo que ya tiene el motor. Si usuarios
+ * guardados antes de normalizar colisionan, queda accesible el primero
+ * recorrido y se registra una advertencia; los demás siguen intactos en el
+ * motor (y en el journal, que va debajo), así que ninguna contraseña pisa a
+ * otra y se pueden resolver a mano.
+ */
+public class NormalizedUserStore implements UserStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(NormalizedUserStore.class);
+
+    private final UserStore delegate;
+    private final UsernameIndex index;
+
+    public NormalizedUserStore(UserStore delegate, UsernameIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+        long[] collisions = {0};
+        delegate.forEach(user -> {
+            String existing = index.claim(user.getUsername());
+            if (existing == null) {
+                index.publish(user.getUsername());
+            } else if (!existing.equals(user.getUsername())) {
+                collisions[0]++;
+            }
+        });
+        if (collisions[0] > 0) {
+            log.warn("{} usuarios guardados colisionan con otro al normalizar el username: se conservan "
+                    + "en el motor pero quedan inaccesibles", collisions[0]);
+        }
+    }
+
+    @Override
+    public User get(String username) {
+        String stored = index.resolve(username);
+        return stored == null ? null : delegate.get(stored);
+    }
+
+    @Override
+    public boolean contains(String username) {
+        return index.resolve(username) != null;
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        if (index.claim(user.getUsername()) != null) {
+            return false; // ya existe o se está registrando, con este username o una variante
+        }
+        boolean inserted;
+        try {
+            inserted = delegate.putIfAbsent(user);
+        } catch (RuntimeException e) {
+            index.release(user.getUsername());
+            throw e;
+        }
+        settle(user.getUsername(), inserted);
+        return inserted;
+    }
+
+    private void settle(String username, boolean inserted) {
+        if (inserted) {
+            index.publish(username);
+        } else {
+            index.release(username);
+        }
+    }
+
+    @Override
+    public boolean[] putAllIfAbsent(List<User> batch) {
+        boolean[] inserted = new boolean[batch.size()];
+        List<User> accepted = new ArrayList<>(batch.size());
+        List<Integer> positions = new ArrayList<>(batch.size());
+        List<String> claimed = new ArrayList<>(batch.size());
+        for (int i = 0; i < inserted.length; i++) {
+            String username = batch.get(i).getUsername();
+            if (index.claim(username) == null) {
+                claimed.add(username);
+                accepted.add(batch.get(i));
+                positions.add(i);
+            }
+        }
+        boolean[] delegated;
+        try {
+            delegated = delegate.putAllIfAbsent(accepted);
+        } catch (RuntimeException e) {
+            claimed.forEach(index::release);
+            throw e;
+        }
+        for (int i = 0; i < delegated.length; i++) {
+            settle(claimed.get(i), delegated[i]);
+            inserted[positions.get(i)] = delegated[i];
+        }
+        return inserted;
+    }
+
+    /**
+     * Reemplaza al usuario guardado bajo cualquier variante del username
+     * (por ejemplo el re-hash de un login con otras mayúsculas), o lo inserta.
+     */
+    @Override
+    public void put(User user) {
+        String existing = index.claim(user.getUsername());
+        if (existing == null || existing.equals(user.getUsername())) {
+            try {
+                delegate.put(user);
+            } catch (RuntimeException e) {
+                if (existing == null) {
+                    index.release(user.getUsername());
+                }
+                throw e;
+            }
+            if (existing == null) {
+                index.publish(user.getUsername());
+            }
+        } else {
+            delegate.put(new User(existing, user.getHashedPassword()));
+        }
+    }
+
+    public UserStore getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return delegate.memoryBytes() + index.memoryBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Almacenamiento de usuarios usado por AuthService.
+ * Las implementaciones deben ser seguras para acceso concurrente.
+ */
+public interface UserStore {
+
+    User get(String username);
+
+    boolean contains(String username);
+
+    /**
+     * Inserta el usuario solo si no existe otro con el mismo username.
+     * La comprobación y la inserción son una única operación atómica.
+     */
+    boolean putIfAbsent(User user);
+
+    /**
+     * putIfAbsent para cada usuario del lote. Cada inserción es atómica por
+     * separado; el lote no es transaccional.
+     *
+     * @return por posición, true si ese usuario se insertó
+     */
+    default boolean[] putAllIfAbsent(List<User> batch) {
+        boolean[] inserted = new boolean[batch.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = putIfAbsent(batch.get(i));
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserta o reemplaza el usuario.
+     */
+    void put(User user);
+
+    int size();
+
+    void forEach(Consumer<User> action);
+
+    /**
+     * Estimación de los bytes de heap retenidos por el motor.
+     */
+    long memoryBytes();
+}
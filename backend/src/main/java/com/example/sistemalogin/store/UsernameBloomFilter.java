@@ -0,0 +1,89 @@
+package com.example.sistemalogin.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de usernames: mightContain nunca da falso negativo y, con
+ * 10 bits por clave, da ~1% de falsos positivos mientras no se superen
+ * expectedKeys inserciones.
+ *
+ * Es un filtro por bloques: el hash elige un bloque de 512 bits (una línea
+ * de cache) y los k bits de la clave caen todos dentro de ese bloque, así que
+ * cada consulta cuesta un solo acceso a memoria en vez de k. Los bits se
+ * marcan con CAS sobre un AtomicLongArray; agregar y consultar no toman locks.
+ */
+public class UsernameBloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BLOCK_BITS = WORDS_PER_BLOCK * 64;
+
+    private final AtomicLongArray words;
+    private final int blockCount;
+    private final int hashCount;
+    private final int expectedKeys;
+
+    public UsernameBloomFilter(int expectedKeys, int bitsPerKey) {
+        long bits = Math.max(BLOCK_BITS, (long) expectedKeys * bitsPerKey);
+        this.blockCount = (int) Math.min((Integer.MAX_VALUE - 8) / WORDS_PER_BLOCK, (bits + BLOCK_BITS - 1) / BLOCK_BITS);
+        this.words = new AtomicLongArray(blockCount * WORDS_PER_BLOCK);
+        // k óptimo = bitsPorClave · ln 2
+        this.hashCount = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+        this.expectedKeys = expectedKeys;
+    }
+
+    public void add(String username) {
+        long hash = hash(username);
+        int base = block(hash);
+        int h2 = (int) hash | 1; // impar: los k bits recorren todo el bloque
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (i * h2 + (int) (hash >>> 32)) & (BLOCK_BITS - 1);
+            int word = base + (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @return false si el username seguro no se agregó
+     */
+    public boolean mightContain(String username) {
+        long hash = hash(username);
+        int base = block(hash);
+        int h2 = (int) hash | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (i * h2 + (int) (hash >>> 32)) & (BLOCK_BITS - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getExpectedKeys() {
+        return expectedKeys;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private int block(long hash) {
+        // multiplicar y quedarse con la parte alta reparte sin usar módulo
+        return (int) (((hash >>> 32) * blockCount) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    static long hash(String username) {
+        // parte de String.hashCode, que queda cacheado en el String y el motor
+        // usa igual, así que el filtro no vuelve a recorrer los chars
+        long h = username.hashCode() * 0x9e3779b97f4a7c15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
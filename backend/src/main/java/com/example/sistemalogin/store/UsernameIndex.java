@@ -0,0 +1,146 @@
+package com.example.sistemalogin.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de usernames por su forma normalizada (UsernameNormalizer) hacia
+ * el username tal como está guardado en el store.
+ *
+ * Dos estructuras con las mismas claves: un ConcurrentHashMap para la
+ * búsqueda exacta del login, O(1), y un ConcurrentSkipListMap ordenado para
+ * recorrer por prefijo, O(log n + k) por página y sin locks. Los Strings de
+ * clave y valor se comparten entre ambas.
+ *
+ * Un username pasa por dos pasos: claim lo reserva (nadie más puede tomar
+ * esa forma normalizada) y publish lo hace visible, una vez que está en el
+ * store; hasta entonces resolve y scan no lo ven. Cada paso, y release, se
+ * hace dentro de un compute sobre la clave del hash map, que es el que
+ * decide; el skip list se actualiza ahí mismo, así los dos no se
+ * desincronizan con operaciones concurrentes sobre la misma clave.
+ */
+public class UsernameIndex {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final ConcurrentHashMap<String, Entry> exact = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, String> sorted = new ConcurrentSkipListMap<>();
+
+    /**
+     * Reserva la forma normalizada del username si ningún otro username la
+     * tiene, publicado o reservado.
+     *
+     * @return null si lo reservó, o el username que ya tenía esa forma
+     *         normalizada (puede ser el mismo)
+     */
+    public String claim(String username) {
+        String key = UsernameNormalizer.normalize(username);
+        String[] existing = {null};
+        exact.compute(key, (k, current) -> {
+            if (current != null) {
+                existing[0] = current.username();
+                return current;
+            }
+            return new Entry(username, false);
+        });
+        return existing[0];
+    }
+
+    /**
+     * Hace visible un claim cuando el usuario ya llegó al store.
+     */
+    public void publish(String username) {
+        exact.computeIfPresent(UsernameNormalizer.normalize(username), (key, current) -> {
+            if (current.published() || !current.username().equals(username)) {
+                return current;
+            }
+            sorted.put(key, username);
+            return new Entry(username, true);
+        });
+    }
+
+    /**
+     * Deshace un claim que no llegó al store. Uno ya publicado no se libera.
+     */
+    public void release(String username) {
+        exact.computeIfPresent(UsernameNormalizer.normalize(username),
+                (key, current) -> current.published() || !current.username().equals(username) ? current : null);
+    }
+
+    /**
+     * @return el username guardado equivalente a este, o null
+     */
+    public String resolve(String username) {
+        Entry entry = exact.get(UsernameNormalizer.normalize(username));
+        return entry == null || !entry.published() ? null : entry.username();
+    }
+
+    /**
+     * Una página de usernames cuya forma normalizada empieza con prefix, en
+     * orden. after es el cursor devuelto por la página anterior (null para
+     * la primera).
+     */
+    public Page scan(String prefix, String after, int limit) {
+        String normalizedPrefix = UsernameNormalizer.normalize(prefix);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Map<String, String> tail = after == null || after.compareTo(normalizedPrefix) < 0
+                ? sorted.tailMap(normalizedPrefix, true)
+                : sorted.tailMap(after, false);
+        List<String> usernames = new ArrayList<>(Math.min(pageSize, 64));
+        String last = null;
+        for (Map.Entry<String, String> entry : tail.entrySet()) {
+            if (!entry.getKey().startsWith(normalizedPrefix)) {
+                return new Page(usernames, null);
+            }
+            if (usernames.size() == pageSize) {
+                return new Page(usernames, last); // hay al menos uno más
+            }
+            usernames.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page(usernames, null);
+    }
+
+    /**
+     * Cantidad de usernames, contando los reservados que todavía no se
+     * publicaron.
+     */
+    public int size() {
+        return exact.size();
+    }
+
+    /**
+     * Estimación: nodo del hash map (~32 bytes) y su Entry (~24), nodo del
+     * skip list más su parte de los niveles (~40) y la clave normalizada si
+     * difiere del username (no contada).
+     */
+    public long memoryBytes() {
+        return 96L * exact.size();
+    }
+
+    public static final class Page {
+        private final List<String> usernames;
+        private final String next;
+
+        Page(List<String> usernames, String next) {
+            this.usernames = usernames;
+            this.next = next;
+        }
+
+        public List<String> getUsernames() {
+            return usernames;
+        }
+
+        /**
+         * Cursor para pedir la página siguiente, o null si esta es la última.
+         */
+        public String getNext() {
+            return next;
+        }
+    }
+
+    private record Entry(String username, boolean published) {}
+}
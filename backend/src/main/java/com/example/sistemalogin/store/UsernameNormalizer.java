@@ -0,0 +1,35 @@
+package com.example.sistemalogin.store;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Forma canónica de un username para compararlo: NFKC más plegado de
+ * mayúsculas, así "Ana", "ANA" y "Ａｎａ" (ancho completo) son el mismo.
+ *
+ * Java no trae el plegado de Unicode (CaseFolding.txt); pasar a mayúsculas
+ * y después a minúsculas en Locale.ROOT cubre los casos que importan para
+ * usernames (ß → ss, sigma final) y un segundo NFKC deja el resultado
+ * estable. Los usernames ASCII, la gran mayoría, van por un camino rápido
+ * que no reserva memoria si ya están en minúsculas.
+ */
+public final class UsernameNormalizer {
+
+    private UsernameNormalizer() {
+    }
+
+    public static String normalize(String username) {
+        boolean upper = false;
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (c >= 0x80) {
+                String folded = Normalizer.normalize(username, Normalizer.Form.NFKC)
+                        .toUpperCase(Locale.ROOT)
+                        .toLowerCase(Locale.ROOT);
+                return Normalizer.normalize(folded, Normalizer.Form.NFKC);
+            }
+            upper |= c >= 'A' && c <= 'Z';
+        }
+        return upper ? username.toLowerCase(Locale.ROOT) : username;
+    }
+}
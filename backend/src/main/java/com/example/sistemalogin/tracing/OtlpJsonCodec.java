@@ -0,0 +1,134 @@
+package com.example.sistemalogin.tracing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Codificación OTLP/JSON de las trazas: cada lote es un
+ * ExportTraceServiceRequest en una línea, el formato que escribe el
+ * exportador file del OpenTelemetry Collector y que lee su receptor
+ * otlpjsonfile. Ids en hexadecimal y tiempos en nanosegundos desde epoch
+ * como strings, según el mapeo JSON de OTLP.
+ */
+public final class OtlpJsonCodec {
+
+    static final String SERVICE_NAME = "sistema-login";
+    static final String SCOPE_NAME = "com.example.sistemalogin";
+
+    // SpanKind y StatusCode de OTLP
+    private static final int KIND_INTERNAL = 1;
+    private static final int KIND_SERVER = 2;
+    private static final int STATUS_ERROR = 2;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private OtlpJsonCodec() {
+    }
+
+    public static void write(List<RequestTrace> traces, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("resourceSpans");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("resource");
+            generator.writeArrayFieldStart("attributes");
+            writeAttribute(generator, "service.name", SERVICE_NAME);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("scopeSpans");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("scope");
+            generator.writeStringField("name", SCOPE_NAME);
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("spans");
+            for (RequestTrace trace : traces) {
+                writeTrace(generator, trace);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void writeTrace(JsonGenerator generator, RequestTrace trace) throws IOException {
+        String rootId = newSpanId();
+        generator.writeStartObject();
+        writeIds(generator, trace.getTraceId(), rootId, trace.getParentSpanId());
+        generator.writeStringField("name", trace.getName());
+        generator.writeNumberField("kind", KIND_SERVER);
+        writeTimes(generator, trace.startEpochNanos(), trace.endEpochNanos());
+        generator.writeArrayFieldStart("attributes");
+        int space = trace.getName().indexOf(' ');
+        writeAttribute(generator, "http.request.method", trace.getName().substring(0, space));
+        writeAttribute(generator, "url.path", trace.getName().substring(space + 1));
+        generator.writeStartObject();
+        generator.writeStringField("key", "http.response.status_code");
+        generator.writeObjectFieldStart("value");
+        generator.writeStringField("intValue", Integer.toString(trace.getStatusCode()));
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("status");
+        if (trace.getStatusCode() >= 500) {
+            generator.writeNumberField("code", STATUS_ERROR);
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        for (int i = 0; i < trace.spanCount(); i++) {
+            generator.writeStartObject();
+            writeIds(generator, trace.getTraceId(), newSpanId(), rootId);
+            generator.writeStringField("name", trace.spanName(i));
+            generator.writeNumberField("kind", KIND_INTERNAL);
+            writeTimes(generator, trace.spanStartEpochNanos(i), trace.spanEndEpochNanos(i));
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeIds(JsonGenerator generator, String traceId, String spanId, String parentSpanId)
+            throws IOException {
+        generator.writeStringField("traceId", traceId);
+        generator.writeStringField("spanId", spanId);
+        if (parentSpanId != null) {
+            generator.writeStringField("parentSpanId", parentSpanId);
+        }
+    }
+
+    private static void writeTimes(JsonGenerator generator, long start, long end) throws IOException {
+        generator.writeStringField("startTimeUnixNano", Long.toString(start));
+        generator.writeStringField("endTimeUnixNano", Long.toString(end));
+    }
+
+    private static void writeAttribute(JsonGenerator generator, String key, String value) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", key);
+        generator.writeObjectFieldStart("value");
+        generator.writeStringField("stringValue", value);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong()) + hex(random.nextLong() | 1);
+    }
+
+    static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong() | 1); // el id todo en cero es inválido
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.sistemalogin.tracing;
+
+/**
+ * Traza de un request: un span raíz y las fases medidas adentro (JSON,
+ * límite de intentos, búsqueda del usuario, cola y hash), como spans hijos.
+ *
+ * La traza del request en curso se publica en un ThreadLocal mientras corre
+ * el filtro; el código que pasa trabajo a otro hilo (el pool de hashing) la
+ * toma antes con current() y la lleva consigo. Los requests no muestreados
+ * ven NOOP: todos los métodos vuelven enseguida sin leer el reloj ni
+ * reservar memoria, así que instrumentar no cuesta nada fuera de la muestra.
+ */
+public final class RequestTrace {
+
+    static final int MAX_SPANS = 32;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    static final RequestTrace NOOP = new RequestTrace();
+
+    private final boolean sampled;
+    private final String name;
+    private final String traceId;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final String[] names;
+    private final long[] starts;
+    private final long[] ends;
+    private int count;
+    private long endNanos;
+    private int statusCode;
+
+    private RequestTrace() {
+        this.sampled = false;
+        this.name = null;
+        this.traceId = null;
+        this.parentSpanId = null;
+        this.startEpochNanos = 0;
+        this.startNanos = 0;
+        this.names = null;
+        this.starts = null;
+        this.ends = null;
+    }
+
+    RequestTrace(String name, String traceId, String parentSpanId, long startEpochNanos, long startNanos) {
+        this.sampled = true;
+        this.name = name;
+        this.traceId = traceId;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = startEpochNanos;
+        this.startNanos = startNanos;
+        this.names = new String[MAX_SPANS];
+        this.starts = new long[MAX_SPANS];
+        this.ends = new long[MAX_SPANS];
+    }
+
+    /**
+     * @return la traza del request que atiende este hilo, o NOOP
+     */
+    public static RequestTrace current() {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? NOOP : trace;
+    }
+
+    static void bind(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return el instante de inicio de una fase, o 0 si no se muestrea
+     */
+    public long start() {
+        return sampled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Cierra la fase name iniciada en startNanos (de start()).
+     */
+    public void end(String name, long startNanos) {
+        if (sampled) {
+            add(name, startNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Registra una fase ya medida, por ejemplo la espera en la cola del
+     * pool, que empieza en un hilo y termina en otro.
+     */
+    public void span(String name, long startNanos, long endNanos) {
+        if (sampled) {
+            add(name, startNanos, endNanos);
+        }
+    }
+
+    /**
+     * Abre una fase que se cierra con close(name) o, si no, al terminar el
+     * request: para lo que empieza y termina en métodos distintos.
+     */
+    public void open(String name) {
+        if (sampled) {
+            add(name, System.nanoTime(), 0);
+        }
+    }
+
+    /**
+     * Cierra la última fase abierta con open(name).
+     */
+    public void close(String name) {
+        if (sampled) {
+            closeOpen(name, System.nanoTime());
+        }
+    }
+
+    private synchronized void closeOpen(String name, long now) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (ends[i] == 0 && names[i].equals(name)) {
+                ends[i] = now;
+                return;
+            }
+        }
+    }
+
+    synchronized void finish(int statusCode) {
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (ends[i] == 0) {
+                ends[i] = now;
+            }
+        }
+        this.endNanos = now;
+        this.statusCode = statusCode;
+    }
+
+    private synchronized void add(String name, long startNanos, long endNanos) {
+        if (this.endNanos != 0 || count == MAX_SPANS) {
+            return; // el request ya respondió: la fase llegó tarde
+        }
+        names[count] = name;
+        starts[count] = startNanos;
+        ends[count] = endNanos;
+        count++;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getTraceId() {
+        return traceId;
+    }
+
+    String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return toEpoch(endNanos);
+    }
+
+    int spanCount() {
+        return count;
+    }
+
+    String spanName(int i) {
+        return names[i];
+    }
+
+    long spanStartEpochNanos(int i) {
+        return toEpoch(starts[i]);
+    }
+
+    long spanEndEpochNanos(int i) {
+        return toEpoch(ends[i]);
+    }
+
+    private long toEpoch(long nanos) {
+        return startEpochNanos + (nanos - startNanos);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.sistemalogin.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Muestreo y exportación de las trazas de request.
+ *
+ * Se traza una fracción sampleRate de los requests, decidida al empezar
+ * cada uno, salvo que llegue un traceparent (W3C Trace Context): ahí la
+ * traza se cuelga del span del llamador y se respeta su decisión. Como el
+ * header lo manda cualquier cliente, un "sampled" entrante solo fuerza la
+ * traza hasta maxForcedPerSecond por segundo; pasado ese cupo se decide con
+ * sampleRate como cualquier otro request.
+ *
+ * Las trazas terminadas pasan por una cola acotada a un hilo que las escribe
+ * en OTLP/JSON (OtlpJsonCodec); si la cola está llena la traza se descarta,
+ * así el request nunca espera al disco. Cuando el archivo llega a
+ * maxFileBytes (se revisa al final de cada lote) se renombra a file.1,
+ * pisando el anterior, y se empieza uno nuevo: en disco hay como mucho dos.
+ */
+public class RequestTracer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTracer.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final Pattern TRACEPARENT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    private final double sampleRate;
+    private final int maxForcedPerSecond;
+    private final BlockingQueue<RequestTrace> queue;
+    private final Path file;
+    private final long maxFileBytes;
+    private OutputStream out; // solo lo toca el hilo writer, y close() después de él
+    private final AtomicLong forcedSecond = new AtomicLong(-1);
+    private final AtomicInteger forcedInSecond = new AtomicInteger();
+    private final Counter sampled;
+    private final Counter forcedLimited;
+    private final Counter dropped;
+    private final Counter exported;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public RequestTracer(Path file, double sampleRate, int maxForcedPerSecond, int queueCapacity,
+                         long maxFileBytes, MeterRegistry registry) throws IOException {
+        this(file, maxFileBytes, open(createParent(file)), sampleRate, maxForcedPerSecond, queueCapacity, registry);
+    }
+
+    RequestTracer(OutputStream out, double sampleRate, int maxForcedPerSecond, int queueCapacity, MeterRegistry registry) {
+        this(null, Long.MAX_VALUE, out, sampleRate, maxForcedPerSecond, queueCapacity, registry);
+    }
+
+    private RequestTracer(Path file, long maxFileBytes, OutputStream out, double sampleRate, int maxForcedPerSecond,
+                          int queueCapacity, MeterRegistry registry) {
+        this.sampleRate = sampleRate;
+        this.maxForcedPerSecond = maxForcedPerSecond;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.out = out == null ? null : new BufferedOutputStream(out, 64 * 1024);
+        this.sampled = Counter.builder("auth.tracing.sampled")
+                .description("Requests trazados")
+                .register(registry);
+        this.forcedLimited = Counter.builder("auth.tracing.forced.limited")
+                .description("traceparent muestreados que superaron el cupo por segundo")
+                .register(registry);
+        this.dropped = Counter.builder("auth.tracing.dropped")
+                .description("Trazas descartadas por cola de exportación llena o error de escritura")
+                .register(registry);
+        this.exported = Counter.builder("auth.tracing.exported")
+                .description("Trazas escritas")
+                .register(registry);
+        Gauge.builder("auth.tracing.pending", queue, BlockingQueue::size)
+                .description("Trazas esperando ser escritas")
+                .register(registry);
+        if (this.out == null) {
+            this.writer = null;
+            return;
+        }
+        this.writer = new Thread(this::run, "request-tracer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static RequestTracer disabled() {
+        return new RequestTracer((OutputStream) null, 0, 0, 1, new SimpleMeterRegistry());
+    }
+
+    private static OutputStream open(Path file) throws IOException {
+        return Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static Path createParent(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return file;
+    }
+
+    /**
+     * Decide si trazar el request y, si sí, empieza su traza.
+     *
+     * @param traceparent el header traceparent del request, o null
+     * @return la traza, o RequestTrace.NOOP si no se muestrea
+     */
+    public RequestTrace begin(String method, String path, String traceparent) {
+        if (writer == null) {
+            return RequestTrace.NOOP;
+        }
+        String traceId;
+        String parentSpanId;
+        if (traceparent != null && TRACEPARENT.matcher(traceparent).matches()
+                && !traceparent.startsWith("00000000000000000000000000000000", 3)) {
+            if ((Character.digit(traceparent.charAt(54), 16) & 1) == 0) {
+                return RequestTrace.NOOP; // el llamador no la muestrea
+            }
+            if (!admitForced()) {
+                forcedLimited.increment();
+                if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                    return RequestTrace.NOOP;
+                }
+            }
+            traceId = traceparent.substring(3, 35);
+            parentSpanId = traceparent.substring(36, 52);
+        } else if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            traceId = OtlpJsonCodec.newTraceId();
+            parentSpanId = null;
+        } else {
+            return RequestTrace.NOOP;
+        }
+        sampled.increment();
+        Instant now = Instant.now();
+        return new RequestTrace(method + " " + path, traceId, parentSpanId,
+                TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano(), System.nanoTime());
+    }
+
+    /**
+     * Cupo de trazas forzadas por traceparent en el segundo actual. Es
+     * aproximado: en el cambio de segundo se puede colar alguna de más.
+     */
+    private boolean admitForced() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long previous = forcedSecond.get();
+        if (previous != second && forcedSecond.compareAndSet(previous, second)) {
+            forcedInSecond.set(0);
+        }
+        return forcedInSecond.incrementAndGet() <= maxForcedPerSecond;
+    }
+
+    /**
+     * Termina la traza con el status de la respuesta y la encola para
+     * escribirla.
+     */
+    public void finish(RequestTrace trace, int statusCode) {
+        if (!trace.isSampled()) {
+            return;
+        }
+        trace.finish(statusCode);
+        if (!queue.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<RequestTrace> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) { // al cerrar, termina de escribir lo encolado
+            try {
+                RequestTrace first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<RequestTrace> batch) {
+        try {
+            OtlpJsonCodec.write(batch, out);
+            if (queue.isEmpty() || file != null) {
+                out.flush();
+            }
+            exported.increment(batch.size());
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+            log.warn("No se pudieron escribir {} trazas: {}", batch.size(), e.getMessage());
+        }
+        if (file == null) {
+            return;
+        }
+        try {
+            if (Files.size(file) >= maxFileBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo rotar el archivo de trazas {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        out = new BufferedOutputStream(open(file), 64 * 1024);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.sistemalogin.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Abre la traza de cada request y la publica en RequestTrace.current()
+ * mientras lo atiende. Un request asíncrono se atiende en dos despachos: la
+ * traza queda en un atributo del request, se vuelve a publicar en el
+ * despacho que escribe la respuesta y termina ahí.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String ATTRIBUTE = RequestTrace.class.getName();
+    static final String TRACEPARENT = "traceparent";
+
+    private final RequestTracer tracer;
+
+    public TracingFilter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = (RequestTrace) request.getAttribute(ATTRIBUTE);
+        if (trace == null) {
+            if (isAsyncDispatch(request)) {
+                filterChain.doFilter(request, response); // no se muestreó al empezar
+                return;
+            }
+            trace = tracer.begin(request.getMethod(), request.getRequestURI(), request.getHeader(TRACEPARENT));
+            if (!trace.isSampled()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            request.setAttribute(ATTRIBUTE, trace);
+        }
+        RequestTrace.bind(trace);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.unbind();
+            if (!request.isAsyncStarted()) {
+                tracer.finish(trace, response.getStatus());
+            }
+        }
+    }
+}
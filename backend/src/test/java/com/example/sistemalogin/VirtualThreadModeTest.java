@@ -0,0 +1,56 @@
+package com.example.sistemalogin;
+
+import com.example.sistemalogin.dto.AuthResponse;
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadModeTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Tomcat debería atender con hilos virtuales cuando el modo está activo")
+    void shouldServeRequestsOnVirtualThreads() {
+        // Given
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+        // When
+        String executor = connector.getProtocolHandler().getExecutor().getClass().getSimpleName();
+
+        // Then
+        assertEquals("VirtualThreadExecutor", executor);
+    }
+
+    @Test
+    @DisplayName("Flujo registro -> login debería funcionar en modo hilos virtuales")
+    void shouldRegisterAndLoginOnVirtualThreads() {
+        // Given
+        Map<String, String> body = Map.of("username", "virtual@example.com", "password", "password123");
+
+        // When
+        ResponseEntity<AuthResponse> register = restTemplate.postForEntity("/api/register", body, AuthResponse.class);
+        ResponseEntity<AuthResponse> login = restTemplate.postForEntity("/api/login", body, AuthResponse.class);
+
+        // Then
+        assertTrue(register.getBody().isSuccess());
+        assertTrue(login.getBody().isSuccess());
+        assertEquals("Inicio de sesión exitoso", login.getBody().getMessage());
+    }
+}
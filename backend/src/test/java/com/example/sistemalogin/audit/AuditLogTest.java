@@ -0,0 +1,144 @@
+package com.example.sistemalogin.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<AuditEvent> readAll(Path dir) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        AuditLogReader.read(dir, events::add);
+        return events;
+    }
+
+    @Test
+    @DisplayName("Los eventos de varios hilos deberían escribirse todos, en el orden de cada hilo")
+    void shouldWriteEveryEventFromConcurrentProducers() throws Exception {
+        // Given - buffer chico: los productores esperan al escritor
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuditLog audit = new AuditLog(dir, 16, AuditLog.Policy.BLOCK, Long.MAX_VALUE, 10, registry);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String ip = "10.0.0." + t;
+            producers.add(executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    audit.record("login", "ok", "user" + i + "@example.com", ip);
+                }
+            }));
+        }
+        for (Future<?> producer : producers) {
+            producer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        audit.close();
+
+        // Then
+        List<AuditEvent> events = readAll(dir);
+        assertEquals(20_000, events.size());
+        int[] nextByProducer = new int[4];
+        for (AuditEvent event : events) {
+            int producer = event.getClientIp().charAt(event.getClientIp().length() - 1) - '0';
+            assertEquals("user" + nextByProducer[producer]++ + "@example.com", event.getUsername());
+        }
+        assertEquals(20_000, registry.get("auth.audit.written").counter().count());
+        assertEquals(0, registry.get("auth.audit.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Con la política drop y el escritor trabado, debería descartar sin bloquear al request")
+    void shouldDropWhenBufferIsFull() throws Exception {
+        // Given - el escritor queda trabado en el primer evento
+        CountDownLatch release = new CountDownLatch(1);
+        AuditFileWriter stalled = new AuditFileWriter(dir, Long.MAX_VALUE, 10) {
+            @Override
+            void write(AuditEvent event) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(event);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuditLog audit = new AuditLog(stalled, 8, AuditLog.Policy.DROP, registry, System::currentTimeMillis);
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            audit.record("register", "ok", "user" + i + "@example.com", "127.0.0.1");
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        audit.close();
+
+        // Then
+        assertTrue(elapsedMillis < 1_000, "record tardó " + elapsedMillis + " ms");
+        assertEquals(12, registry.get("auth.audit.dropped").counter().count());
+        List<AuditEvent> events = readAll(dir);
+        assertEquals(8, events.size());
+        assertEquals("user7@example.com", events.get(7).getUsername());
+    }
+
+    @Test
+    @DisplayName("Debería rotar por tamaño, conservar los archivos más nuevos y saltear una línea incompleta")
+    void shouldRotateAndKeepNewestFiles() throws Exception {
+        // Given
+        AuditLog audit = new AuditLog(new AuditFileWriter(dir, 200, 3), 1024, AuditLog.Policy.BLOCK,
+                new SimpleMeterRegistry(), () -> 1_760_000_000_000L);
+
+        // When - lotes separados para que cada uno pueda rotar
+        for (int i = 0; i < 20; i++) {
+            audit.record("login", "invalid_credentials", "user" + i + "@example.com", "127.0.0.1");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (audit.pending() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        audit.close();
+        List<Integer> files = AuditFileWriter.existingIndexes(dir);
+        Files.writeString(AuditFileWriter.fileName(dir, files.get(0)), "{\"ts\":1760000000000,\"event\":\"lo",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // Then
+        assertEquals(3, files.size());
+        List<AuditEvent> events = readAll(dir);
+        assertFalse(events.isEmpty());
+        assertTrue(events.size() < 20);
+        assertEquals("user19@example.com", events.get(events.size() - 1).getUsername());
+        for (int i = 1; i < events.size(); i++) {
+            int previous = Integer.parseInt(events.get(i - 1).getUsername().replaceAll("\\D", ""));
+            assertEquals(previous + 1, Integer.parseInt(events.get(i).getUsername().replaceAll("\\D", "")));
+        }
+        assertEquals(1_760_000_000_000L, events.get(0).getTimestamp());
+
+        // When - un arranque nuevo sigue en el archivo siguiente
+        new AuditLog(dir, 16, AuditLog.Policy.DROP, 200, 3, new SimpleMeterRegistry()).close();
+
+        // Then
+        assertEquals(files.get(files.size() - 1) + 1, AuditFileWriter.existingIndexes(dir).get(2));
+    }
+}
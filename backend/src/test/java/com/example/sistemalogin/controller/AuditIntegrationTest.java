@@ -0,0 +1,70 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.audit.AuditEvent;
+import com.example.sistemalogin.audit.AuditLogReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.audit.dir=target/audit-integration-test")
+@AutoConfigureMockMvc
+class AuditIntegrationTest {
+
+    private static final Path DIR = Path.of("target/audit-integration-test");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("POST /api/register y /api/login - Deberían quedar en la auditoría con su resultado e IP")
+    void shouldAuditRegistrationAndLoginAttempts() throws Exception {
+        // Given
+        String username = "audit-" + UUID.randomUUID() + "@example.com";
+        String body = "{\"username\":\"" + username + "\",\"password\":\"password123\"}";
+        String wrong = "{\"username\":\"" + username + "\",\"password\":\"incorrecta\"}";
+
+        // When
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body)
+                .with(request -> {
+                    request.setRemoteAddr("192.0.2.10");
+                    return request;
+                })).andExpect(status().isOk());
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(wrong))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // Then - la escritura es en otro hilo
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<AuditEvent> events = new ArrayList<>();
+        while (events.size() < 4) {
+            assertTrue(System.nanoTime() < deadline, "faltan eventos de auditoría: " + events.size());
+            Thread.sleep(20);
+            events.clear();
+            AuditLogReader.read(DIR, event -> {
+                if (username.equals(event.getUsername())) {
+                    events.add(event);
+                }
+            });
+        }
+        assertEquals(List.of("register ok", "register username_taken", "login invalid_credentials", "login ok"),
+                events.stream().map(event -> event.getEvent() + " " + event.getOutcome()).toList());
+        assertEquals("192.0.2.10", events.get(0).getClientIp());
+    }
+}
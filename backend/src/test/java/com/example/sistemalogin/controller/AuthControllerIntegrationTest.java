@@ -7,9 +7,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -199,4 +201,53 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("La contraseña es obligatoria"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @org.junit.jupiter.api.DisplayName("POST /api/async/register y /api/async/login - Registro y login asíncronos")
+    void shouldRegisterAndLoginAsync() throws Exception {
+        // Given
+        String requestBody = "{\"username\":\"async@example.com\",\"password\":\"password123\"}";
+
+        // When
+        MvcResult register = mockMvc.perform(post("/api/async/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(register))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Usuario registrado exitosamente"));
+        MvcResult login = mockMvc.perform(post("/api/async/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Inicio de sesión exitoso"))
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    @org.junit.jupiter.api.DisplayName("POST /api/async/login - Usuario inexistente")
+    void shouldNotLoginAsyncWithNonExistentUser() throws Exception {
+        // Given
+        String requestBody = "{\"username\":\"nobody-async@example.com\",\"password\":\"password123\"}";
+
+        // When
+        MvcResult login = mockMvc.perform(post("/api/async/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Credenciales incorrectas"));
+    }
+}
@@ -1,20 +1,42 @@
 package com.example.sistemalogin.controller;
 
+import com.example.sistemalogin.audit.AuditLog;
 import com.example.sistemalogin.dto.AuthResponse;
+import com.example.sistemalogin.security.LoginRateLimiter;
+import com.example.sistemalogin.security.RateLimitedException;
+import com.example.sistemalogin.security.TokenService;
 import com.example.sistemalogin.service.AuthService;
+import com.example.sistemalogin.service.HashingOverloadedException;
+import com.example.sistemalogin.store.UsernameIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,6 +45,23 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private TokenService tokenService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthRequestMetrics metrics = new AuthRequestMetrics(meterRegistry);
+
+    @Spy
+    private LoginRateLimiter loginRateLimiter = LoginRateLimiter.disabled();
+
+    @Spy
+    private AuditLog auditLog = AuditLog.disabled();
+
+    @Spy
+    private UsernameIndex usernameIndex = new UsernameIndex();
+
     @InjectMocks
     private AuthController authController;
 
@@ -93,6 +132,26 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value("El nombre de usuario es obligatorio"));
     }
 
+    @Test
+    @DisplayName("POST /api/register - Username que no entra en el journal por sus bytes UTF-8")
+    void shouldNotRegisterUsernameLongerThanJournalFieldInUtf8() throws Exception {
+        // Given - 30.000 chars, muy por debajo de 0xFFFF, pero 90.000 bytes en UTF-8
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        request.username = "漢".repeat(30_000);
+        request.password = "password123";
+
+        // When & Then
+        mockMvc.perform(post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("El nombre de usuario es demasiado largo"));
+        verify(authService, never()).registerUser(anyString(), anyString());
+        request.username = "漢".repeat(0xFFFF / 3); // justo 0xFFFF bytes
+        assertNull(AuthController.validateRegistration(request));
+    }
+
     @Test
     @DisplayName("POST /api/register - Password vacío")
     void shouldNotRegisterWithEmptyPassword() throws Exception {
@@ -137,6 +196,7 @@ class AuthControllerTest {
         request.password = "password123";
 
         when(authService.authenticateUser("test@example.com", "password123")).thenReturn(true);
+        when(tokenService.issue("test@example.com")).thenReturn("signed-token");
 
         // When & Then
         mockMvc.perform(post("/api/login")
@@ -145,7 +205,8 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Inicio de sesión exitoso"))
-                .andExpect(jsonPath("$.username").value("test@example.com"));
+                .andExpect(jsonPath("$.username").value("test@example.com"))
+                .andExpect(jsonPath("$.token").value("signed-token"));
     }
 
     @Test
@@ -165,6 +226,10 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Credenciales incorrectas"));
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "login", "reason", "invalid_credentials").counter().count());
+        assertEquals(1, meterRegistry.get("auth.requests")
+                .tags("endpoint", "login", "outcome", "failure").timer().count());
     }
 
     @Test
@@ -234,4 +299,108 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("La contraseña es obligatoria"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /api/login - Pool de hashing saturado")
+    void shouldReturnServiceUnavailableWhenHashingIsOverloaded() throws Exception {
+        // Given
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        request.username = "test@example.com";
+        request.password = "password123";
+
+        when(authService.authenticateUser("test@example.com", "password123"))
+                .thenThrow(new HashingOverloadedException(2));
+
+        // When & Then
+        mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Servidor ocupado, intenta nuevamente en unos segundos"));
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "login", "reason", "overloaded").counter().count());
+    }
+
+    @Test
+    @DisplayName("POST /api/login - Límite de intentos superado")
+    void shouldReturnTooManyRequestsWhenRateLimited() throws Exception {
+        // Given
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        request.username = "test@example.com";
+        request.password = "password123";
+
+        doThrow(new RateLimitedException(30)).when(loginRateLimiter).check(any(), anyString());
+
+        // When & Then
+        mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Demasiados intentos, intenta nuevamente más tarde"));
+        verify(authService, never()).authenticateUser(anyString(), anyString());
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "login", "reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    @DisplayName("POST /api/async/login - Pool de hashing saturado")
+    void shouldReturnServiceUnavailableWhenAsyncHashingIsOverloaded() throws Exception {
+        // Given
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        request.username = "test@example.com";
+        request.password = "password123";
+
+        when(authService.authenticateUserAsync("test@example.com", "password123"))
+                .thenReturn(CompletableFuture.failedFuture(new HashingOverloadedException(2)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/async/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message").value("Servidor ocupado, intenta nuevamente en unos segundos"));
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "login", "reason", "overloaded").counter().count());
+    }
+
+    @Test
+    @DisplayName("POST /api/register y /api/async/login - Un error inesperado debería quedar en la auditoría")
+    void shouldAuditUnexpectedErrors() throws Exception {
+        // Given
+        AuthController.AuthRequest request = new AuthController.AuthRequest();
+        request.username = "test@example.com";
+        request.password = "password123";
+
+        when(authService.registerUser("test@example.com", "password123"))
+                .thenThrow(new UncheckedIOException(new IOException("disco lleno")));
+        when(authService.authenticateUserAsync("test@example.com", "password123"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("username inválido")));
+
+        // When
+        assertThrows(Exception.class, () -> mockMvc.perform(post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))));
+        mockMvc.perform(post("/api/async/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted());
+
+        // Then
+        verify(auditLog).record(eq("register"), eq("error"), eq("test@example.com"), any());
+        verify(auditLog).record(eq("login"), eq("error"), eq("test@example.com"), any());
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "register", "reason", "error").counter().count());
+        assertEquals(1, meterRegistry.get("auth.attempts")
+                .tags("endpoint", "login", "reason", "error").counter().count());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.dto.AuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthJsonMessageConverterTest {
+
+    private final AuthJsonMessageConverter converter = new AuthJsonMessageConverter();
+    // configurado como el de Spring MVC (ignora campos desconocidos)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private AuthController.AuthRequest read(String json) throws Exception {
+        return (AuthController.AuthRequest) converter.read(AuthController.AuthRequest.class,
+                new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private MockHttpOutputMessage write(AuthResponse response) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+
+    @Test
+    @DisplayName("Debería escribir exactamente lo mismo que Jackson databind")
+    void shouldWriteSameBytesAsDatabind() throws Exception {
+        // Given
+        AuthResponse[] responses = {
+                new AuthResponse(false, "Credenciales incorrectas"),
+                new AuthResponse(true, "Usuario registrado exitosamente", "ana@example.com"),
+                new AuthResponse(true, "Inicio de sesión exitoso", "ana@example.com", "dG9rZW4.1700000900.c2ln"),
+                new AuthResponse(false, "Mensaje con \"comillas\", \\ y \u0001 control", "ñandú\t@example.com"),
+                new AuthResponse(false, "\b\f\n\r\u001f\u007f / \u2028 € 😀", "\uD83D\uDE00@example.com", "t\u0000k"),
+                new AuthResponse()
+        };
+
+        for (AuthResponse response : responses) {
+            // When - dos veces: la segunda usa el mensaje ya codificado y un buffer del pool
+            MockHttpOutputMessage first = write(response);
+            MockHttpOutputMessage second = write(response);
+
+            // Then
+            byte[] expected = objectMapper.writeValueAsBytes(response);
+            assertArrayEquals(expected, first.getBodyAsBytes());
+            assertArrayEquals(expected, second.getBodyAsBytes());
+            assertEquals(expected.length, second.getHeaders().getContentLength());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería leer lo mismo que Jackson databind")
+    void shouldReadSameValuesAsDatabind() throws Exception {
+        // Given
+        String[] bodies = {
+                "{\"username\":\"ana@example.com\",\"password\":\"password123\"}",
+                "{\"password\":\"contrase\\u00f1a\",\"username\":\"  ana@example.com  \"}",
+                "{\"username\":null,\"extra\":{\"a\":[1,2,{\"b\":3}]},\"password\":123456}",
+                "{}"
+        };
+
+        for (String body : bodies) {
+            // When
+            AuthController.AuthRequest fast = read(body);
+            AuthController.AuthRequest databind = objectMapper.readValue(body, AuthController.AuthRequest.class);
+
+            // Then
+            assertEquals(databind.username, fast.username, body);
+            assertEquals(databind.password, fast.password, body);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar JSON mal formado o con forma inesperada")
+    void shouldRejectMalformedJson() {
+        // When & Then
+        assertThrows(HttpMessageNotReadableException.class, () -> read("{\"username\":"));
+        assertThrows(HttpMessageNotReadableException.class, () -> read("[\"username\"]"));
+        assertThrows(HttpMessageNotReadableException.class, () -> read("{\"username\":[\"a\"]}"));
+    }
+
+    @Test
+    @DisplayName("Solo debería atender AuthRequest al leer y AuthResponse al escribir")
+    void shouldOnlyHandleAuthTypes() {
+        // When & Then
+        assertTrue(converter.canRead(AuthController.AuthRequest.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(AuthResponse.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(AuthResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(AuthController.AuthRequest.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+    }
+}
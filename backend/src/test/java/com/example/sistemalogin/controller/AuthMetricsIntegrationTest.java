@@ -0,0 +1,52 @@
+package com.example.sistemalogin.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AuthMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - Debería exponer timers, contadores por motivo y gauges del store")
+    void shouldExposeAuthMetricsForScraping() throws Exception {
+        // Given
+        String body = "{\"username\":\"metrics@example.com\",\"password\":\"password123\"}";
+        String wrong = "{\"username\":\"metrics@example.com\",\"password\":\"incorrecta\"}";
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(wrong))
+                .andExpect(status().isOk());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertTrue(scrape.contains("auth_attempts_total{endpoint=\"register\",reason=\"username_taken\",result=\"failure\""));
+        assertTrue(scrape.contains("auth_attempts_total{endpoint=\"login\",reason=\"invalid_credentials\",result=\"failure\""));
+        assertTrue(scrape.contains("auth_requests_seconds_bucket{endpoint=\"login\",outcome=\"failure\""));
+        assertTrue(scrape.contains("auth_hashing_duration_seconds_bucket"));
+        assertTrue(scrape.contains("auth_hashing_queue_wait_seconds_bucket"));
+        assertTrue(scrape.contains("auth_users "));
+        assertTrue(scrape.contains("auth_store_memory_bytes "));
+    }
+}
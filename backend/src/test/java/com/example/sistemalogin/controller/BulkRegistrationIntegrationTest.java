@@ -0,0 +1,84 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.security.AdminKeyFilter;
+import com.example.sistemalogin.service.AuthService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"auth.bulk.batch-size=2", "auth.bulk.max-line-length=200",
+        "auth.bcrypt.strength=4", "auth.admin.api-key=clave-de-prueba"})
+@AutoConfigureMockMvc
+class BulkRegistrationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    @DisplayName("POST /api/admin/register/bulk - Debería devolver un resultado por línea y en orden")
+    void shouldReturnOneResultPerLineInOrder() throws Exception {
+        // Given
+        String body = String.join("\n",
+                "{\"username\":\"bulk1@example.com\",\"password\":\"password123\"}",
+                "esto no es json",
+                "",
+                "{\"username\":\"bulk2@example.com\",\"password\":\"123\"}",
+                "{\"username\":\"bulk1@example.com\",\"password\":\"password456\"}",
+                "{\"username\":\" bulk3@example.com \",\"password\":\"password789\"}",
+                "{\"username\":\"" + "x".repeat(300) + "@example.com\",\"password\":\"password123\"}");
+
+        // When
+        String response = mockMvc.perform(post("/api/admin/register/bulk")
+                .header(AdminKeyFilter.HEADER, "clave-de-prueba")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lines = response.split("\n");
+        assertEquals(6, lines.length);
+        assertResult(lines[0], true, "Usuario registrado exitosamente");
+        assertResult(lines[1], false, "Formato de registro inválido");
+        assertResult(lines[2], false, "La contraseña debe tener al menos 6 caracteres");
+        assertResult(lines[3], false, "El nombre de usuario ya existe");
+        assertResult(lines[4], true, "Usuario registrado exitosamente");
+        assertResult(lines[5], false, "Registro demasiado largo");
+        assertTrue(authService.authenticateUser("bulk1@example.com", "password123"));
+        assertTrue(authService.authenticateUser("bulk3@example.com", "password789"));
+        assertFalse(authService.userExists("bulk2@example.com"));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/register/bulk - Debería exigir la clave de administración")
+    void shouldRequireAdminKey() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/admin/register/bulk")
+                .contentType("application/x-ndjson")
+                .content("{\"username\":\"anonimo@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isUnauthorized());
+        assertFalse(authService.userExists("anonimo@example.com"));
+    }
+
+    private void assertResult(String line, boolean success, String message) throws Exception {
+        JsonNode node = objectMapper.readTree(line);
+        assertEquals(success, node.get("success").asBoolean(), line);
+        assertEquals(message, node.get("message").asText(), line);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.replication.HttpReplicationTransport;
+import com.example.sistemalogin.replication.HybridClock;
+import com.example.sistemalogin.replication.ReplicationEvent;
+import com.example.sistemalogin.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"auth.replication.enabled=true", "auth.replication.node-id=1",
+                "auth.admin.api-key=clave-de-prueba", "auth.bcrypt.strength=4"})
+class ReplicationIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @DisplayName("Un usuario recibido de otro nodo por HTTP debería poder iniciar sesión")
+    void shouldLoginWithReplicatedUser() throws Exception {
+        // Given - un lote como lo mandaría el nodo 2
+        HttpReplicationTransport transport = new HttpReplicationTransport("clave-de-prueba", Duration.ofSeconds(5));
+        HybridClock otherNode = new HybridClock(2, System::currentTimeMillis);
+        String hash = passwordEncoder.encode("password123");
+
+        // When
+        transport.send("http://localhost:" + port, List.of(
+                new ReplicationEvent("remoto@example.com", hash, otherNode.tick())));
+
+        // Then
+        assertTrue(authService.authenticateUser("remoto@example.com", "password123"));
+        assertFalse(authService.authenticateUser("remoto@example.com", "otra-clave"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar lotes sin la clave del cluster")
+    void shouldRejectEventsWithWrongKey() {
+        // Given
+        HttpReplicationTransport transport = new HttpReplicationTransport("otra-clave", Duration.ofSeconds(5));
+        List<ReplicationEvent> events = List.of(new ReplicationEvent("intruso@example.com", "{bcrypt}$2a$04$x", 1));
+
+        // When & Then
+        IOException e = assertThrows(IOException.class, () -> transport.send("http://localhost:" + port, events));
+        assertTrue(e.getMessage().contains("401"));
+        assertFalse(authService.userExists("intruso@example.com"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.sistemalogin.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRefreshIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String registerAndLogin(String username) throws Exception {
+        String body = String.format("{\"username\":\"%s\",\"password\":\"password123\"}", username);
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        String response = mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("POST /api/refresh - Debería emitir un token nuevo con un token válido")
+    void shouldRefreshWithValidToken() throws Exception {
+        // Given
+        String token = registerAndLogin("refresh@example.com");
+
+        // When
+        String response = mockMvc.perform(post("/api/refresh")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Token renovado"))
+                .andExpect(jsonPath("$.username").value("refresh@example.com"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        JsonNode json = objectMapper.readTree(response);
+        assertFalse(json.get("token").asText().isEmpty());
+    }
+
+    @Test
+    @DisplayName("POST /api/login - El token debería llevar el username guardado aunque se escriba con otras mayúsculas")
+    void shouldIssueTokenForStoredUsername() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"Mixto@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk());
+        String login = mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"MIXTO@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(login).get("token").asText();
+
+        // When & Then
+        mockMvc.perform(post("/api/refresh")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("Mixto@example.com"));
+    }
+
+    @Test
+    @DisplayName("POST /api/refresh - Sin token debería responder 401")
+    void shouldRejectRefreshWithoutToken() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/refresh"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Token inválido o vencido"));
+    }
+
+    @Test
+    @DisplayName("OPTIONS /api/refresh - El preflight CORS no debería exigir token")
+    void shouldAllowCorsPreflightWithoutToken() throws Exception {
+        // When & Then
+        mockMvc.perform(options("/api/refresh")
+                .header("Origin", "http://example.com")
+                .header("Access-Control-Request-Method", "POST")
+                .header("Access-Control-Request-Headers", "Authorization"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "*"));
+    }
+
+    @Test
+    @DisplayName("POST /api/refresh - Con token adulterado debería responder 401")
+    void shouldRejectRefreshWithTamperedToken() throws Exception {
+        // Given
+        String token = registerAndLogin("tampered@example.com");
+
+        // When & Then
+        mockMvc.perform(post("/api/refresh")
+                .header("Authorization", "Bearer " + token.substring(0, token.length() - 2) + "xx"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("POST /api/login - Credenciales incorrectas no deberían incluir token")
+    void shouldNotIssueTokenOnFailedLogin() throws Exception {
+        // Given
+        String body = "{\"username\":\"nobody@example.com\",\"password\":\"password123\"}";
+
+        // When & Then
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.token").doesNotExist());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.sistemalogin.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "auth.tracing.file=target/tracing-integration-test/spans.jsonl",
+        "auth.tracing.sample-rate=1"
+})
+@AutoConfigureMockMvc
+class TracingIntegrationTest {
+
+    private static final Path FILE = Path.of("target/tracing-integration-test/spans.jsonl");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("POST /api/login - Debería escribir el span del request con sus fases")
+    void shouldTraceLoginPhases() throws Exception {
+        // Given
+        String body = "{\"username\":\"traced@example.com\",\"password\":\"password123\"}";
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"))
+                .andExpect(status().isOk());
+
+        // Then - la escritura es en otro hilo
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String login = null;
+        while (login == null) {
+            assertTrue(System.nanoTime() < deadline, "no se escribió la traza del login");
+            Thread.sleep(20);
+            List<String> lines = Files.exists(FILE) ? Files.readAllLines(FILE) : List.of();
+            login = lines.stream().filter(line -> line.contains("0af7651916cd43dd8448eb211c80319c")).findFirst().orElse(null);
+        }
+        assertTrue(login.contains("\"name\":\"POST /api/login\""));
+        assertTrue(login.contains("\"parentSpanId\":\"b7ad6b7169203331\""));
+        for (String phase : new String[] {"json.decode", "rate_limit", "user.lookup", "hash.queue", "password.verify", "json.encode"}) {
+            assertTrue(login.contains("\"name\":\"" + phase + "\""), "falta la fase " + phase);
+        }
+    }
+}
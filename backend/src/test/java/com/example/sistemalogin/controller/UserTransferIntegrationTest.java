@@ -0,0 +1,106 @@
+package com.example.sistemalogin.controller;
+
+import com.example.sistemalogin.security.AdminKeyFilter;
+import com.example.sistemalogin.service.AuthService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"auth.admin.api-key=clave-de-prueba", "auth.bcrypt.strength=4"})
+@AutoConfigureMockMvc
+class UserTransferIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    @DisplayName("GET /api/admin/users/export - Debería exigir la clave de administración")
+    void shouldRequireAdminKey() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/users/export"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/users/export").header(AdminKeyFilter.HEADER, "otra-clave"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Clave de administración inválida"));
+    }
+
+    @Test
+    @DisplayName("Un usuario importado con su hash debería poder iniciar sesión")
+    void shouldLoginWithImportedHash() throws Exception {
+        // Given
+        authService.registerUser("origen@example.com", "password123");
+        String exported = mockMvc.perform(get("/api/admin/users/export").header(AdminKeyFilter.HEADER, "clave-de-prueba"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String line = exported.lines()
+                .filter(l -> l.contains("origen@example.com"))
+                .findFirst().orElseThrow()
+                .replace("origen@example.com", "migrado@example.com");
+
+        // When
+        mockMvc.perform(post("/api/admin/users/import")
+                .header(AdminKeyFilter.HEADER, "clave-de-prueba")
+                .contentType("application/x-ndjson")
+                .content(line + "\n{\"username\":\"texto-plano@example.com\",\"hashedPassword\":\"password123\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.invalid").value(1));
+
+        // Then
+        assertTrue(authService.authenticateUser("migrado@example.com", "password123"));
+        assertFalse(authService.userExists("texto-plano@example.com"));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/users/import - Debería responder 400 con JSON mal formado")
+    void shouldRejectMalformedImport() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/admin/users/import")
+                .header(AdminKeyFilter.HEADER, "clave-de-prueba")
+                .contentType("application/x-ndjson")
+                .content("{\"username\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/users - Debería buscar por prefijo sin distinguir mayúsculas, paginado")
+    void shouldSearchUsersByPrefix() throws Exception {
+        // Given
+        authService.registerUser("Buscar-Uno@example.com", "password123");
+        authService.registerUser("buscar-dos@example.com", "password123");
+        assertFalse(authService.registerUser("BUSCAR-DOS@example.com", "password123"));
+
+        // When & Then
+        String next = JsonPath.read(mockMvc.perform(get("/api/admin/users")
+                        .header(AdminKeyFilter.HEADER, "clave-de-prueba")
+                        .param("prefix", "BUSCAR-")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernames[0]").value("buscar-dos@example.com"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString(), "$.next");
+        mockMvc.perform(get("/api/admin/users")
+                        .header(AdminKeyFilter.HEADER, "clave-de-prueba")
+                        .param("prefix", "buscar-")
+                        .param("after", next)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernames[0]").value("Buscar-Uno@example.com"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+        assertTrue(authService.authenticateUser("BUSCAR-UNO@EXAMPLE.COM", "password123"));
+    }
+}
@@ -98,4 +98,16 @@ class AuthResponseTest {
         assertNull(response.getMessage());
         assertNull(response.getUsername());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería crear AuthResponse con token")
+    void shouldCreateAuthResponseWithToken() {
+        // Given & When
+        AuthResponse response = new AuthResponse(true, "Inicio de sesión exitoso", "test@example.com", "token123");
+
+        // Then
+        assertTrue(response.isSuccess());
+        assertEquals("test@example.com", response.getUsername());
+        assertEquals("token123", response.getToken());
+    }
+}
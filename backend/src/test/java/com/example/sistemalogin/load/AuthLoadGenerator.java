@@ -0,0 +1,150 @@
+package com.example.sistemalogin.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga para comparar los modos de ejecución del backend.
+ * No es un test: se ejecuta a mano contra una instancia levantada.
+ *
+ * Uso:
+ *   java -cp target/test-classes com.example.sistemalogin.load.AuthLoadGenerator \
+ *       http://localhost:8080 /api/login 10000 30
+ *
+ * Cada conexión concurrente es un hilo virtual del cliente que repite el
+ * request durante la duración indicada. Durante la corrida se consultan
+ * /actuator/metrics/jvm.threads.live y tomcat.threads.busy para reportar el
+ * pico de hilos del servidor y de hilos de Tomcat ocupados (este último
+ * requiere server.tomcat.mbeanregistry.enabled=true). La latencia de esas
+ * consultas se reporta como "probe": muestra si un request barato queda
+ * esperando detrás de los hilos ocupados por BCrypt.
+ */
+public class AuthLoadGenerator {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String path = args.length > 1 ? args[1] : "/api/login";
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String body = "{\"username\":\"load@example.com\",\"password\":\"password123\"}";
+        send(client, baseUrl + "/api/register", body);
+
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder errors = new LongAdder();
+        long[][] latencies = new long[connections][];
+        int[] counts = new int[connections];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger peakServerThreads = new AtomicInteger();
+        AtomicInteger peakBusyThreads = new AtomicInteger();
+        AtomicLong maxProbeNanos = new AtomicLong();
+
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (System.nanoTime() < deadline) {
+                long probeStart = System.nanoTime();
+                peakServerThreads.accumulateAndGet(serverMetric(client, baseUrl, "jvm.threads.live"), Math::max);
+                maxProbeNanos.accumulateAndGet(System.nanoTime() - probeStart, Math::max);
+                peakBusyThreads.accumulateAndGet(serverMetric(client, baseUrl, "tomcat.threads.busy"), Math::max);
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int connection = c;
+                workers.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            int status = send(client, baseUrl + path, body);
+                            statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = System.nanoTime() - t0;
+                    }
+                    latencies[connection] = samples;
+                    counts[connection] = n;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < connections; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("endpoint=%s connections=%d duration=%ds%n", path, connections, seconds);
+        System.out.printf("requests=%d throughput=%.1f req/s errors=%d statuses=%s%n",
+                total, total / (elapsed / 1e9), errors.sum(), statuses);
+        System.out.printf("latency p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+        System.out.printf("server peak live threads=%d busy tomcat threads=%d probe max=%.1fms%n",
+                peakServerThreads.get(), peakBusyThreads.get(), maxProbeNanos.get() / 1e6);
+    }
+
+    private static int send(HttpClient client, String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int serverMetric(HttpClient client, String baseUrl, String metric) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric)).build();
+            Matcher matcher = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return matcher.find() ? (int) Double.parseDouble(matcher.group(1)) : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
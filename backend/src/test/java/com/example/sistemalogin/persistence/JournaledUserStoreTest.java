@@ -0,0 +1,244 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.service.AuthService;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.NormalizedUserStore;
+import com.example.sistemalogin.store.UsernameIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledUserStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private JournaledUserStore open() throws Exception {
+        JournaledUserStore store = new JournaledUserStore(new ConcurrentUserStore(), dir, true, 1, 64);
+        store.open();
+        return store;
+    }
+
+    @Test
+    @DisplayName("Debería recuperar los usuarios después de reiniciar")
+    void shouldRecoverUsersAfterRestart() throws Exception {
+        // Given
+        try (JournaledUserStore store = open()) {
+            store.putIfAbsent(new User("ana@example.com", "hash1"));
+            store.putIfAbsent(new User("luis@example.com", "hash2"));
+            store.put(new User("ana@example.com", "hash3"));
+        }
+
+        // When
+        try (JournaledUserStore store = open()) {
+            // Then
+            assertEquals(2, store.size());
+            assertEquals("hash3", store.get("ana@example.com").getHashedPassword());
+            assertEquals("hash2", store.get("luis@example.com").getHashedPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería recuperar un lote insertado con putAllIfAbsent")
+    void shouldRecoverBatchAfterRestart() throws Exception {
+        // Given
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new User("user" + i + "@example.com", "hash" + i));
+        }
+        batch.add(new User("user0@example.com", "duplicado"));
+        try (JournaledUserStore store = open()) {
+            // When
+            boolean[] inserted = store.putAllIfAbsent(batch);
+
+            // Then
+            assertTrue(inserted[0]);
+            assertFalse(inserted[1000]);
+        }
+        try (JournaledUserStore store = open()) {
+            assertEquals(1000, store.size());
+            assertEquals("hash0", store.get("user0@example.com").getHashedPassword());
+            assertEquals("hash999", store.get("user999@example.com").getHashedPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("No debería escribir en el journal si el usuario ya existe")
+    void shouldNotJournalRejectedRegistration() throws Exception {
+        // Given
+        try (JournaledUserStore store = open()) {
+            store.putIfAbsent(new User("ana@example.com", "hash1"));
+
+            // When
+            boolean inserted = store.putIfAbsent(new User("ana@example.com", "hash2"));
+
+            // Then
+            assertFalse(inserted);
+        }
+        try (JournaledUserStore store = open()) {
+            assertEquals("hash1", store.get("ana@example.com").getHashedPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("No debería publicar el usuario si falla la escritura del journal")
+    void shouldNotPublishUserWhenJournalWriteFails() throws Exception {
+        // Given
+        JournaledUserStore store = open();
+        store.putIfAbsent(new User("ana@example.com", "hash1"));
+        store.close();
+
+        // When
+        assertThrows(UncheckedIOException.class,
+                () -> store.putIfAbsent(new User("luis@example.com", "hash2")));
+        assertThrows(UncheckedIOException.class,
+                () -> store.put(new User("ana@example.com", "hash3")));
+
+        // Then
+        assertFalse(store.contains("luis@example.com"));
+        assertEquals("hash1", store.get("ana@example.com").getHashedPassword());
+    }
+
+    @Test
+    @DisplayName("Debería compactar el journal en un snapshot al arrancar")
+    void shouldCompactJournalIntoSnapshotOnOpen() throws Exception {
+        // Given
+        try (JournaledUserStore store = open()) {
+            for (int i = 0; i < 1_000; i++) {
+                store.putIfAbsent(new User("user" + i + "@example.com", "hash" + i));
+            }
+        }
+
+        // When
+        try (JournaledUserStore store = open()) {
+            // Then
+            assertTrue(Files.exists(dir.resolve(JournaledUserStore.SNAPSHOT_NAME)));
+            assertFalse(Files.exists(dir.resolve("journal-0.log")));
+            assertEquals(0, Files.size(store.journalPath(1)));
+            store.putIfAbsent(new User("nuevo@example.com", "hash"));
+        }
+        JournaledUserStore reopened = new JournaledUserStore(new CompactUserStore(), dir, true, 1, 64);
+        reopened.open();
+        assertEquals(1_001, reopened.size());
+        assertEquals("hash999", reopened.get("user999@example.com").getHashedPassword());
+        assertTrue(reopened.contains("nuevo@example.com"));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Usuarios viejos que solo difieren en mayúsculas no deberían pisarse al recuperar")
+    void shouldKeepLegacyCaseVariantsOnRecovery() throws Exception {
+        // Given - guardados antes de normalizar usernames
+        try (JournaledUserStore store = open()) {
+            store.putIfAbsent(new User("Ana@example.com", "hash-de-Ana"));
+            store.putIfAbsent(new User("ana@example.com", "hash-de-ana"));
+        }
+
+        // When - se reabre como en UserStoreConfig, con el índice encima
+        JournaledUserStore journaled = open();
+        NormalizedUserStore normalized = new NormalizedUserStore(journaled, new UsernameIndex());
+        normalized.close();
+
+        // Then - la compactación del arranque conservó los dos tal cual
+        try (JournaledUserStore store = open()) {
+            assertEquals(2, store.size());
+            assertEquals("hash-de-Ana", store.get("Ana@example.com").getHashedPassword());
+            assertEquals("hash-de-ana", store.get("ana@example.com").getHashedPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("AuthService debería autenticar usuarios registrados antes del reinicio")
+    void shouldAuthenticateUsersRegisteredBeforeRestart() throws Exception {
+        // Given
+        try (JournaledUserStore store = open()) {
+            assertTrue(new AuthService(store).registerUser("ana@example.com", "password123"));
+        }
+
+        // When
+        try (JournaledUserStore store = open()) {
+            AuthService authService = new AuthService(store);
+
+            // Then
+            assertTrue(authService.authenticateUser("ana@example.com", "password123"));
+            assertFalse(authService.registerUser("ana@example.com", "otherpassword"));
+        }
+    }
+
+    @Test
+    @DisplayName("El checkpoint debería rotar el journal y borrar los anteriores")
+    void shouldRotateJournalOnCheckpoint() throws Exception {
+        // Given
+        try (JournaledUserStore store = open()) {
+            store.putIfAbsent(new User("ana@example.com", "hash1"));
+            long generation = store.getGeneration();
+
+            // When
+            JournaledUserStore.Checkpoint checkpoint = store.checkpoint();
+            store.putIfAbsent(new User("luis@example.com", "hash2"));
+
+            // Then
+            assertEquals(generation + 1, checkpoint.getGeneration());
+            assertTrue(checkpoint.getSnapshotBytes() > 0);
+            assertFalse(Files.exists(store.journalPath(generation)));
+            assertTrue(Files.size(store.journalPath(generation + 1)) > 0);
+        }
+        try (JournaledUserStore store = open()) {
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("El checkpoint no debería perder registros escritos en paralelo")
+    void shouldNotLoseRegistrationsDuringCheckpoint() throws Exception {
+        // Given
+        int threads = 16;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try (JournaledUserStore store = open()) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(store.putIfAbsent(new User("user-" + thread + "-" + i, "hash")));
+                    }
+                    return null;
+                }));
+            }
+
+            // When
+            start.countDown();
+            for (int i = 0; i < 5; i++) {
+                store.checkpoint();
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        try (JournaledUserStore store = open()) {
+            assertEquals(threads * perThread, store.size());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCheckpointerTest {
+
+    @TempDir
+    Path dir;
+
+    private JournaledUserStore store;
+    private SimpleMeterRegistry registry;
+    private UserCheckpointer checkpointer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new JournaledUserStore(new ConcurrentUserStore(), dir, false, 0, 1);
+        store.open();
+        registry = new SimpleMeterRegistry();
+        checkpointer = new UserCheckpointer(store, 60_000, 0, registry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        checkpointer.close();
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Debería exponer duración y tamaño del checkpoint como métricas")
+    void shouldExposeCheckpointMetrics() throws Exception {
+        // Given
+        store.putIfAbsent(new User("ana@example.com", "hash1"));
+
+        // When
+        JournaledUserStore.Checkpoint checkpoint = checkpointer.checkpoint();
+
+        // Then
+        assertEquals(1, registry.get("auth.checkpoint.duration").timer().count());
+        assertEquals(checkpoint.getSnapshotBytes(), registry.get("auth.checkpoint.size").gauge().value());
+        assertEquals(checkpoint.getGeneration(), registry.get("auth.checkpoint.generation").gauge().value());
+        assertEquals(0, registry.get("auth.journal.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("No debería hacer checkpoint si el journal está vacío")
+    void shouldSkipCheckpointWhenJournalIsEmpty() {
+        // When
+        checkpointer.checkpointIfNeeded();
+
+        // Then
+        assertEquals(0, registry.get("auth.checkpoint.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Debería hacer checkpoint cuando el journal tiene registros")
+    void shouldCheckpointWhenJournalHasRecords() {
+        // Given
+        store.putIfAbsent(new User("ana@example.com", "hash1"));
+
+        // When
+        checkpointer.checkpointIfNeeded();
+
+        // Then
+        assertEquals(1, registry.get("auth.checkpoint.duration").timer().count());
+        assertEquals(0, store.journalBytes());
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.sistemalogin.persistence;
+
+import com.example.sistemalogin.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Debería reaplicar los registros en orden")
+    void shouldReplayRecordsInOrder() throws Exception {
+        // Given
+        Path path = dir.resolve("journal-0.log");
+        try (UserJournal journal = new UserJournal(path, true, 1, 16)) {
+            journal.append(new User("ana@example.com", "hash1"));
+            journal.append(new User("josé@example.com", "hash2"));
+            journal.append(new User("ana@example.com", "hash3"));
+        }
+
+        // When
+        List<User> replayed = new ArrayList<>();
+        long count = UserJournal.replay(path, replayed::add);
+
+        // Then
+        assertEquals(3, count);
+        assertEquals("ana@example.com", replayed.get(0).getUsername());
+        assertEquals("josé@example.com", replayed.get(1).getUsername());
+        assertEquals("hash3", replayed.get(2).getHashedPassword());
+    }
+
+    @Test
+    @DisplayName("Debería descartar y truncar un registro incompleto al final")
+    void shouldTruncateTornTail() throws Exception {
+        // Given
+        Path path = dir.resolve("journal-0.log");
+        try (UserJournal journal = new UserJournal(path, false, 0, 1)) {
+            journal.append(new User("ana@example.com", "hash1"));
+            journal.append(new User("luis@example.com", "hash2"));
+        }
+        long fullSize = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 3);
+        }
+
+        // When
+        List<User> replayed = new ArrayList<>();
+        long count = UserJournal.replay(path, replayed::add);
+
+        // Then
+        assertEquals(1, count);
+        assertEquals("ana@example.com", replayed.get(0).getUsername());
+        assertTrue(Files.size(path) < fullSize - 3);
+    }
+
+    @Test
+    @DisplayName("Debería agrupar fsync de escrituras concurrentes sin perder registros")
+    void shouldGroupCommitConcurrentAppends() throws Exception {
+        // Given
+        Path path = dir.resolve("journal-0.log");
+        int threads = 32;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try (UserJournal journal = new UserJournal(path, true, 2, 64)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.append(new User("user-" + thread + "-" + i, "hash"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, UserJournal.replay(path, user -> {}));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar escrituras después de cerrar")
+    void shouldRejectAppendAfterClose() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(dir.resolve("journal-0.log"), true, 1, 1);
+        journal.close();
+
+        // When & Then
+        assertThrows(java.io.IOException.class, () -> journal.append(new User("ana@example.com", "hash")));
+    }
+
+    @Test
+    @DisplayName("Una escritura que falla a medias no debería dejar un registro roto antes de los siguientes")
+    void shouldDiscardPartialWriteBeforeNextRecord() throws Exception {
+        // Given
+        Path path = dir.resolve("journal-0.log");
+        FailingChannel channel = new FailingChannel(
+                FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        try (UserJournal journal = new UserJournal(path, channel, true, 1, 1)) {
+            journal.append(new User("ana@example.com", "hash1"));
+
+            // When - la segunda escritura deja la mitad del registro en disco y falla
+            channel.failNextWrite = true;
+            assertThrows(IOException.class, () -> journal.append(new User("luis@example.com", "hash2")));
+            journal.append(new User("eva@example.com", "hash3"));
+        }
+
+        // Then - el registro que sigue al fallido se recupera
+        List<User> replayed = new ArrayList<>();
+        assertEquals(2, UserJournal.replay(path, replayed::add));
+        assertEquals("ana@example.com", replayed.get(0).getUsername());
+        assertEquals("eva@example.com", replayed.get(1).getUsername());
+    }
+
+    /**
+     * FileChannel que, a pedido, escribe la mitad del buffer y falla.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failNextWrite;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                src.position(src.position() + delegate.write(half));
+                throw new IOException("No queda espacio en el dispositivo");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.sistemalogin.replication;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.NormalizedUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.example.sistemalogin.store.UsernameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicatedUserStoreTest {
+
+    private final InProcessReplicationTransport transport = new InProcessReplicationTransport();
+    private final List<ReplicatedUserStore> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ReplicatedUserStore node : nodes) {
+            node.close();
+        }
+    }
+
+    private ReplicatedUserStore node(String name, int nodeId, int queueCapacity, SimpleMeterRegistry registry,
+                                     LongSupplier clock, String... peers) {
+        return node(name, new ConcurrentUserStore(), nodeId, queueCapacity, registry, clock, peers);
+    }
+
+    private ReplicatedUserStore node(String name, UserStore delegate, int nodeId, int queueCapacity,
+                                     SimpleMeterRegistry registry, LongSupplier clock, String... peers) {
+        ReplicatedUserStore node = new ReplicatedUserStore(delegate, nodeId, List.of(peers),
+                transport, queueCapacity, 16, 10, registry, clock);
+        transport.register(name, node);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "los nodos no convergieron");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Un usuario registrado en un nodo debería poder leerse en los demás")
+    void shouldReplicateRegistrationToAllPeers() throws Exception {
+        // Given
+        SimpleMeterRegistry registryA = new SimpleMeterRegistry();
+        ReplicatedUserStore a = node("a", 1, 1024, registryA, System::currentTimeMillis, "b", "c");
+        ReplicatedUserStore b = node("b", 2, 1024, new SimpleMeterRegistry(), System::currentTimeMillis, "a", "c");
+        ReplicatedUserStore c = node("c", 3, 1024, new SimpleMeterRegistry(), System::currentTimeMillis, "a", "b");
+        nodes.forEach(ReplicatedUserStore::start);
+
+        // When
+        assertTrue(a.putIfAbsent(new User("ana@example.com", "hash-a")));
+        a.putAllIfAbsent(List.of(new User("lote1@example.com", "hash"), new User("lote2@example.com", "hash")));
+        b.put(new User("bruno@example.com", "hash-b"));
+
+        // Then
+        await(() -> c.size() == 4 && a.size() == 4 && b.size() == 4);
+        assertEquals("hash-a", c.get("ana@example.com").getHashedPassword());
+        assertEquals("hash-b", a.get("bruno@example.com").getHashedPassword());
+        await(() -> a.pendingEvents() == 0);
+        assertEquals(3, registryA.get("auth.replication.lag").tag("peer", "b").timer().count());
+        assertEquals(0, registryA.get("auth.replication.oldest.pending").tag("peer", "c").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Escrituras concurrentes del mismo usuario deberían converger al mismo valor en todos los nodos")
+    void shouldConvergeOnConflictingWrites() throws Exception {
+        // Given - mismo reloj de pared: el desempate es por id de nodo
+        LongSupplier frozen = () -> 1_750_000_000_000L;
+        SimpleMeterRegistry registryA = new SimpleMeterRegistry();
+        ReplicatedUserStore a = node("a", 1, 1024, registryA, frozen, "b");
+        ReplicatedUserStore b = node("b", 2, 1024, new SimpleMeterRegistry(), frozen, "a");
+
+        // When - ambos escriben antes de replicar nada
+        a.put(new User("ana@example.com", "hash-de-a"));
+        b.put(new User("ana@example.com", "hash-de-b"));
+        a.start();
+        b.start();
+
+        // Then
+        await(() -> "hash-de-b".equals(a.get("ana@example.com").getHashedPassword()));
+        assertEquals("hash-de-b", b.get("ana@example.com").getHashedPassword());
+
+        // When - una escritura posterior en a le gana aunque su reloj no avance
+        a.put(new User("ana@example.com", "hash-nuevo"));
+
+        // Then
+        await(() -> "hash-nuevo".equals(b.get("ana@example.com").getHashedPassword()));
+    }
+
+    @Test
+    @DisplayName("Escrituras concurrentes de variantes del mismo username deberían converger")
+    void shouldConvergeOnConflictingCaseVariants() throws Exception {
+        // Given - como en UserStoreConfig, cada nodo sobre un store normalizado
+        LongSupplier frozen = () -> 1_750_000_000_000L;
+        ReplicatedUserStore a = node("a", new NormalizedUserStore(new ConcurrentUserStore(), new UsernameIndex()),
+                1, 1024, new SimpleMeterRegistry(), frozen, "b");
+        ReplicatedUserStore b = node("b", new NormalizedUserStore(new ConcurrentUserStore(), new UsernameIndex()),
+                2, 1024, new SimpleMeterRegistry(), frozen, "a");
+
+        // When - cada nodo registra una variante antes de replicar nada
+        a.put(new User("Ana@example.com", "hash-de-a"));
+        b.put(new User("ana@example.com", "hash-de-b"));
+        a.start();
+        b.start();
+
+        // Then - gana la versión de b en los dos, sin cruzar los hashes
+        await(() -> "hash-de-b".equals(a.get("ana@example.com").getHashedPassword()));
+        assertEquals("hash-de-b", b.get("ANA@example.com").getHashedPassword());
+        assertEquals(1, a.size());
+        assertEquals(1, b.size());
+
+        // When - un re-hash en a llega con la variante que escribió el usuario
+        a.put(new User("ANA@EXAMPLE.COM", "hash-nuevo"));
+
+        // Then
+        await(() -> "hash-nuevo".equals(b.get("ana@example.com").getHashedPassword()));
+        assertEquals("hash-nuevo", a.get("ana@example.com").getHashedPassword());
+        assertEquals(1, b.size());
+    }
+
+    @Test
+    @DisplayName("Un evento con versión vieja no debería pisar al usuario")
+    void shouldIgnoreStaleEvents() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReplicatedUserStore a = node("a", 1, 1024, registry, System::currentTimeMillis);
+        a.put(new User("ana@example.com", "hash-actual"));
+        HybridClock past = new HybridClock(2, () -> System.currentTimeMillis() - 60_000);
+
+        // When
+        int applied = a.applyRemote(List.of(
+                new ReplicationEvent("ana@example.com", "hash-viejo", past.tick()),
+                new ReplicationEvent("nuevo@example.com", "hash", past.tick())));
+
+        // Then
+        assertEquals(1, applied);
+        assertEquals("hash-actual", a.get("ana@example.com").getHashedPassword());
+        assertEquals("hash", a.get("nuevo@example.com").getHashedPassword());
+        assertEquals(1, registry.get("auth.replication.stale").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un nodo aislado debería recibir el estado completo al volver, aunque se haya llenado la cola")
+    void shouldResyncPeerAfterPartition() throws Exception {
+        // Given
+        SimpleMeterRegistry registryA = new SimpleMeterRegistry();
+        ReplicatedUserStore a = node("a", 1, 8, registryA, System::currentTimeMillis, "b");
+        ReplicatedUserStore b = node("b", 2, 8, new SimpleMeterRegistry(), System::currentTimeMillis, "a");
+        transport.disconnect("b");
+        a.start();
+        b.start();
+
+        // When - muchas más escrituras que la cola hacia b
+        for (int i = 0; i < 500; i++) {
+            a.putIfAbsent(new User("user" + i + "@example.com", "hash"));
+        }
+        await(() -> registryA.get("auth.replication.send.failures").tag("peer", "b").counter().count() > 0);
+        transport.reconnect("b");
+
+        // Then
+        await(() -> b.size() == 500);
+        assertTrue(registryA.get("auth.replication.resyncs").tag("peer", "b").counter().count() >= 2);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.sistemalogin.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLockoutTest {
+
+    private static final long BASE = 30_000;
+    private static final long MAX = 120_000;
+    private static final long RESET = 3_600_000;
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry registry;
+    private AccountLockout lockout;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_700_000_000_000L);
+        registry = new SimpleMeterRegistry();
+        lockout = new AccountLockout(true, 1024, 3, BASE, MAX, RESET, registry, clock::get);
+    }
+
+    private void fail(String username, int times) {
+        for (int i = 0; i < times; i++) {
+            lockout.recordFailure(username);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería bloquear al llegar al umbral y duplicar el bloqueo con cada fallo posterior")
+    void shouldLockAtThresholdWithExponentialBackoff() {
+        // Given
+        fail("ana@example.com", 2);
+        lockout.check("ana@example.com");
+
+        // When
+        fail("ana@example.com", 1);
+
+        // Then
+        AccountLockedException first = assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com"));
+        assertEquals(30, first.getRetryAfterSeconds());
+        assertThrows(AccountLockedException.class, () -> lockout.check("ANA@example.com"));
+        lockout.check("bruno@example.com");
+
+        // When - vence y vuelve a fallar: 60 s, después 120 s y no más
+        clock.addAndGet(BASE);
+        lockout.check("ana@example.com");
+        fail("ana@example.com", 1);
+        assertEquals(60, assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com")).getRetryAfterSeconds());
+        clock.addAndGet(60_000);
+        fail("ana@example.com", 1);
+        clock.addAndGet(120_000);
+        fail("ana@example.com", 1);
+
+        // Then
+        assertEquals(120, assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com")).getRetryAfterSeconds());
+        assertEquals(4, registry.get("auth.lockout.locks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Los fallos deberían olvidarse con un login correcto o tras el período sin fallos")
+    void shouldForgetFailuresOnSuccessOrAfterReset() {
+        // Given
+        fail("ana@example.com", 2);
+        fail("bruno@example.com", 2);
+
+        // When
+        lockout.recordSuccess("ana@example.com");
+        clock.addAndGet(RESET);
+        fail("ana@example.com", 2);
+        fail("bruno@example.com", 2);
+
+        // Then - ninguno llegó a 3 fallos seguidos vigentes
+        lockout.check("ana@example.com");
+        lockout.check("bruno@example.com");
+        assertEquals(0, registry.get("auth.lockout.locks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Muchas cuentas distintas no deberían hacer crecer la tabla ni borrar bloqueos recientes")
+    void shouldKeepRecentLocksUnderManyKeys() {
+        // Given
+        fail("ana@example.com", 3);
+
+        // When - muchas más cuentas que la capacidad mientras dura el bloqueo
+        for (int i = 0; i < 100_000; i++) {
+            lockout.recordFailure("user" + i + "@example.com");
+        }
+
+        // Then - ana sigue bloqueada hasta vencer
+        clock.addAndGet(BASE - 1);
+        assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com"));
+        clock.incrementAndGet();
+        lockout.check("ana@example.com");
+    }
+
+    @Test
+    @DisplayName("Llenar la tabla con usernames inventados no debería bloquear a una cuenta real sin fallos")
+    void shouldNotLockUntouchedAccountsWhenFloodedWithBogusUsernames() {
+        // Given - dos fallos contra ana, uno menos que el umbral
+        fail("ana@example.com", 2);
+
+        // When - muchos más usernames inexistentes que la capacidad, varias veces cada uno
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 100_000; i++) {
+                lockout.recordUnknownFailure("bogus" + i + "@example.com");
+            }
+        }
+
+        // Then - una cuenta real intacta entra, y los fallos de ana siguen contando
+        lockout.check("bruno@example.com");
+        lockout.check("ana@example.com");
+        fail("ana@example.com", 1);
+        assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com"));
+    }
+
+    @Test
+    @DisplayName("Con la tabla llena una cuenta sin entrada no debería bloquearse y un bloqueo vigente debería conservarse")
+    void shouldFailOpenForKeysWithoutEntryWhenTableIsFull() {
+        // Given
+        fail("ana@example.com", 3);
+
+        // When - muchas más cuentas que la capacidad fallan una vez
+        for (int i = 0; i < 100_000; i++) {
+            lockout.recordFailure("user" + i + "@example.com");
+        }
+
+        // Then
+        lockout.check("nuevo@example.com");
+        assertThrows(AccountLockedException.class, () -> lockout.check("ana@example.com"));
+        assertEquals(1, registry.get("auth.lockout.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un username inexistente debería bloquearse igual que uno real")
+    void shouldLockUnknownUsernamesLikeRealOnes() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            lockout.recordUnknownFailure("nadie@example.com");
+        }
+
+        // When
+        AccountLockedException locked = assertThrows(AccountLockedException.class,
+                () -> lockout.check("nadie@example.com"));
+
+        // Then - y si después se registra y entra, arranca de cero
+        assertEquals(BASE / 1000, locked.getRetryAfterSeconds());
+        lockout.recordSuccess("nadie@example.com");
+        lockout.check("nadie@example.com");
+    }
+}
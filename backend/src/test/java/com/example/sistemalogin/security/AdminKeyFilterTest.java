@@ -0,0 +1,45 @@
+package com.example.sistemalogin.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminKeyFilterTest {
+
+    private static MockHttpServletResponse run(AdminKeyFilter filter, String key) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/users/export");
+        if (key != null) {
+            request.addHeader(AdminKeyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("Sin clave configurada debería rechazar todo con 403")
+    void shouldRejectEverythingWhenDisabled() throws Exception {
+        // Given
+        AdminKeyFilter filter = new AdminKeyFilter("");
+
+        // When & Then
+        assertEquals(403, run(filter, null).getStatus());
+        assertEquals(403, run(filter, "").getStatus());
+    }
+
+    @Test
+    @DisplayName("Debería dejar pasar solo la clave correcta")
+    void shouldAllowOnlyMatchingKey() throws Exception {
+        // Given
+        AdminKeyFilter filter = new AdminKeyFilter("secreto");
+
+        // When & Then
+        assertEquals(200, run(filter, "secreto").getStatus());
+        assertEquals(401, run(filter, "secret").getStatus());
+        assertEquals(401, run(filter, null).getStatus());
+    }
+}
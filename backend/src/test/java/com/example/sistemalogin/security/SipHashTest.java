@@ -0,0 +1,27 @@
+package com.example.sistemalogin.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SipHashTest {
+
+    // clave 00..0f de los vectores de referencia de SipHash-2-4
+    private final SipHash reference = new SipHash(0x0706050403020100L, 0x0f0e0d0c0b0a0908L);
+
+    @Test
+    @DisplayName("Debería coincidir con los vectores de referencia")
+    void shouldMatchReferenceVectors() {
+        // When & Then - mensajes de 0 y 8 bytes 00 01 .. 07
+        assertEquals(0x726fdb47dd0e0e31L, reference.hash(""));
+        assertEquals(0x93f5f5799a932462L, reference.hash("\u0100\u0302\u0504\u0706"));
+    }
+
+    @Test
+    @DisplayName("Dos claves aleatorias no deberían dar el mismo hash")
+    void shouldDependOnKey() {
+        // When & Then
+        assertNotEquals(SipHash.random().hash("ana@example.com"), SipHash.random().hash("ana@example.com"));
+    }
+}
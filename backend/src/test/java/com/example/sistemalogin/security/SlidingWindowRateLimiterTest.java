@@ -0,0 +1,164 @@
+package com.example.sistemalogin.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+
+    private AtomicLong clock;
+    private SlidingWindowRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // inicio alineado a la ventana
+        clock = new AtomicLong(1_700_000_040_000L);
+        limiter = new SlidingWindowRateLimiter(1024, 5, WINDOW, clock::get);
+    }
+
+    @Test
+    @DisplayName("Debería permitir hasta el límite dentro de una ventana")
+    void shouldAllowUpToLimitWithinWindow() {
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("ana@example.com")) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertEquals(5, allowed);
+        assertTrue(limiter.tryAcquire("otro@example.com"));
+        assertEquals(60, limiter.retryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("La ventana anterior debería pesar según cuánto sigue dentro de la deslizante")
+    void shouldDecayPreviousWindowGradually() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("ana@example.com"));
+        }
+
+        // When - al empezar la siguiente ventana los 5 anteriores todavía pesan completos
+        clock.addAndGet(WINDOW);
+        boolean atStart = limiter.tryAcquire("ana@example.com");
+
+        // Then - a mitad de ventana pesan 2.5, quedan 2 intentos
+        clock.addAndGet(WINDOW / 2);
+        assertFalse(atStart);
+        assertTrue(limiter.tryAcquire("ana@example.com"));
+        assertTrue(limiter.tryAcquire("ana@example.com"));
+        assertFalse(limiter.tryAcquire("ana@example.com"));
+
+        // y dos ventanas después no queda nada
+        clock.addAndGet(2 * WINDOW);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("ana@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Con la tabla llena debería admitir claves nuevas sin reiniciar contadores agotados")
+    void shouldAdmitNewKeysWithoutEvictingExhaustedOnes() {
+        // Given - una clave agotada
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("victima@example.com");
+        }
+        assertFalse(limiter.tryAcquire("victima@example.com"));
+
+        // When - en la ventana siguiente, con la anterior todavía pesando
+        // completa, llegan muchas más claves que slots
+        clock.addAndGet(WINDOW);
+        int allowed = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (limiter.tryAcquire("bot" + i + "@example.com")) {
+                allowed++;
+            }
+        }
+
+        // Then - ninguna clave nueva se rechaza por falta de lugar, y la agotada sigue limitada
+        assertEquals(100_000, allowed);
+        assertTrue(limiter.tryAcquire("nuevo@example.com"));
+        assertFalse(limiter.tryAcquire("victima@example.com"));
+
+        // y cuando sus conteos dejan de pesar vuelve a entrar
+        clock.addAndGet(2 * WINDOW);
+        assertTrue(limiter.tryAcquire("victima@example.com"));
+    }
+
+    @Test
+    @DisplayName("Bajo concurrencia no debería permitir más intentos que el límite")
+    void shouldNotExceedLimitUnderConcurrency() throws Exception {
+        // Given
+        SlidingWindowRateLimiter shared = new SlidingWindowRateLimiter(1024, 100, WINDOW, clock::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < 1_000; i++) {
+                    if (shared.tryAcquire("10.0.0.1")) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(100, total);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar por IP y por usuario por separado")
+    void shouldLimitByIpAndByUser() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginRateLimiter loginLimiter = new LoginRateLimiter(
+                new SlidingWindowRateLimiter(1024, 3, WINDOW, clock::get),
+                new SlidingWindowRateLimiter(1024, 2, WINDOW, clock::get),
+                registry);
+
+        // When
+        loginLimiter.check("10.0.0.1", "ana@example.com");
+        loginLimiter.check("10.0.0.1", "ana@example.com");
+        RateLimitedException byUser = assertThrows(RateLimitedException.class,
+                () -> loginLimiter.check("10.0.0.2", "ana@example.com"));
+        loginLimiter.check("10.0.0.1", "beto@example.com");
+        RateLimitedException byIp = assertThrows(RateLimitedException.class,
+                () -> loginLimiter.check("10.0.0.1", "carla@example.com"));
+
+        // Then
+        assertEquals(60, byUser.getRetryAfterSeconds());
+        assertEquals(60, byIp.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.rate.limited").tag("scope", "user").counter().count());
+        assertEquals(1, registry.get("auth.rate.limited").tag("scope", "ip").counter().count());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.sistemalogin.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private AtomicLong now;
+    private byte[] secret;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_700_000_000L);
+        secret = TokenService.randomSecret();
+        tokenService = new TokenService(secret, 900, 3_600, now::get);
+    }
+
+    @Test
+    @DisplayName("Debería verificar un token recién emitido")
+    void shouldVerifyIssuedToken() {
+        // When
+        String token = tokenService.issue("test@example.com");
+
+        // Then
+        assertEquals("test@example.com", tokenService.verify(token));
+    }
+
+    @Test
+    @DisplayName("Debería soportar usernames con caracteres no ASCII")
+    void shouldSupportNonAsciiUsernames() {
+        // When
+        String token = tokenService.issue("josé.ñandú@example.com");
+
+        // Then
+        assertEquals("josé.ñandú@example.com", tokenService.verify(token));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar un token vencido")
+    void shouldRejectExpiredToken() {
+        // Given
+        String token = tokenService.issue("test@example.com");
+
+        // When
+        now.addAndGet(900);
+
+        // Then
+        assertNull(tokenService.verify(token));
+    }
+
+    @Test
+    @DisplayName("Renovar debería conservar la emisión del token original")
+    void shouldKeepIssueTimeOnRefresh() {
+        // Given
+        String token = tokenService.issue("test@example.com");
+        long issuedAt = tokenService.parse(token).issuedAt();
+
+        // When
+        now.addAndGet(600);
+        String refreshed = tokenService.refresh("test@example.com", issuedAt);
+
+        // Then
+        TokenService.Claims claims = tokenService.parse(refreshed);
+        assertEquals("test@example.com", claims.username());
+        assertEquals(issuedAt, claims.issuedAt());
+    }
+
+    @Test
+    @DisplayName("No debería renovar pasado el tiempo de vida máximo")
+    void shouldNotRefreshPastMaxLifetime() {
+        // Given
+        long issuedAt = tokenService.parse(tokenService.issue("test@example.com")).issuedAt();
+
+        // When
+        now.addAndGet(3_300);
+        String last = tokenService.refresh("test@example.com", issuedAt);
+        now.addAndGet(300);
+
+        // Then
+        assertNull(tokenService.verify(last), "el último token no pasa del tiempo de vida máximo");
+        assertNull(tokenService.refresh("test@example.com", issuedAt));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar un token modificado")
+    void shouldRejectTamperedToken() {
+        // Given
+        String token = tokenService.issue("test@example.com");
+        String otherUser = tokenService.issue("other@example.com");
+        String forged = otherUser.substring(0, otherUser.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        String extended = token.replaceFirst("\\.(\\d+)\\.", ".9999999999.");
+
+        // When & Then
+        assertNull(tokenService.verify(forged));
+        assertNull(tokenService.verify(extended));
+        assertNull(tokenService.verify(token.substring(0, token.length() - 1) + "A"));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar un token firmado con otro secreto")
+    void shouldRejectTokenFromOtherSecret() {
+        // Given
+        TokenService other = new TokenService(TokenService.randomSecret(), 900, 3_600, now::get);
+
+        // When & Then
+        assertNull(tokenService.verify(other.issue("test@example.com")));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar tokens mal formados")
+    void shouldRejectMalformedTokens() {
+        // When & Then
+        assertNull(tokenService.verify(null));
+        assertNull(tokenService.verify(""));
+        assertNull(tokenService.verify("abc"));
+        assertNull(tokenService.verify("a.b.c"));
+        assertNull(tokenService.verify(".123." + "A".repeat(43)));
+    }
+
+    @Test
+    @DisplayName("No debería aceptar secretos cortos")
+    void shouldRejectShortSecrets() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new TokenService(new byte[16], 900, 3_600));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.sistemalogin.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Debería pedir re-hash cuando el costo del hash es mayor o menor")
+    void shouldRequestUpgradeWhenCostDiffers() {
+        // Given
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        // When & Then
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password123")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+        assertFalse(encoder.upgradeEncoding("no-es-bcrypt"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    @DisplayName("Debería leer el costo de un hash BCrypt")
+    void shouldParseCost() {
+        // When & Then
+        assertEquals(4, AdaptiveBCryptPasswordEncoder.costOf(new BCryptPasswordEncoder(4).encode("x")));
+        assertEquals(12, AdaptiveBCryptPasswordEncoder.costOf("$2b$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf("$2a$1x$abc"));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf("{noop}password"));
+    }
+
+    @Test
+    @DisplayName("La calibración debería respetar los límites de costo")
+    void shouldCalibrateWithinBounds() {
+        // When
+        AdaptiveBCryptPasswordEncoder generous = AdaptiveBCryptPasswordEncoder.calibrate(60_000, 4, 6);
+        AdaptiveBCryptPasswordEncoder impossible = AdaptiveBCryptPasswordEncoder.calibrate(0, 4, 6);
+
+        // Then
+        assertEquals(6, generous.getStrength());
+        assertEquals(4, impossible.getStrength());
+        assertTrue(generous.matches("password123", generous.encode("password123")));
+    }
+}
@@ -1,8 +1,26 @@
 package com.example.sistemalogin.service;
 
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.security.AccountLockedException;
+import com.example.sistemalogin.security.AccountLockout;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.UserStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AuthServiceTest {
@@ -117,4 +135,268 @@ class AuthServiceTest {
         assertTrue(authService.authenticateUser(username1, password));
         assertTrue(authService.authenticateUser(username2, password));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Solo una de varias registraciones concurrentes del mismo usuario debería ganar")
+    void shouldRegisterSameUsernameOnlyOnceUnderConcurrency() throws Exception {
+        // Given
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < threads; i++) {
+            String password = "password" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return authService.registerUser("race@example.com", password);
+            }));
+        }
+        start.countDown();
+        int winners = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(60, TimeUnit.SECONDS)) {
+                winners++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, winners);
+    }
+
+    @Test
+    @DisplayName("Un alta duplicada mientras la primera hashea debería rechazarse sin hashear")
+    void shouldRejectInFlightDuplicateWithoutHashing() throws Exception {
+        // Given - el primer hash queda bloqueado hasta liberar el latch
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger encodes = new AtomicInteger();
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                encodes.incrementAndGet();
+                hashing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UsernameReservations reservations = new UsernameReservations(10_000, registry);
+        AuthService pipelined = new AuthService(new ConcurrentUserStore(), PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), encoder, LoginTimingEqualizer.disabled(), reservations);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> first = executor.submit(() -> pipelined.registerUser("race@example.com", "password123"));
+        assertTrue(hashing.await(10, TimeUnit.SECONDS));
+
+        // When
+        long start = System.nanoTime();
+        boolean duplicate = pipelined.registerUser("race@example.com", "otra-password");
+        long duplicateMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        release.countDown();
+
+        // Then
+        assertFalse(duplicate);
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(1, encodes.get());
+        assertTrue(duplicateMicros < 50_000, "el duplicado tardó " + duplicateMicros + " µs");
+        assertEquals(0, reservations.size());
+        assertTrue(pipelined.authenticateUser("race@example.com", "password123"));
+    }
+
+    @Test
+    @DisplayName("Si el hash falla o la reserva vence, el alta debería deshacerse")
+    void shouldRollBackFailedOrExpiredRegistration() {
+        // Given - el reloj de las reservas avanza 2 s por cada hash
+        AtomicLong now = new AtomicLong();
+        AdaptiveBCryptPasswordEncoder slowEncoder = new AdaptiveBCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UsernameReservations reservations = new UsernameReservations(1_000, registry, now::get);
+        UserStore users = new ConcurrentUserStore();
+        AuthService timedOut = new AuthService(users, PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), slowEncoder, LoginTimingEqualizer.disabled(), reservations);
+        AuthService failing = new AuthService(users, PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), new AdaptiveBCryptPasswordEncoder(4) {
+                    @Override
+                    public String encode(CharSequence rawPassword) {
+                        throw new IllegalStateException("falla del motor");
+                    }
+                }, LoginTimingEqualizer.disabled(), reservations);
+
+        // When & Then
+        assertThrows(HashingOverloadedException.class, () -> timedOut.registerUser("lento@example.com", "password123"));
+        assertThrows(IllegalStateException.class, () -> failing.registerUser("falla@example.com", "password123"));
+        assertFalse(users.contains("lento@example.com"));
+        assertFalse(users.contains("falla@example.com"));
+        assertEquals(0, reservations.size());
+        assertEquals(2, registry.get("auth.registration.rollbacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un login repetido debería resolverse desde el cache sin repetir BCrypt")
+    void shouldServeRepeatedLoginFromCredentialCache() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 100, 60_000, registry);
+        AuthService cachedService = new AuthService(new ConcurrentUserStore(),
+                PasswordHashingExecutor.inline(), cache);
+        cachedService.registerUser("test@example.com", "password123");
+
+        // When
+        boolean first = cachedService.authenticateUser("test@example.com", "password123");
+        boolean second = cachedService.authenticateUser("test@example.com", "password123");
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(cachedService.authenticateUser("test@example.com", "wrongpassword"));
+        assertEquals(1, registry.get("auth.credential.cache.hits").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Un login exitoso debería re-hashear un hash con otro costo")
+    void shouldRehashOnLoginWhenCostDiffers() {
+        // Given
+        UserStore users = new ConcurrentUserStore();
+        new AuthService(users, PasswordHashingExecutor.inline(), VerifiedCredentialCache.disabled(),
+                new AdaptiveBCryptPasswordEncoder(4)).registerUser("test@example.com", "password123");
+        AuthService recalibrated = new AuthService(users, PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), new AdaptiveBCryptPasswordEncoder(5));
+
+        // When
+        boolean wrong = recalibrated.authenticateUser("test@example.com", "wrongpassword");
+        String afterWrong = users.get("test@example.com").getHashedPassword();
+        boolean right = recalibrated.authenticateUser("test@example.com", "password123");
+
+        // Then
+        assertFalse(wrong);
+        assertTrue(afterWrong.startsWith("$2a$04$"));
+        assertTrue(right);
+        assertTrue(users.get("test@example.com").getHashedPassword().startsWith("$2a$05$"));
+        assertTrue(recalibrated.authenticateUser("test@example.com", "password123"));
+    }
+
+    @Test
+    @DisplayName("Al cambiar de motor, el próximo login exitoso debería migrar el hash")
+    void shouldMigrateHashToNewEngineOnLogin() {
+        // Given
+        UserStore users = new ConcurrentUserStore();
+        users.put(new User("legacy@example.com",
+                new AdaptiveBCryptPasswordEncoder(4).encode("password123")));
+        AuthService argon2Service = new AuthService(users, PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(),
+                PasswordHashEngines.delegating(PasswordHashEngines.ARGON2ID, new AdaptiveBCryptPasswordEncoder(4),
+                        PasswordHashEngines.argon2id(1024, 1, 1), PasswordHashEngines.pbkdf2(1000)));
+
+        // When
+        boolean authenticated = argon2Service.authenticateUser("legacy@example.com", "password123");
+
+        // Then
+        assertTrue(authenticated);
+        assertTrue(users.get("legacy@example.com").getHashedPassword().startsWith("{argon2id}$argon2id$"));
+        assertTrue(argon2Service.authenticateUser("legacy@example.com", "password123"));
+        assertFalse(argon2Service.authenticateUser("legacy@example.com", "wrongpassword"));
+    }
+
+    @Test
+    @DisplayName("Un usuario inexistente debería tardar como una contraseña incorrecta sin correr BCrypt")
+    void shouldEqualizeUnknownUserTimingWithoutHashing() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginTimingEqualizer equalizer = new LoginTimingEqualizer(true, registry);
+        AuthService equalized = new AuthService(new ConcurrentUserStore(), PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), new AdaptiveBCryptPasswordEncoder(8), equalizer);
+        equalized.registerUser("test@example.com", "password123");
+        long wrongStart = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertFalse(equalized.authenticateUser("test@example.com", "wrongpassword"));
+        }
+        long wrongNanos = System.nanoTime() - wrongStart;
+
+        // When
+        long unknownStart = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertFalse(equalized.authenticateUser("nobody" + i + "@example.com", "password123"));
+        }
+        long unknownNanos = System.nanoTime() - unknownStart;
+
+        // Then
+        assertEquals(5, registry.get("auth.verify.dummy").counter().count());
+        assertTrue(unknownNanos > wrongNanos / 2,
+                "inexistente " + unknownNanos / 1_000_000 + " ms, incorrecta " + wrongNanos / 1_000_000 + " ms");
+    }
+
+    @Test
+    @DisplayName("Las variantes asíncronas deberían registrar y autenticar sin bloquear al llamador")
+    void shouldRegisterAndAuthenticateAsync() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginTimingEqualizer equalizer = new LoginTimingEqualizer(true, registry);
+        try (PasswordHashingExecutor pool = new PasswordHashingExecutor(2, 16, 1, registry)) {
+            AuthService asyncService = new AuthService(new ConcurrentUserStore(), pool,
+                    VerifiedCredentialCache.disabled(), new AdaptiveBCryptPasswordEncoder(4), equalizer);
+
+            // When
+            boolean registered = asyncService.registerUserAsync("test@example.com", "password123").get(10, TimeUnit.SECONDS);
+            boolean duplicate = asyncService.registerUserAsync("test@example.com", "password123").get(10, TimeUnit.SECONDS);
+            boolean right = asyncService.authenticateUserAsync("test@example.com", "password123").get(10, TimeUnit.SECONDS);
+            boolean wrong = asyncService.authenticateUserAsync("test@example.com", "wrongpassword").get(10, TimeUnit.SECONDS);
+            boolean unknown = asyncService.authenticateUserAsync("nobody@example.com", "password123").get(10, TimeUnit.SECONDS);
+
+            // Then
+            assertTrue(registered);
+            assertFalse(duplicate);
+            assertTrue(right);
+            assertFalse(wrong);
+            assertFalse(unknown);
+            assertTrue(equalizer.isCalibrated());
+            assertEquals(1, registry.get("auth.verify.dummy").counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Una cuenta bloqueada debería rechazarse sin verificar la contraseña")
+    void shouldRejectLockedAccountWithoutVerifying() throws Exception {
+        // Given
+        AtomicInteger verifies = new AtomicInteger();
+        AdaptiveBCryptPasswordEncoder countingEncoder = new AdaptiveBCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                verifies.incrementAndGet();
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AccountLockout lockout = new AccountLockout(1024, 3, 60_000, 600_000, 3_600_000, registry);
+        AuthService locking = new AuthService(new ConcurrentUserStore(), PasswordHashingExecutor.inline(),
+                VerifiedCredentialCache.disabled(), countingEncoder, LoginTimingEqualizer.disabled(),
+                UsernameReservations.withDefaults(), lockout);
+        locking.registerUser("ana@example.com", "password123");
+        for (int i = 0; i < 3; i++) {
+            assertFalse(locking.authenticateUser("ana@example.com", "wrongpassword"));
+        }
+        verifies.set(0);
+
+        // When & Then - ni la contraseña correcta pasa, por ninguna de las dos variantes
+        AccountLockedException locked = assertThrows(AccountLockedException.class,
+                () -> locking.authenticateUser("Ana@Example.com", "password123"));
+        ExecutionException async = assertThrows(ExecutionException.class,
+                () -> locking.authenticateUserAsync("ana@example.com", "password123").get(10, TimeUnit.SECONDS));
+        assertInstanceOf(AccountLockedException.class, async.getCause());
+        assertEquals(0, verifies.get());
+        assertEquals(60, locked.getRetryAfterSeconds());
+        assertEquals(2, registry.get("auth.lockout.rejected").counter().count());
+    }
+}
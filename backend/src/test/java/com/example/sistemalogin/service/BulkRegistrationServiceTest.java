@@ -0,0 +1,101 @@
+package com.example.sistemalogin.service;
+
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRegistrationServiceTest {
+
+    private ConcurrentUserStore users;
+    private AdaptiveBCryptPasswordEncoder encoder;
+    private SimpleMeterRegistry registry;
+    private PasswordHashingExecutor hashingExecutor;
+    private BulkRegistrationService service;
+
+    @BeforeEach
+    void setUp() {
+        users = new ConcurrentUserStore();
+        encoder = new AdaptiveBCryptPasswordEncoder(4);
+        registry = new SimpleMeterRegistry();
+        hashingExecutor = new PasswordHashingExecutor(4, 64, 1, registry);
+        service = new BulkRegistrationService(users, encoder, hashingExecutor, 1, 2, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.close();
+    }
+
+    @Test
+    @DisplayName("Debería registrar el lote hasheando cada contraseña")
+    void shouldRegisterBatch() {
+        // Given
+        List<String> usernames = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            usernames.add("user" + i + "@example.com");
+            passwords.add("password" + i);
+        }
+
+        // When
+        BulkRegistrationService.Result[] result = service.registerBatch(usernames, passwords);
+
+        // Then
+        assertEquals(50, users.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(BulkRegistrationService.Result.REGISTERED, result[i]);
+            assertTrue(encoder.matches("password" + i, users.get("user" + i + "@example.com").getHashedPassword()));
+        }
+        assertEquals(50, registry.get("auth.bulk.records").tag("result", "registered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar usuarios existentes y repetidos dentro del lote")
+    void shouldRejectExistingAndRepeatedUsernames() {
+        // Given
+        users.put(new User("ana@example.com", "hash-existente"));
+
+        // When
+        BulkRegistrationService.Result[] result = service.registerBatch(
+                List.of("ana@example.com", "luis@example.com", "luis@example.com"),
+                List.of("password123", "password123", "otra-password"));
+
+        // Then
+        assertArrayEquals(new BulkRegistrationService.Result[] {
+                BulkRegistrationService.Result.EXISTS,
+                BulkRegistrationService.Result.REGISTERED,
+                BulkRegistrationService.Result.EXISTS}, result);
+        assertEquals("hash-existente", users.get("ana@example.com").getHashedPassword());
+        assertTrue(encoder.matches("password123", users.get("luis@example.com").getHashedPassword()));
+        assertEquals(2, registry.get("auth.bulk.records").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un segundo alta masiva mientras corre otra")
+    void shouldRejectConcurrentJobs() {
+        // Given
+        service.beginJob();
+
+        // When & Then
+        assertThrows(HashingOverloadedException.class, service::beginJob);
+        service.endJob();
+        service.beginJob();
+        service.endJob();
+    }
+
+    @Test
+    @DisplayName("Un lote vacío no debería fallar")
+    void shouldAcceptEmptyBatch() {
+        // When & Then
+        assertEquals(0, service.registerBatch(List.of(), List.of()).length);
+    }
+}
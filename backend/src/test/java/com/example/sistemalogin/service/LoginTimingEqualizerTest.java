@@ -0,0 +1,52 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginTimingEqualizerTest {
+
+    @Test
+    @DisplayName("Debería esperar aproximadamente lo que tardan las verificaciones reales")
+    void shouldWaitAboutAsLongAsRealVerifies() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginTimingEqualizer equalizer = new LoginTimingEqualizer(true, registry);
+        assertFalse(equalizer.isCalibrated());
+        for (int i = 0; i < 20; i++) {
+            equalizer.recordVerify(TimeUnit.MILLISECONDS.toNanos(40));
+        }
+
+        // When
+        long start = System.nanoTime();
+        equalizer.awaitDummyVerify();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then - el desvío decae hacia 0 con muestras iguales, el ruido queda en unos pocos ms
+        assertTrue(equalizer.isCalibrated());
+        assertTrue(elapsedMillis >= 35, "esperó " + elapsedMillis + " ms");
+        assertEquals(0.04, registry.get("auth.verify.duration.ewma").gauge().value(), 0.001);
+        assertEquals(1, registry.get("auth.verify.dummy").counter().count());
+    }
+
+    @Test
+    @DisplayName("El promedio debería seguir a un cambio de costo")
+    void shouldTrackCostChanges() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginTimingEqualizer equalizer = new LoginTimingEqualizer(true, registry);
+        equalizer.recordVerify(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            equalizer.recordVerify(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        // Then
+        assertEquals(0.2, registry.get("auth.verify.duration.ewma").gauge().value(), 0.002);
+    }
+}
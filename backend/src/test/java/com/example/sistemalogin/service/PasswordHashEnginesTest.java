@@ -0,0 +1,68 @@
+package com.example.sistemalogin.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashEnginesTest {
+
+    private static PasswordEncoder encoderFor(String engine) {
+        return PasswordHashEngines.delegating(engine, new AdaptiveBCryptPasswordEncoder(4),
+                PasswordHashEngines.argon2id(1024, 1, 1), PasswordHashEngines.pbkdf2(1000));
+    }
+
+    @Test
+    @DisplayName("Cada motor debería guardar su prefijo y verificar sus propios hashes")
+    void shouldPrefixAndVerifyEachEngine() {
+        for (String engine : new String[] {
+                PasswordHashEngines.BCRYPT, PasswordHashEngines.ARGON2ID, PasswordHashEngines.PBKDF2}) {
+            // Given
+            PasswordEncoder encoder = encoderFor(engine);
+
+            // When
+            String hash = encoder.encode("password123");
+
+            // Then
+            assertTrue(hash.startsWith("{" + engine + "}"), hash);
+            assertTrue(hash.chars().allMatch(c -> c < 0x80), "el hash debe ser ASCII");
+            assertTrue(encoder.matches("password123", hash));
+            assertFalse(encoder.matches("wrongpassword", hash));
+            assertFalse(encoder.upgradeEncoding(hash));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería verificar hashes de otros motores y pedir migrarlos")
+    void shouldVerifyOtherEnginesAndRequestMigration() {
+        // Given
+        String pbkdf2Hash = encoderFor(PasswordHashEngines.PBKDF2).encode("password123");
+        PasswordEncoder argon2 = encoderFor(PasswordHashEngines.ARGON2ID);
+
+        // When & Then
+        assertTrue(argon2.matches("password123", pbkdf2Hash));
+        assertTrue(argon2.upgradeEncoding(pbkdf2Hash));
+    }
+
+    @Test
+    @DisplayName("Los hashes BCrypt sin prefijo deberían seguir funcionando y migrarse")
+    void shouldAcceptLegacyUnprefixedBcrypt() {
+        // Given
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        PasswordEncoder encoder = encoderFor(PasswordHashEngines.BCRYPT);
+
+        // When & Then
+        assertTrue(encoder.matches("password123", legacy));
+        assertFalse(encoder.matches("wrongpassword", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un motor desconocido")
+    void shouldRejectUnknownEngine() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> encoderFor("md5"));
+    }
+}
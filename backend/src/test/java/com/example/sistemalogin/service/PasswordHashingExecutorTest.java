@@ -0,0 +1,152 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry registry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(1, 1, 3, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar la tarea en un hilo del pool")
+    void shouldRunTaskOnPoolThread() {
+        // When
+        String threadName = executor.execute(() -> Thread.currentThread().getName());
+
+        // Then
+        assertTrue(threadName.startsWith("bcrypt-"));
+        assertEquals(1, registry.get("auth.hashing.queue.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar de inmediato cuando la cola está llena")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> null));
+        while (executor.getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        HashingOverloadedException e = assertThrows(HashingOverloadedException.class,
+                () -> executor.execute(() -> null));
+
+        // Then
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.hashing.rejected").counter().count());
+        assertEquals(1, registry.get("auth.hashing.queue.depth").gauge().value());
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Debería propagar las excepciones de la tarea")
+    void shouldPropagateTaskExceptions() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(() -> {
+            throw new IllegalArgumentException("hash inválido");
+        }));
+    }
+
+    @Test
+    @DisplayName("El modo inline debería ejecutar en el hilo que llama")
+    void shouldRunInlineOnCallerThread() {
+        // Given
+        PasswordHashingExecutor inline = PasswordHashingExecutor.inline();
+
+        // When
+        Thread thread = inline.execute(Thread::currentThread);
+
+        // Then
+        assertSame(Thread.currentThread(), thread);
+    }
+
+    @Test
+    @DisplayName("Debería hashear en un hilo de plataforma aunque lo llame un hilo virtual")
+    void shouldHashOnPlatformThreadWhenCalledFromVirtualThread() throws Exception {
+        // Given
+        boolean[] hashedOnVirtual = new boolean[1];
+
+        // When
+        Thread caller = Thread.ofVirtual().start(() ->
+                hashedOnVirtual[0] = executor.execute(() -> Thread.currentThread().isVirtual()));
+        caller.join(5_000);
+
+        // Then
+        assertFalse(hashedOnVirtual[0]);
+        assertEquals(1, registry.get("auth.hashing.queue.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("submit no debería bloquear al llamador y debería completar en el pool")
+    void shouldSubmitWithoutBlockingCaller() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        CompletableFuture<String> future = executor.submit(() -> {
+            release.await();
+            return Thread.currentThread().getName();
+        });
+
+        // Then - volvió antes de que la tarea pudiera terminar
+        assertFalse(future.isDone());
+        release.countDown();
+        assertTrue(future.get(5, TimeUnit.SECONDS).startsWith("bcrypt-"));
+        assertEquals(1, registry.get("auth.hashing.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("submit debería fallar el future cuando la cola está llena")
+    void shouldFailSubmittedFutureWhenQueueIsFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> busy = executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        CompletableFuture<Object> queued = executor.submit(() -> null);
+
+        // When
+        CompletableFuture<Object> rejected = executor.submit(() -> null);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HashingOverloadedException.class, e.getCause());
+        assertEquals(1, registry.get("auth.hashing.rejected").counter().count());
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
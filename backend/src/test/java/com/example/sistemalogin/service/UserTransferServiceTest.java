@@ -0,0 +1,136 @@
+package com.example.sistemalogin.service;
+
+import com.example.sistemalogin.dto.ImportResult;
+import com.example.sistemalogin.model.User;
+import com.example.sistemalogin.persistence.JournaledUserStore;
+import com.example.sistemalogin.store.CompactUserStore;
+import com.example.sistemalogin.store.ConcurrentUserStore;
+import com.example.sistemalogin.store.UserStore;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTransferServiceTest {
+
+    private static final String HASH = "{bcrypt}$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private static UserTransferService serviceFor(UserStore store) {
+        return new UserTransferService(store, new JsonFactory(), 3);
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Debería importar exactamente lo que exporta otro nodo")
+    void shouldRoundTripUsersBetweenStores() throws Exception {
+        // Given
+        UserStore source = new ConcurrentUserStore();
+        for (int i = 0; i < 100; i++) {
+            source.put(new User("user" + i + "@example.com", HASH + i));
+        }
+        source.put(new User("josé \"comillas\"@example.com", "$2a$04$legacy"));
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+
+        // When
+        long count = serviceFor(source).exportUsers(exported);
+        UserStore target = new CompactUserStore(16);
+        ImportResult result = serviceFor(target).importUsers(new ByteArrayInputStream(exported.toByteArray()));
+
+        // Then
+        assertEquals(101, count);
+        assertEquals(101, exported.toString(StandardCharsets.UTF_8).lines().count());
+        assertEquals(101, result.getImported());
+        assertEquals(0, result.getSkipped());
+        assertEquals(101, target.size());
+        assertEquals(HASH + 42, target.get("user42@example.com").getHashedPassword());
+        assertEquals("$2a$04$legacy", target.get("josé \"comillas\"@example.com").getHashedPassword());
+    }
+
+    @Test
+    @DisplayName("Debería saltear existentes y contar registros inválidos")
+    void shouldSkipExistingAndCountInvalid() throws Exception {
+        // Given
+        UserStore target = new ConcurrentUserStore();
+        target.put(new User("ana@example.com", "{bcrypt}original"));
+
+        // When
+        ImportResult result = serviceFor(target).importUsers(ndjson(
+                "{\"username\":\"ana@example.com\",\"hashedPassword\":\"" + HASH + "\"}",
+                "{\"username\":\"luis@example.com\",\"hashedPassword\":\"password123\"}",
+                "{\"username\":\"\",\"hashedPassword\":\"" + HASH + "\"}",
+                "{\"username\":\"eva@example.com\",\"hashedPassword\":\"" + HASH + "\",\"extra\":{\"a\":[1,2]}}",
+                "{\"hashedPassword\":\"" + HASH + "\"}"));
+
+        // Then
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getSkipped());
+        assertEquals(3, result.getInvalid());
+        assertEquals("{bcrypt}original", target.get("ana@example.com").getHashedPassword());
+        assertFalse(target.contains("luis@example.com"));
+        assertTrue(target.contains("eva@example.com"));
+    }
+
+    @Test
+    @DisplayName("Un username multibyte que no entra en el journal debería contarse como inválido sin romper el lote")
+    void shouldRejectUsernameTooLongForJournalInUtf8(@TempDir Path dir) throws Exception {
+        // Given - 30.000 chars pasan un límite en chars, pero son 90.000 bytes en UTF-8
+        JournaledUserStore target = new JournaledUserStore(new ConcurrentUserStore(), dir, false, 0, 1);
+        target.open();
+        String tooLong = "漢".repeat(30_000);
+
+        // When
+        ImportResult result = serviceFor(target).importUsers(ndjson(
+                "{\"username\":\"a@example.com\",\"hashedPassword\":\"" + HASH + "\"}",
+                "{\"username\":\"" + tooLong + "\",\"hashedPassword\":\"" + HASH + "\"}",
+                "{\"username\":\"b@example.com\",\"hashedPassword\":\"" + HASH + "\"}"));
+        target.close();
+
+        // Then - el resto del lote quedó en memoria y en el journal
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getInvalid());
+        JournaledUserStore reopened = new JournaledUserStore(new ConcurrentUserStore(), dir, false, 0, 1);
+        reopened.open();
+        assertEquals(2, reopened.size());
+        assertFalse(reopened.contains(tooLong));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Con JSON mal formado debería fallar conservando lo leído antes")
+    void shouldKeepRecordsReadBeforeMalformedInput() {
+        // Given
+        UserStore target = new ConcurrentUserStore();
+
+        // When & Then
+        assertThrows(JsonProcessingException.class, () -> serviceFor(target).importUsers(ndjson(
+                "{\"username\":\"a@example.com\",\"hashedPassword\":\"" + HASH + "\"}",
+                "{\"username\":\"b@example.com\",\"hashedPassword\":\"" + HASH + "\"}",
+                "[1,2,3]")));
+        assertEquals(2, target.size());
+    }
+
+    @Test
+    @DisplayName("Solo debería aceptar hashes de motores conocidos")
+    void shouldAcceptOnlyKnownHashFormats() {
+        // When & Then
+        assertTrue(UserTransferService.isKnownHash(HASH));
+        assertTrue(UserTransferService.isKnownHash("{argon2id}$argon2id$v=19$m=19456,t=2,p=1$c2FsdA$aGFzaA"));
+        assertTrue(UserTransferService.isKnownHash("{pbkdf2}abcdef0123"));
+        assertTrue(UserTransferService.isKnownHash("$2a$10$abc"));
+        assertFalse(UserTransferService.isKnownHash("password123"));
+        assertFalse(UserTransferService.isKnownHash("{noop}password123"));
+        assertFalse(UserTransferService.isKnownHash("{bcrypt}con espacio"));
+        assertFalse(UserTransferService.isKnownHash(null));
+    }
+}
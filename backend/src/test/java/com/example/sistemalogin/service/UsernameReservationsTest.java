@@ -0,0 +1,61 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameReservationsTest {
+
+    @Test
+    @DisplayName("Solo debería haber una reserva vigente por username")
+    void shouldGrantOneReservationPerUsername() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UsernameReservations reservations = new UsernameReservations(1_000, registry);
+
+        // When
+        UsernameReservations.Reservation first = reservations.reserve("ana@example.com");
+        UsernameReservations.Reservation duplicate = reservations.reserve("ana@example.com");
+        UsernameReservations.Reservation other = reservations.reserve("bruno@example.com");
+
+        // Then
+        assertNotNull(first);
+        assertNull(duplicate);
+        assertNotNull(other);
+        assertTrue(reservations.isHeld(first));
+        assertEquals(1, registry.get("auth.registration.duplicates").counter().count());
+
+        // When - liberada, el username se puede volver a reservar
+        reservations.rollback(first);
+
+        // Then
+        assertFalse(reservations.isHeld(first));
+        assertNotNull(reservations.reserve("ana@example.com"));
+        assertEquals(2, reservations.size());
+    }
+
+    @Test
+    @DisplayName("Una reserva vencida debería poder tomarla otra alta y dejar de valer")
+    void shouldLetAnotherRegistrationTakeOverAnExpiredReservation() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        UsernameReservations reservations = new UsernameReservations(1_000, new SimpleMeterRegistry(), now::get);
+        UsernameReservations.Reservation stuck = reservations.reserve("ana@example.com");
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_001));
+        UsernameReservations.Reservation next = reservations.reserve("ana@example.com");
+
+        // Then
+        assertNotNull(next);
+        assertFalse(reservations.isHeld(stuck));
+        assertTrue(reservations.isHeld(next));
+        reservations.rollback(stuck); // no libera la reserva nueva
+        assertTrue(reservations.isHeld(next));
+    }
+}
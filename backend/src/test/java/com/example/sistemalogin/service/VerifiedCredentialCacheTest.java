@@ -0,0 +1,127 @@
+package com.example.sistemalogin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedCredentialCacheTest {
+
+    private static final String HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry registry;
+    private VerifiedCredentialCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        cache = new VerifiedCredentialCache(true, 3, 1_000, registry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Debería acertar con las mismas credenciales y el mismo hash")
+    void shouldHitWithSameCredentialsAndHash() {
+        // Given
+        cache.put("ana@example.com", "password123", HASH);
+
+        // When & Then
+        assertTrue(cache.isVerified("ana@example.com", "password123", HASH));
+        assertEquals(1, registry.get("auth.credential.cache.hits").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("No debería acertar con otra contraseña")
+    void shouldMissWithDifferentPassword() {
+        // Given
+        cache.put("ana@example.com", "password123", HASH);
+
+        // When & Then
+        assertFalse(cache.isVerified("ana@example.com", "wrongpassword", HASH));
+        assertFalse(cache.isVerified("luis@example.com", "password123", HASH));
+        assertEquals(2, registry.get("auth.credential.cache.misses").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Debería invalidar la entrada cuando cambia el hash del usuario")
+    void shouldInvalidateWhenHashChanges() {
+        // Given
+        cache.put("ana@example.com", "password123", HASH);
+
+        // When
+        boolean verified = cache.isVerified("ana@example.com", "password123", "$2a$12$otherhash");
+
+        // Then
+        assertFalse(verified);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Debería vencer las entradas después del TTL")
+    void shouldExpireEntriesAfterTtl() {
+        // Given
+        cache.put("ana@example.com", "password123", HASH);
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_001));
+
+        // Then
+        assertFalse(cache.isVerified("ana@example.com", "password123", HASH));
+    }
+
+    @Test
+    @DisplayName("Debería descartar las entradas más antiguas al superar el máximo")
+    void shouldEvictOldestEntriesWhenFull() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            cache.put("user" + i + "@example.com", "password123", HASH);
+        }
+
+        // Then
+        assertEquals(3, cache.size());
+        assertFalse(cache.isVerified("user0@example.com", "password123", HASH));
+        assertTrue(cache.isVerified("user4@example.com", "password123", HASH));
+        assertEquals(2, registry.get("auth.credential.cache.evictions").counter().count());
+    }
+
+    @Test
+    @DisplayName("Una entrada vencida y vuelta a guardar no debería desplazar a las más nuevas")
+    void shouldTreatReinsertedEntryAsNewest() {
+        // Given
+        cache.put("ana@example.com", "password123", HASH);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_001));
+        assertFalse(cache.isVerified("ana@example.com", "password123", HASH));
+
+        // When
+        cache.put("luis@example.com", "password123", HASH);
+        cache.put("ana@example.com", "password123", HASH);
+        cache.put("eva@example.com", "password123", HASH);
+        cache.put("juan@example.com", "password123", HASH);
+
+        // Then
+        assertEquals(3, cache.size());
+        assertFalse(cache.isVerified("luis@example.com", "password123", HASH));
+        assertTrue(cache.isVerified("ana@example.com", "password123", HASH));
+        assertEquals(1, registry.get("auth.credential.cache.evictions").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no debería guardar nada")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        VerifiedCredentialCache disabled = VerifiedCredentialCache.disabled();
+
+        // When
+        disabled.put("ana@example.com", "password123", HASH);
+
+        // Then
+        assertFalse(disabled.isVerified("ana@example.com", "password123", HASH));
+        assertEquals(0, disabled.size());
+    }
+}
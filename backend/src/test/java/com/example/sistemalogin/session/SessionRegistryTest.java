@@ -0,0 +1,226 @@
+package com.example.sistemalogin.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(30);
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private SessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_700_000_000_000L);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new SessionRegistry(16, TTL, 1_000, meterRegistry, clock::get);
+    }
+
+    private void advance(long millis) {
+        // el hilo de expiración corre una vez por tick
+        long end = clock.get() + millis;
+        while (clock.get() < end) {
+            clock.set(Math.min(end, clock.get() + 1_000));
+            registry.expire();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería crear y encontrar una sesión")
+    void shouldCreateAndLookupSession() {
+        // When
+        String id = registry.create("ana@example.com");
+
+        // Then
+        assertEquals(22, id.length());
+        assertEquals("ana@example.com", registry.lookup(id));
+        assertEquals(1, registry.size());
+        assertNull(registry.lookup("AAAAAAAAAAAAAAAAAAAAAA"));
+    }
+
+    @Test
+    @DisplayName("Debería codificar y decodificar ids sin perder bits")
+    void shouldRoundTripSessionIds() {
+        // Given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long high = random.nextLong();
+            long low = random.nextLong();
+
+            // When
+            long[] decoded = SessionRegistry.decode(SessionRegistry.encode(high, low));
+
+            // Then
+            assertEquals(high, decoded[0]);
+            assertEquals(low, decoded[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("No debería aceptar ids mal formados")
+    void shouldRejectMalformedIds() {
+        // When & Then
+        assertNull(registry.lookup(null));
+        assertNull(registry.lookup("corto"));
+        assertNull(registry.lookup("AAAAAAAAAAAAAAAAAAAA!!"));
+        assertNull(SessionRegistry.decode("AAAAAAAAAAAAAAAAAAAAAB"));
+        assertFalse(registry.remove("corto"));
+    }
+
+    @Test
+    @DisplayName("Debería vencer la sesión después del TTL")
+    void shouldExpireSessionAfterTtl() {
+        // Given
+        String id = registry.create("ana@example.com");
+
+        // When
+        advance(TTL - 1_000);
+        String beforeTtl = registry.lookup(id);
+        advance(2_000);
+
+        // Then
+        assertEquals("ana@example.com", beforeTtl);
+        assertNull(registry.lookup(id));
+        assertEquals(0, registry.size());
+        assertEquals(1, meterRegistry.get("auth.sessions.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("touch debería extender la sesión un TTL completo")
+    void shouldExtendSessionOnTouch() {
+        // Given
+        String id = registry.create("ana@example.com");
+        advance(TTL - 60_000);
+
+        // When
+        assertTrue(registry.touch(id));
+        advance(TTL - 60_000);
+
+        // Then
+        assertEquals("ana@example.com", registry.lookup(id));
+        advance(120_000);
+        assertNull(registry.lookup(id));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("Debería borrar una sesión explícitamente")
+    void shouldRemoveSession() {
+        // Given
+        String id = registry.create("ana@example.com");
+
+        // When
+        boolean removed = registry.remove(id);
+
+        // Then
+        assertTrue(removed);
+        assertNull(registry.lookup(id));
+        assertEquals(0, registry.size());
+        advance(TTL + 1_000);
+        assertEquals(0, meterRegistry.get("auth.sessions.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debería vencer cada sesión en su momento con TTLs de varios niveles de la rueda")
+    void shouldExpireSessionsAcrossWheelLevels() {
+        // Given
+        long[] ttls = {5_000, 90_000, TimeUnit.HOURS.toMillis(3), TimeUnit.DAYS.toMillis(4)};
+        List<SessionRegistry> registries = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (long ttl : ttls) {
+            SessionRegistry r = new SessionRegistry(4, ttl, 1_000, new SimpleMeterRegistry(), clock::get);
+            registries.add(r);
+            ids.add(r.create("user-" + ttl));
+        }
+
+        // When & Then
+        long elapsed = 0;
+        for (int i = 0; i < ttls.length; i++) {
+            long step = ttls[i] - elapsed;
+            long end = clock.get() + step;
+            while (clock.get() < end) {
+                clock.set(Math.min(end, clock.get() + 1_000));
+                registries.forEach(SessionRegistry::expire);
+            }
+            elapsed = ttls[i];
+            clock.addAndGet(1_000);
+            registries.forEach(SessionRegistry::expire);
+            elapsed += 1_000;
+            for (int j = 0; j < ttls.length; j++) {
+                assertEquals(j <= i ? 0 : 1, registries.get(j).size(), "ttl=" + ttls[j] + " después de " + elapsed);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debería expirar cientos de miles de sesiones sin dejar ninguna")
+    void shouldExpireManySessions() {
+        // Given
+        int sessions = 200_000;
+        List<String> ids = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            ids.add(registry.create("user" + (i % 1000) + "@example.com"));
+            if (i % 1000 == 0) {
+                clock.addAndGet(1);
+            }
+        }
+        for (int i = 0; i < sessions; i += 997) {
+            assertNotNull(registry.lookup(ids.get(i)));
+        }
+
+        // When
+        advance(TTL + 2_000);
+
+        // Then
+        assertEquals(0, registry.size());
+        assertEquals(sessions, meterRegistry.get("auth.sessions.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debería soportar creación y búsqueda concurrente")
+    void shouldSupportConcurrentAccess() throws Exception {
+        // Given
+        int threads = 32;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String id = registry.create("user-" + thread);
+                    assertEquals("user-" + thread, registry.lookup(id));
+                    if (i % 2 == 0) {
+                        assertTrue(registry.remove(id));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread / 2, registry.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilteredUserStoreTest {
+
+    private ConcurrentUserStore delegate;
+    private BloomFilteredUserStore store;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentUserStore();
+        store = new BloomFilteredUserStore(delegate, 16, 10);
+    }
+
+    @Test
+    @DisplayName("Debería encontrar todos los usuarios insertados, incluso después de crecer")
+    void shouldNeverMissInsertedUsers() {
+        // When - muchas más inserciones que la capacidad inicial, por las tres vías
+        for (int i = 0; i < 20_000; i++) {
+            store.putIfAbsent(new User("user" + i + "@example.com", "hash"));
+        }
+        store.put(new User("put@example.com", "hash"));
+        store.putAllIfAbsent(List.of(new User("batch1@example.com", "hash"), new User("batch2@example.com", "hash")));
+
+        // Then
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(store.contains("user" + i + "@example.com"));
+        }
+        assertNotNull(store.get("put@example.com"));
+        assertNotNull(store.get("batch2@example.com"));
+        assertEquals(20_003, store.size());
+    }
+
+    @Test
+    @DisplayName("La mayoría de las búsquedas de usuarios inexistentes no deberían tocar el motor")
+    void shouldAnswerMostMissesFromFilter() {
+        // Given
+        for (int i = 0; i < 10_000; i++) {
+            store.putIfAbsent(new User("user" + i + "@example.com", "hash"));
+        }
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            assertNull(store.get("intruso" + i + "@example.com"));
+        }
+
+        // Then - con 10 bits por usuario se espera ~1% de falsos positivos
+        assertEquals(10_000, store.getNegativeLookups() + store.getFalsePositives());
+        assertTrue(store.getFalsePositives() < 300, "falsos positivos: " + store.getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Debería cargar en el filtro los usuarios que ya tenía el motor")
+    void shouldLoadExistingUsersFromDelegate() {
+        // Given
+        delegate.put(new User("ana@example.com", "hash"));
+
+        // When
+        BloomFilteredUserStore wrapped = new BloomFilteredUserStore(delegate, 16, 10);
+
+        // Then
+        assertTrue(wrapped.contains("ana@example.com"));
+        assertTrue(wrapped.memoryBytes() > delegate.memoryBytes());
+    }
+
+    @Test
+    @DisplayName("Las inserciones concurrentes con reconstrucciones del filtro no deberían perderse")
+    void shouldNotLoseInsertionsWhileGrowing() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    store.putIfAbsent(new User("t" + thread + "-" + i + "@example.com", "hash"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(store.contains("t" + t + "-" + i + "@example.com"));
+            }
+        }
+    }
+}
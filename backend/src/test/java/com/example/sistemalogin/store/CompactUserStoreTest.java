@@ -0,0 +1,220 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactUserStoreTest {
+
+    private static final String BCRYPT_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private CompactUserStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CompactUserStore(16);
+    }
+
+    @Test
+    @DisplayName("Debería guardar y recuperar un usuario")
+    void shouldStoreAndRetrieveUser() {
+        // When
+        boolean inserted = store.putIfAbsent(new User("test@example.com", BCRYPT_HASH));
+
+        // Then
+        assertTrue(inserted);
+        User user = store.get("test@example.com");
+        assertEquals("test@example.com", user.getUsername());
+        assertEquals(BCRYPT_HASH, user.getHashedPassword());
+        assertTrue(store.contains("test@example.com"));
+        assertFalse(store.contains("other@example.com"));
+        assertNull(store.get("other@example.com"));
+    }
+
+    @Test
+    @DisplayName("No debería insertar un usuario que ya existe")
+    void shouldNotInsertExistingUser() {
+        // Given
+        store.putIfAbsent(new User("test@example.com", BCRYPT_HASH));
+
+        // When
+        boolean inserted = store.putIfAbsent(new User("test@example.com", "otherhash"));
+
+        // Then
+        assertFalse(inserted);
+        assertEquals(BCRYPT_HASH, store.get("test@example.com").getHashedPassword());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Debería insertar un lote saltando los usuarios existentes")
+    void shouldInsertBatchSkippingExistingUsers() {
+        // Given
+        store.putIfAbsent(new User("ana@example.com", BCRYPT_HASH));
+
+        // When
+        boolean[] inserted = store.putAllIfAbsent(List.of(
+                new User("luis@example.com", BCRYPT_HASH),
+                new User("ana@example.com", "otherhash"),
+                new User("eva@example.com", BCRYPT_HASH),
+                new User("luis@example.com", "otherhash")));
+
+        // Then
+        assertArrayEquals(new boolean[] {true, false, true, false}, inserted);
+        assertEquals(3, store.size());
+        assertEquals(BCRYPT_HASH, store.get("ana@example.com").getHashedPassword());
+        assertEquals(BCRYPT_HASH, store.get("luis@example.com").getHashedPassword());
+    }
+
+    @Test
+    @DisplayName("Debería reemplazar el hash con put")
+    void shouldReplaceHashWithPut() {
+        // Given
+        store.putIfAbsent(new User("test@example.com", BCRYPT_HASH));
+
+        // When
+        store.put(new User("test@example.com", "$2a$12$otherhash"));
+
+        // Then
+        assertEquals("$2a$12$otherhash", store.get("test@example.com").getHashedPassword());
+        assertEquals(1, store.size());
+        assertTrue(store.garbageBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Debería soportar usernames con caracteres fuera de Latin-1")
+    void shouldSupportNonLatin1Usernames() {
+        // Given
+        String[] usernames = {"josé@example.com", "ユーザー", "пользователь", "emoji😀"};
+
+        // When
+        for (String username : usernames) {
+            assertTrue(store.putIfAbsent(new User(username, BCRYPT_HASH)));
+        }
+
+        // Then
+        Set<String> seen = new HashSet<>();
+        store.forEach(user -> seen.add(user.getUsername()));
+        for (String username : usernames) {
+            assertTrue(store.contains(username));
+            assertEquals(username, store.get(username).getUsername());
+            assertTrue(seen.contains(username));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería crecer a través de varios chunks del arena")
+    void shouldGrowAcrossArenaChunks() {
+        // Given
+        int users = 120_000;
+
+        // When
+        for (int i = 0; i < users; i++) {
+            assertTrue(store.putIfAbsent(new User("user" + i + "@example.com", BCRYPT_HASH)));
+        }
+
+        // Then
+        assertEquals(users, store.size());
+        for (int i = 0; i < users; i++) {
+            assertEquals(BCRYPT_HASH, store.get("user" + i + "@example.com").getHashedPassword());
+        }
+        int[] count = new int[1];
+        store.forEach(user -> count[0]++);
+        assertEquals(users, count[0]);
+    }
+
+    @Test
+    @DisplayName("contains no debería asignar memoria")
+    void shouldNotAllocateOnContains() {
+        // Given
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String present = "present@example.com";
+        String missing = "missing@example.com";
+        store.putIfAbsent(new User(present, BCRYPT_HASH));
+        present.hashCode();
+        missing.hashCode();
+        for (int i = 0; i < 10_000; i++) {
+            store.contains(present);
+            store.contains(missing);
+        }
+
+        // When
+        long before = threads.getCurrentThreadAllocatedBytes();
+        boolean found = true;
+        for (int i = 0; i < 100_000; i++) {
+            found &= store.contains(present) && !store.contains(missing);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Then
+        assertTrue(found);
+        assertTrue(allocated < 1024, "contains asignó " + allocated + " bytes");
+    }
+
+    @Test
+    @DisplayName("Debería usar bastante menos memoria que el motor concurrente")
+    void shouldUseLessMemoryThanConcurrentStore() {
+        // Given
+        int users = 100_000;
+        CompactUserStore compact = new CompactUserStore(users);
+        ConcurrentUserStore concurrent = new ConcurrentUserStore(users);
+
+        // When
+        for (int i = 0; i < users; i++) {
+            User user = new User("user" + i + "@example.com", BCRYPT_HASH);
+            compact.putIfAbsent(user);
+            concurrent.putIfAbsent(user);
+        }
+
+        // Then
+        assertTrue(compact.memoryBytes() * 3 < concurrent.memoryBytes() * 2,
+                "compact=" + compact.memoryBytes() + " concurrent=" + concurrent.memoryBytes());
+    }
+
+    @Test
+    @DisplayName("No debería perder registros con 64 hilos escribiendo y leyendo")
+    void shouldNotLoseUpdatesUnderConcurrency() throws Exception {
+        // Given
+        int threads = 64;
+        int usersPerThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < usersPerThread; i++) {
+                    String username = "user-" + thread + "-" + i;
+                    assertTrue(store.putIfAbsent(new User(username, BCRYPT_HASH)));
+                    assertEquals(BCRYPT_HASH, store.get(username).getHashedPassword());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * usersPerThread, store.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUserStoreTest {
+
+    private static final int THREADS = 64;
+    private static final int USERS_PER_THREAD = 2_000;
+
+    private UserStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentUserStore();
+    }
+
+    @Test
+    @DisplayName("Debería insertar solo si el usuario no existe")
+    void shouldPutIfAbsent() {
+        // When
+        boolean first = store.putIfAbsent(new User("test@example.com", "hash1"));
+        boolean second = store.putIfAbsent(new User("test@example.com", "hash2"));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals("hash1", store.get("test@example.com").getHashedPassword());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Debería reemplazar el usuario con put")
+    void shouldReplaceWithPut() {
+        // Given
+        store.putIfAbsent(new User("test@example.com", "hash1"));
+
+        // When
+        store.put(new User("test@example.com", "hash2"));
+
+        // Then
+        assertEquals("hash2", store.get("test@example.com").getHashedPassword());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("No debería perder registros con 64 hilos escribiendo a la vez")
+    void shouldNotLoseUpdatesUnderConcurrentWrites() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < USERS_PER_THREAD; i++) {
+                    assertTrue(store.putIfAbsent(new User("user-" + thread + "-" + i, "hash")));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(THREADS * USERS_PER_THREAD, store.size());
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < USERS_PER_THREAD; i++) {
+                assertTrue(store.contains("user-" + t + "-" + i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Solo un hilo debería ganar el mismo username")
+    void shouldLetOnlyOneThreadWinTheSameUsername() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int round = 0; round < 100; round++) {
+            String username = "race-" + round;
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (store.putIfAbsent(new User(username, "hash"))) {
+                        winners.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(100, winners.get());
+        assertEquals(100, store.size());
+    }
+
+    @Test
+    @DisplayName("Los lectores concurrentes deberían ver todos los usuarios publicados")
+    void shouldServeConcurrentReaders() throws Exception {
+        // Given
+        for (int i = 0; i < USERS_PER_THREAD; i++) {
+            store.putIfAbsent(new User("user-" + i, "hash-" + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                int found = 0;
+                for (int i = 0; i < USERS_PER_THREAD; i++) {
+                    User user = store.get("user-" + i);
+                    if (user != null && user.getHashedPassword().equals("hash-" + i)) {
+                        found++;
+                    }
+                }
+                return found;
+            }));
+        }
+
+        // Then
+        for (Future<Integer> future : futures) {
+            assertEquals(USERS_PER_THREAD, future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+    }
+}
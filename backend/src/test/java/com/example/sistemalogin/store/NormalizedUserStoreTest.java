@@ -0,0 +1,101 @@
+package com.example.sistemalogin.store;
+
+import com.example.sistemalogin.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizedUserStoreTest {
+
+    private ConcurrentUserStore delegate;
+    private UsernameIndex index;
+    private NormalizedUserStore store;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentUserStore();
+        index = new UsernameIndex();
+        store = new NormalizedUserStore(delegate, index);
+    }
+
+    @Test
+    @DisplayName("No debería permitir dos cuentas que solo difieren en mayúsculas")
+    void shouldTreatCaseVariantsAsSameAccount() {
+        // Given
+        assertTrue(store.putIfAbsent(new User("Ana@example.com", "hash-1")));
+
+        // When
+        boolean variant = store.putIfAbsent(new User("ana@EXAMPLE.com", "hash-2"));
+        boolean[] batch = store.putAllIfAbsent(List.of(
+                new User("ANA@example.com", "hash-3"), new User("bruno@example.com", "hash")));
+
+        // Then
+        assertFalse(variant);
+        assertArrayEquals(new boolean[]{false, true}, batch);
+        assertEquals(2, store.size());
+        assertEquals("Ana@example.com", store.get("ANA@EXAMPLE.COM").getUsername());
+        assertTrue(store.contains("ana@example.com"));
+    }
+
+    @Test
+    @DisplayName("Un put con otra variante debería actualizar al usuario guardado")
+    void shouldUpdateStoredUserFromVariant() {
+        // Given
+        store.putIfAbsent(new User("Ana@example.com", "hash-viejo"));
+
+        // When - por ejemplo el re-hash de un login escrito en minúsculas
+        store.put(new User("ana@example.com", "hash-nuevo"));
+
+        // Then
+        assertEquals(1, delegate.size());
+        assertEquals("hash-nuevo", delegate.get("Ana@example.com").getHashedPassword());
+    }
+
+    @Test
+    @DisplayName("Debería indexar los usuarios que ya tenía el motor")
+    void shouldIndexExistingUsers() {
+        // Given
+        ConcurrentUserStore existing = new ConcurrentUserStore();
+        existing.put(new User("Carla@example.com", "hash"));
+
+        // When
+        NormalizedUserStore wrapped = new NormalizedUserStore(existing, new UsernameIndex());
+
+        // Then
+        assertNotNull(wrapped.get("carla@example.com"));
+        assertFalse(wrapped.putIfAbsent(new User("CARLA@example.com", "hash")));
+    }
+
+    @Test
+    @DisplayName("Un usuario no debería verse como existente hasta que el motor lo inserta")
+    void shouldPublishOnlyAfterDelegateInsert() {
+        // Given - un motor que mira el store de arriba mientras inserta, y que rechaza a "luis"
+        boolean[] visibleDuringInsert = {true};
+        NormalizedUserStore[] outer = new NormalizedUserStore[1];
+        ConcurrentUserStore spying = new ConcurrentUserStore() {
+            @Override
+            public boolean putIfAbsent(User user) {
+                visibleDuringInsert[0] = outer[0].contains(user.getUsername());
+                return !user.getUsername().startsWith("luis") && super.putIfAbsent(user);
+            }
+        };
+        outer[0] = new NormalizedUserStore(spying, index);
+
+        // When
+        boolean ana = outer[0].putIfAbsent(new User("Ana@example.com", "hash"));
+        boolean luis = outer[0].putIfAbsent(new User("luis@example.com", "hash"));
+
+        // Then
+        assertTrue(ana);
+        assertFalse(visibleDuringInsert[0]);
+        assertTrue(outer[0].contains("ana@example.com"));
+        assertFalse(luis);
+        assertFalse(outer[0].contains("luis@example.com"));
+        assertNull(index.claim("LUIS@example.com")); // el claim rechazado se liberó
+        assertEquals(List.of("Ana@example.com"), index.scan("", null, 10).getUsernames());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sistemalogin.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameIndexTest {
+
+    private static void add(UsernameIndex index, String username) {
+        assertNull(index.claim(username));
+        index.publish(username);
+    }
+
+    @Test
+    @DisplayName("Variantes de mayúsculas y formas Unicode compatibles deberían normalizar igual")
+    void shouldNormalizeEquivalentUsernames() {
+        // When & Then
+        assertEquals("ana@example.com", UsernameNormalizer.normalize("Ana@Example.COM"));
+        assertEquals("ana", UsernameNormalizer.normalize("Ａｎａ")); // ancho completo
+        assertEquals("strasse", UsernameNormalizer.normalize("Straße"));
+        assertEquals(UsernameNormalizer.normalize("ÑANDÚ"), UsernameNormalizer.normalize("ñandú"));
+        String lower = "ya-normalizado@example.com";
+        assertSame(lower, UsernameNormalizer.normalize(lower)); // camino rápido sin copia
+    }
+
+    @Test
+    @DisplayName("Debería resolver cualquier variante al username guardado")
+    void shouldResolveVariantsToStoredUsername() {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+
+        // When
+        String first = index.claim("Ana@example.com");
+        String second = index.claim("ANA@EXAMPLE.COM");
+
+        // Then - reservado pero todavía no visible
+        assertNull(first);
+        assertEquals("Ana@example.com", second);
+        assertNull(index.resolve("ana@example.com"));
+        index.release("ANA@EXAMPLE.COM"); // no es el dueño: no libera
+        index.publish("ANA@EXAMPLE.COM"); // ni publica
+        assertNull(index.resolve("ana@example.com"));
+        index.publish("Ana@example.com");
+        assertEquals("Ana@example.com", index.resolve("ana@example.com"));
+        index.release("Ana@example.com"); // ya publicado: no se libera
+        assertEquals("Ana@example.com", index.resolve("ANA@example.com"));
+    }
+
+    @Test
+    @DisplayName("Un claim liberado no debería quedar en el recorrido por prefijo")
+    void shouldNotScanReleasedClaims() {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+        index.claim("ana@example.com");
+        assertTrue(index.scan("ana", null, 10).getUsernames().isEmpty());
+
+        // When
+        index.release("ana@example.com");
+        String reclaimed = index.claim("ANA@example.com");
+        index.publish("ANA@example.com");
+
+        // Then
+        assertNull(reclaimed);
+        assertEquals(List.of("ANA@example.com"), index.scan("ana", null, 10).getUsernames());
+        assertEquals("ANA@example.com", index.resolve("ana@example.com"));
+    }
+
+    @Test
+    @DisplayName("Claims, publicaciones y liberaciones concurrentes deberían dejar el recorrido igual a la búsqueda exacta")
+    void shouldKeepScanConsistentWithResolveUnderConcurrency() throws Exception {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - cada hilo pelea por las mismas 200 claves con su propia variante
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int i = 0; i < 200; i++) {
+                        String username = (thread % 2 == 0 ? "user" : "USER") + i + "-" + thread;
+                        String variant = (thread % 2 == 0 ? "user" : "USER") + i;
+                        if (index.claim(variant) == null) {
+                            if ((i + round) % 3 == 0) {
+                                index.release(variant);
+                            } else {
+                                index.publish(variant);
+                            }
+                        }
+                        index.claim(username);
+                        index.release(username);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        List<String> scanned = index.scan("user", null, UsernameIndex.MAX_PAGE_SIZE).getUsernames();
+        for (String username : scanned) {
+            assertEquals(username, index.resolve(username));
+        }
+        for (int i = 0; i < 200; i++) {
+            String resolved = index.resolve("user" + i);
+            assertEquals(resolved != null, scanned.contains(resolved));
+        }
+        assertEquals(scanned.size(), index.size());
+    }
+
+    @Test
+    @DisplayName("Debería recorrer un prefijo en orden y por páginas sin salirse del prefijo")
+    void shouldScanPrefixWithPagination() {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+        for (int i = 0; i < 2_500; i++) {
+            add(index, String.format("Acme-%05d@example.com", i));
+            add(index, String.format("otro-%05d@example.com", i));
+        }
+        add(index, "acmf@example.com");
+
+        // When
+        List<String> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            UsernameIndex.Page page = index.scan("ACME-", cursor, 1_000);
+            all.addAll(page.getUsernames());
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(3, pages);
+        assertEquals(2_500, all.size());
+        assertEquals("Acme-00000@example.com", all.get(0));
+        assertEquals("Acme-02499@example.com", all.get(2_499));
+        assertTrue(index.scan("nadie", null, 10).getUsernames().isEmpty());
+        assertEquals(1, index.scan("acmf", null, 10).getUsernames().size());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.sistemalogin.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTracerTest {
+
+    private static final String PARENT_TRACE = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN = "00f067aa0ba902b7";
+
+    @Test
+    @DisplayName("Debería muestrear según la tasa y respetar la decisión de un traceparent entrante")
+    void shouldSampleByRateAndHonorTraceparent() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (RequestTracer never = new RequestTracer(new ByteArrayOutputStream(), 0, 10, 16, registry)) {
+
+            // When
+            RequestTrace unsampled = never.begin("POST", "/api/login", null);
+            RequestTrace forced = never.begin("POST", "/api/login", "00-" + PARENT_TRACE + "-" + PARENT_SPAN + "-01");
+            RequestTrace declined = never.begin("POST", "/api/login", "00-" + PARENT_TRACE + "-" + PARENT_SPAN + "-00");
+            RequestTrace malformed = never.begin("POST", "/api/login", "00-zz-" + PARENT_SPAN + "-01");
+
+            // Then
+            assertSame(RequestTrace.NOOP, unsampled);
+            assertTrue(forced.isSampled());
+            assertEquals(PARENT_TRACE, forced.getTraceId());
+            assertEquals(PARENT_SPAN, forced.getParentSpanId());
+            assertSame(RequestTrace.NOOP, declined);
+            assertSame(RequestTrace.NOOP, malformed);
+            assertEquals(1, registry.get("auth.tracing.sampled").counter().count());
+        }
+        assertSame(RequestTrace.NOOP, RequestTracer.disabled().begin("POST", "/api/login", null));
+    }
+
+    @Test
+    @DisplayName("Debería escribir la traza en OTLP/JSON con las fases como hijas del span del request")
+    void shouldExportOtlpJson() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RequestTracer tracer = new RequestTracer(out, 1, 10, 16, registry);
+        RequestTrace trace = tracer.begin("POST", "/api/login", null);
+        long lookup = trace.start();
+        trace.end("user.lookup", lookup);
+        trace.open("json.encode");
+
+        // When
+        tracer.finish(trace, 200);
+        trace.end("tarde", trace.start());
+        tracer.close();
+
+        // Then
+        JsonNode line = new ObjectMapper().readTree(out.toString());
+        JsonNode resource = line.at("/resourceSpans/0");
+        assertEquals("sistema-login", resource.at("/resource/attributes/0/value/stringValue").asText());
+        JsonNode spans = resource.at("/scopeSpans/0/spans");
+        assertEquals(3, spans.size());
+        JsonNode root = spans.get(0);
+        assertEquals("POST /api/login", root.get("name").asText());
+        assertEquals(2, root.get("kind").asInt());
+        assertEquals(32, root.get("traceId").asText().length());
+        assertFalse(root.has("parentSpanId"));
+        assertEquals("200", root.at("/attributes/2/value/intValue").asText());
+        for (JsonNode child : List.of(spans.get(1), spans.get(2))) {
+            assertEquals(root.get("traceId"), child.get("traceId"));
+            assertEquals(root.get("spanId"), child.get("parentSpanId"));
+            long start = Long.parseLong(child.get("startTimeUnixNano").asText());
+            long end = Long.parseLong(child.get("endTimeUnixNano").asText());
+            assertTrue(start >= Long.parseLong(root.get("startTimeUnixNano").asText()));
+            assertTrue(end >= start && end <= Long.parseLong(root.get("endTimeUnixNano").asText()));
+        }
+        assertEquals("user.lookup", spans.get(1).get("name").asText());
+        assertEquals("json.encode", spans.get(2).get("name").asText());
+        assertEquals(1, registry.get("auth.tracing.exported").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un traceparent muestreado no debería forzar más trazas que el cupo por segundo")
+    void shouldCapForcedSamples() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        String traceparent = "00-" + PARENT_TRACE + "-" + PARENT_SPAN + "-01";
+        try (RequestTracer tracer = new RequestTracer(new ByteArrayOutputStream(), 0, 2, 16, registry)) {
+
+            // When
+            int forced = 0;
+            for (int i = 0; i < 100; i++) {
+                if (tracer.begin("POST", "/api/login", traceparent).isSampled()) {
+                    forced++;
+                }
+            }
+
+            // Then - a lo sumo dos por segundo, por si el bucle cruzó un cambio de segundo
+            assertTrue(forced >= 2 && forced <= 4, "forzadas: " + forced);
+            assertEquals(100 - forced, registry.get("auth.tracing.forced.limited").counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rotar el archivo de trazas al llegar al tamaño máximo y conservar solo uno anterior")
+    void shouldRotateTraceFileAtMaxSize(@TempDir Path dir) throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Path file = dir.resolve("spans.jsonl");
+        RequestTracer tracer = new RequestTracer(file, 1, 0, 16, 1, registry);
+
+        // When - cada lote pasa el máximo de un byte
+        for (int i = 1; i <= 3; i++) {
+            tracer.finish(tracer.begin("POST", "/api/login", null), 200);
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (registry.get("auth.tracing.exported").counter().count() < i && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        tracer.close();
+
+        // Then
+        assertEquals(3, registry.get("auth.tracing.exported").counter().count());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(0, Files.size(file));
+        assertEquals(1, Files.readAllLines(dir.resolve("spans.jsonl.1")).size());
+    }
+}